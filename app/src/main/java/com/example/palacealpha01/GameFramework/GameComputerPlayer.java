@@ -26,7 +26,7 @@ import com.example.palacealpha01.GameFramework.utilities.Tickable;
  * @author Andrew Nuxoll
  * @version July 2013
  */
-public abstract class GameComputerPlayer implements GamePlayer, Tickable {
+public abstract class GameComputerPlayer implements GameGuiPlayer, Tickable {
     //Tag for logging
     private static final String TAG = "GameComputerPlayer";
     /**
@@ -0,0 +1,22 @@
+package com.example.palacealpha01.GameFramework;
+
+/**
+ * A player that can be linked to the app's activity to show its GUI. The
+ * framework's player classes all implement this; GamePlayer itself knows
+ * nothing about Android.
+ *
+ * @author Steven R. Vegdahl
+ * @author Andrew M. Nuxoll
+ * @version July 2013
+ */
+
+public interface GameGuiPlayer extends GamePlayer {
+
+    // sets this player as the GUI player (implemented as final in the
+    // major player classes)
+    public abstract void gameSetAsGui(GameMainActivity activity);
+
+    // sets this player as the GUI player (overrideable)
+    public abstract void setAsGui(GameMainActivity activity);
+
+}// interface GameGuiPlayer
@@ -34,7 +34,7 @@ import com.example.palacealpha01.GameFramework.utilities.Tickable;
  * @version July 2013
  *
  */
-public abstract class GameHumanPlayer implements GamePlayer, Tickable {
+public abstract class GameHumanPlayer implements GameGuiPlayer, Tickable {
     //Tag for logging
     private static final String TAG = "GameHumanPlayer";
     /**
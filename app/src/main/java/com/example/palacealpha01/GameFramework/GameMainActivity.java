@@ -64,7 +64,7 @@ public abstract class GameMainActivity extends Activity implements
     private GamePlayer[] players = null;
 
     // tells which player, if any, is running in the GUI
-    private GamePlayer guiPlayer = null;
+    private GameGuiPlayer guiPlayer = null;
 
     // whether the game is over
     private boolean gameIsOver = false;
@@ -321,10 +321,10 @@ public abstract class GameMainActivity extends Activity implements
             // supports a GUI and the "requires" count is zero, mark it
             if (players[i].requiresGui()) {
                 requiresGuiCount++;
-                guiPlayer = players[i];
+                guiPlayer = (GameGuiPlayer) players[i];
             }
             else if (guiPlayer == null && players[i].supportsGui()) {
-                guiPlayer = players[i];
+                guiPlayer = (GameGuiPlayer) players[i];
             }
         }
 
@@ -16,7 +16,7 @@ import com.example.palacealpha01.GameFramework.utilities.NetworkObjectPasser;
  * @author Steven R. Vegdahl
  * @version July 2013
  */
-public class ProxyPlayer implements GamePlayer {
+public class ProxyPlayer implements GameGuiPlayer {
     //Tag for logging
     private static final String TAG = "ProxyPlayer";
 
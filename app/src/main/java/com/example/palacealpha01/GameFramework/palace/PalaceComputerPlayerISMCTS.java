@@ -0,0 +1,135 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import com.example.palacealpha01.GameFramework.GameComputerPlayer;
+import com.example.palacealpha01.GameFramework.infoMessage.GameInfo;
+import com.example.palacealpha01.GameFramework.infoMessage.NotYourTurnInfo;
+import com.example.palacealpha01.GameFramework.utilities.Logger;
+
+/**
+ * This computer player searches for its moves with Information-Set Monte Carlo Tree Search (see
+ * InformationSetSearch.java), guessing the cards it cannot see over and over again, within a budget
+ * of time, iterations or both per move. It searches on every core by default, rather than only on
+ * its own thread (see ParallelSearch.java). Its guesses keep the cards it saw the other players
+ * pick up in their hands (see BeliefState.java). With a time budget, its workers also share what
+ * they find through a TranspositionTable.java kept for the whole game. It keeps the palace it was
+ * dealt.
+ * <p>
+ * After every search it logs how many iterations per second it ran, and keeps count over the whole
+ * game (see get_iterations_per_second()), to tell how much thinking a device can afford.
+ */
+public class PalaceComputerPlayerISMCTS extends GameComputerPlayer
+{
+	private static final String TAG = "PalaceComputerPlayerISMCTS";
+
+	public static final long DEFAULT_MILLIS_PER_MOVE = 1_000;
+	// the size of the table the workers share, 2^TABLE_BITS entries
+	public static final int TABLE_BITS = 18;
+
+	private ParallelSearch search;
+	private BeliefState belief;
+	private long nanos_per_move;
+	private int iterations_per_move;
+	private long total_iterations;
+	private long total_nanos;
+
+
+
+	/**
+	 * Default constructor for PalaceComputerPlayerISMCTS.java
+	 * Searches for DEFAULT_MILLIS_PER_MOVE milliseconds per move, on every core.
+	 * @param name
+	 */
+	public PalaceComputerPlayerISMCTS(String name)
+	{
+		this(name, new PalaceRandom(), DEFAULT_MILLIS_PER_MOVE, 0, ParallelSearch.get_core_count());
+	}//END: PalaceComputerPlayerISMCTS() constructor
+
+	/**
+	 * Constructor for PalaceComputerPlayerISMCTS.java
+	 * Each search stops after 'millis_per_move' milliseconds or 'iterations_per_move' iterations,
+	 * whichever comes first; 0 is no limit, but not for both. The search is split between 'workers'
+	 * workers, which run at once, each on a core of its own while there are enough of them. A
+	 * seeded generator and an iteration budget alone make the same choices again, so the workers
+	 * only share a table when there is a time budget (see PalaceSearch.set_table()).
+	 * @param name
+	 * @param random
+	 * @param millis_per_move
+	 * @param iterations_per_move
+	 * @param workers
+	 */
+	public PalaceComputerPlayerISMCTS(String name, PalaceRandom random, long millis_per_move,
+									  int iterations_per_move, int workers)
+	{
+		super(name);
+		if (millis_per_move <= 0 && iterations_per_move <= 0)
+			throw new IllegalArgumentException("the player needs a time or an iteration budget");
+
+		this.search = new ParallelSearch(InformationSetSearch.FACTORY, workers, random);
+		if (millis_per_move > 0)
+			this.search.set_table(new TranspositionTable(TABLE_BITS));
+		this.nanos_per_move = millis_per_move * 1_000_000L;
+		this.iterations_per_move = iterations_per_move;
+	}//END: PalaceComputerPlayerISMCTS() constructor
+
+	/**
+	 * This method receives a GameInfo object, and when it is a PalaceGameState, catches up with what
+	 * happened in the game; then if it is this player's turn, searches for a move and sends it to
+	 * PalaceLocalGame.java as a GameAction.
+	 * @param info
+	 */
+	@Override
+	protected void receiveInfo(GameInfo info)
+	{
+		if (info instanceof NotYourTurnInfo || ! (info instanceof PalaceGameState))
+			return;
+
+		PalaceGameState pgs = (PalaceGameState) info;
+		if (this.belief == null)
+		{
+			this.belief = new BeliefState(this.playerNum);
+			this.search.set_belief(this.belief);
+		}
+		this.belief.update(pgs);
+		if (pgs.getTurn() != this.playerNum)
+			return;
+
+		info.setGame(this.game);
+		if (pgs.getIsChangingPalace() || pgs.getSelectedCards().size() > 0 || pgs.getWinner() >= 0)
+			return;
+
+		int move = this.search.search(pgs, this.nanos_per_move, this.iterations_per_move);
+		this.total_iterations += this.search.get_iterations();
+		this.total_nanos += this.search.get_elapsed_nanos();
+		Logger.log(TAG, this.name + " ran " + this.search.get_iterations() + " iterations at "
+				+ Math.round(this.search.get_iterations_per_second()) + " iterations/second");
+
+		switch (PalaceMove.get_type(move))
+		{
+			case PalaceMove.TAKE_DISCARD_PILE:
+				this.game.sendAction(new PalaceTakeDiscardPileAction(this));
+				break;
+
+			case PalaceMove.PLAY_LOWER_PALACE_CARD:
+				this.game.sendAction(new PalacePlayLowerPalaceCardAction(this,
+						pgs.getPair(PalaceMove.get_card_id(move))));
+				break;
+
+			default:
+				DeckLayout layout = pgs.getLayout();
+				this.game.sendAction(new PalacePlayCardsAction(this, PalaceMove.get_card_mask(move,
+						layout.get_group_size(), new long[layout.get_mask_words()])));
+		}
+	}//END: receiveInfo() method
+
+	/**
+	 * Returns how many iterations per second this player's searches have run this game, on average
+	 * @return
+	 */
+	public double get_iterations_per_second()
+	{
+		return (this.total_nanos == 0) ? 0.0 : (this.total_iterations * 1e9) / this.total_nanos;
+	}//END: get_iterations_per_second() method
+}//END: PalaceComputerPlayerISMCTS class
@@ -4,8 +4,6 @@ import com.example.palacealpha01.GameFramework.GameComputerPlayer;
 import com.example.palacealpha01.GameFramework.infoMessage.GameInfo;
 import com.example.palacealpha01.GameFramework.infoMessage.NotYourTurnInfo;
 
-import java.util.ArrayList;
-
 /**
  * This is the Computer Player class for Palace
  * The Computer Player is implemented here
@@ -17,18 +15,30 @@ import java.util.ArrayList;
 public class PalaceComputerPlayerRandomAI extends GameComputerPlayer
 {
 
-	private Location handLoc;
-	private Location upLoc;
-	private Location lowLoc;
-	private boolean locationsAreSet = false;
+	private int[] moves = new int[MoveGenerator.MAX_MOVES]; //reused for every turn
+	private PalaceRandom random; //this player's own generator (see PalaceRandom.java)
+
 	/**
 	 * PalaceComputerPlayerRandomAI method:
 	 * The PalaceComputerPlayerRandomAI is extended from the GameComputerPlayer Class
 	 * @param name
 	 */
 	public PalaceComputerPlayerRandomAI(String name)
+	{
+		this(name, new PalaceRandom());
+	}//PalaceComputerPlayerRandomAI
+
+	/**
+	 * PalaceComputerPlayerRandomAI method:
+	 * Makes a player whose choices come from the given generator, so that seeding it the same
+	 * way makes the same choices again
+	 * @param name
+	 * @param random
+	 */
+	public PalaceComputerPlayerRandomAI(String name, PalaceRandom random)
 	{
 		super(name);
+		this.random = random;
 	}//PalaceComputerPlayerRandomAI
 
 	/**
@@ -39,12 +49,6 @@ public class PalaceComputerPlayerRandomAI extends GameComputerPlayer
 	@Override
 	protected void receiveInfo(GameInfo info)
 	{
-		if (!locationsAreSet) {
-			handLoc = (this.playerNum == 0) ? Location.PLAYER_ONE_HAND : Location.PLAYER_TWO_HAND;
-			upLoc = (this.playerNum == 0) ? Location.PLAYER_ONE_UPPER_PALACE : Location.PLAYER_TWO_UPPER_PALACE;
-			lowLoc = (this.playerNum == 0) ? Location.PLAYER_ONE_LOWER_PALACE : Location.PLAYER_TWO_LOWER_PALACE;
-			locationsAreSet = true;
-		}
 		if (info instanceof NotYourTurnInfo)
 			return;
 
@@ -56,70 +60,35 @@ public class PalaceComputerPlayerRandomAI extends GameComputerPlayer
 			if (pgs.getTurn() == this.playerNum)
 			{
 
-
-				if (pgs.getSelectedCards().size() > 0)
-				{
-					sleep(2);
-					game.sendAction(new PalacePlayCardAction(this));
-					return;
-				}
-
 				//game.sendAction(new PalaceSkipTurn(this));
 
-				//used for temporarily storing the cards in computer player's hand and palace
-				ArrayList<Pair> my_hand = new ArrayList<>();
-				//stores the legal cards, if there are any, if the size of this array is 0,
-				//then computer player picks up the discard pile
-				ArrayList<Pair> legalCards = new ArrayList<>();
+				//every legal move, with taking the discard pile (if it is legal) always listed last
+				int count = MoveGenerator.generate(pgs, moves);
+				int plays = count;
+				if (count > 0 && PalaceMove.get_type(moves[count - 1]) == PalaceMove.TAKE_DISCARD_PILE)
+					plays--;
 
-				//if there are any cards in computer player's hand, add them to my_hand
-				for (Pair p : pgs.the_deck)
-					if (p.get_location() == handLoc)
-					{
-						my_hand.add(p);
-						//if any of these cards are legal, add them to legalCards arraylist.
-						if(pgs.isLegal(p)){
-							legalCards.add(p);
-						}
-					}
-				//repeats above procedure on upper palace cards, if computer's hand is empty
-				if (my_hand.size() == 0)
-					for (Pair p : pgs.the_deck)
-						if (p.get_location() == upLoc)
-						{
-							my_hand.add(p);
-							if(pgs.isLegal(p)){
-								legalCards.add(p);
-							}
-						}
-				//repeats above process on lower palace cards if computer's hand and upper palace is empty
-				if (my_hand.size() == 0)
-					for (Pair p : pgs.the_deck)
-						if (p.get_location() == lowLoc)
-						{
-							my_hand.add(p);
-							if(pgs.isLegal(p)){
-								legalCards.add(p);
-							}
-						}
-
-				//if there are cards in the computer's hand, or hand is empty but there are cards
-				// in upper palace but none of them are legal or there are cards in lower palace
-				// but none of them are legal.
-				//then the computer picks up the discard pile.
-				if(legalCards.size()==0){
+				//if none of the cards the computer player is allowed to play are legal,
+				//then computer player picks up the discard pile.
+				if (plays == 0) {
 					sleep(2);
 					game.sendAction(new PalaceTakeDiscardPileAction(this));
-				}
-				else if (my_hand.size() > 0)
-				{
-					Pair selected_pair = my_hand.get((int) (Math.random() * my_hand.size()));
-					game.sendAction(new PalaceSelectCardAction(this, selected_pair));
 					return;
 				}
 
-
-				game.sendAction(new PalaceTakeDiscardPileAction(this));
+				int move = moves[random.next_int(plays)];
+				if (PalaceMove.get_type(move) == PalaceMove.PLAY_LOWER_PALACE_CARD)
+				{
+					Pair selected_pair = pgs.getPair(PalaceMove.get_card_id(move));
+					game.sendAction(new PalacePlayLowerPalaceCardAction(this, selected_pair));
+				}
+				else
+				{
+					sleep(2);
+					DeckLayout layout = pgs.getLayout();
+					game.sendAction(new PalacePlayCardsAction(this, PalaceMove.get_card_mask(move,
+							layout.get_group_size(), new long[layout.get_mask_words()])));
+				}
 			}
 		}
 	}//receiveInfo
@@ -10,12 +10,6 @@ import com.example.palacealpha01.GameFramework.infoMessage.NotYourTurnInfo;
 
 import java.util.ArrayList;
 
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_LOWER_PALACE;
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_UPPER_PALACE;
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_HAND;
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_LOWER_PALACE;
-import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_UPPER_PALACE;
 import static com.example.palacealpha01.GameFramework.palace.Rank.JACK_INT;
 import static com.example.palacealpha01.GameFramework.palace.Rank.QUEEN_INT;
 
@@ -24,13 +18,18 @@ import static com.example.palacealpha01.GameFramework.palace.Rank.QUEEN_INT;
  */
 public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 {
+	// how long the endgame solver may think about a move (see EndgameSolver.java)
+	public static final long SOLVER_NANOS = 50_000_000L;
+
 	private Location my_hand;
-	private Location my_upper_palace;
-	private Location my_lower_palace;
 	private boolean are_locations_set;
 	private boolean is_palace_built;
 	private boolean started_building_palace;
 	private ArrayList<GameAction> action_queue;
+	private int[] moves;
+	private PalaceRandom random;
+	private EndgameSolver solver;
+	private BeliefState belief;
 
 
 
@@ -39,12 +38,27 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 	 * @param name
 	 */
 	public PalaceComputerPlayerSmartAI(String name)
+	{
+		this(name, new PalaceRandom());
+	}//END: PalaceComputerPlayerSmartAI() constructor
+
+	/**
+	 * Constructor for PalaceComputerPlayerSmartAI.java
+	 * The player's random choices come from the given generator (see PalaceRandom.java), so that
+	 * seeding it the same way makes the same choices again.
+	 * @param name
+	 * @param random
+	 */
+	public PalaceComputerPlayerSmartAI(String name, PalaceRandom random)
 	{
 		super(name);
+		this.random = random;
+		this.solver = new EndgameSolver(random.split());
 		this.are_locations_set       = false;
 		this.is_palace_built         = false;
 		this.started_building_palace = false;
 		this.action_queue = new ArrayList<>();
+		this.moves = new int[MoveGenerator.MAX_MOVES];
 	}//END: PalaceComputerPlayerSmartAI() constructor
 
 	/**
@@ -58,24 +72,19 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 	{
 		if (! this.are_locations_set)
 		{
-			if (this.playerNum == 0)
-			{
-				this.my_hand         = PLAYER_ONE_HAND;
-				this.my_upper_palace = PLAYER_ONE_UPPER_PALACE;
-				this.my_lower_palace = PLAYER_ONE_LOWER_PALACE;
-			}
-			else if (this.playerNum == 1)
-			{
-				this.my_hand         = PLAYER_TWO_HAND;
-				this.my_upper_palace = PLAYER_TWO_UPPER_PALACE;
-				this.my_lower_palace = PLAYER_TWO_LOWER_PALACE;
-			}
+			this.my_hand = Location.hand(this.playerNum);
+			this.belief = new BeliefState(this.playerNum);
+			this.solver.set_belief(this.belief);
 			this.are_locations_set = true;
 		}
 
 		if (info instanceof NotYourTurnInfo)
 			return;
 
+		// keep track of the cards the other player picks up, for the endgame solver's guesses
+		if (info instanceof PalaceGameState)
+			this.belief.update((PalaceGameState) info);
+
 		if (info instanceof PalaceGameState &&
 			((PalaceGameState) info).getTurn() == this.playerNum)
 		{
@@ -105,13 +114,7 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 					return;
 				}
 
-				Pair[] hand_palace = new Pair[8];
-				{
-					int i = 0;
-					for (Pair p : pgs.the_deck)
-						if (p.get_location() == this.my_hand)
-							hand_palace[i++] = p;
-				}
+				Pair[] hand_palace = pgs.getCardsAt(this.my_hand, new ArrayList<Pair>()).toArray(new Pair[0]);
 				merge_sort(hand_palace);
 
 				Pair[] cards_to_be_selected = new Pair[3];
@@ -162,46 +165,29 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 				return;
 			}
 
-			// if we've already selected a card,
-			// 		then play it
-			if (pgs.getSelectedCards().size() > 0)
+			// once the draw pile is empty, play the move that wins the rest of the game, if the
+			// endgame solver can work one out in time
+			if (EndgameSolver.can_solve(pgs))
 			{
-				this.game.sendAction(new PalacePlayCardAction(this));
-				return;
-			}
-
-			ArrayList<Pair> legal_hand 		   = new ArrayList<>();
-			ArrayList<Pair> legal_upper_palace = new ArrayList<>();
-			ArrayList<Pair> lower_palace       = new ArrayList<>();
-			boolean has_hand         = false;
-			boolean has_upper_palace = false;
-
-			for (Pair p : pgs.the_deck)
-			{
-				Location tmp = p.get_location();
-				if (tmp == this.my_hand)
-				{
-					has_hand = true;
-					if (pgs.isLegal(p))
-						legal_hand.add(p);
-				}
-				else if (tmp == this.my_upper_palace)
+				int solved = this.solver.solve(pgs, SOLVER_NANOS);
+				if (solved >= 0)
 				{
-					has_upper_palace = true;
-					if (has_hand)
-						legal_upper_palace.add(p);
-					else if (pgs.isLegal(p))
-						legal_upper_palace.add(p);
+					this.send_move(pgs, solved);
+					return;
 				}
-				else if (tmp == this.my_lower_palace)
-					lower_palace.add(p);
 			}
 
-			// if we have cards in our hand, but none are playable, or have cards in our upper palace,
-			// but none are playable,
+			// every legal move: the legal sets of cards from the zone we have to play from, smallest
+			// rank first and largest set of each rank first, or our lower palace cards; then taking
+			// the discard pile
+			int count = MoveGenerator.generate(pgs, this.moves);
+			int plays = count;
+			if (count > 0 && PalaceMove.get_type(this.moves[count - 1]) == PalaceMove.TAKE_DISCARD_PILE)
+				plays--;
+
+			// if none of the cards in the zone we have to play from are playable,
 			//		then take the discard pile
-			if (has_hand && legal_hand.size() == 0 ||
-				! has_hand && has_upper_palace && legal_upper_palace.size() == 0)
+			if (plays == 0)
 			{
 				sleep(2);
 				this.game.sendAction(new PalaceTakeDiscardPileAction(this));
@@ -210,60 +196,54 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 
 			// if we don't have cards in neither our hand, nor our upper palace,
 			//		then randomly select are card from our lower palace
-			if (! has_hand         &&
-				! has_upper_palace)
+			if (PalaceMove.get_type(this.moves[0]) == PalaceMove.PLAY_LOWER_PALACE_CARD)
 			{
+				int move = this.moves[this.random.next_int(plays)];
 				this.game.sendAction(new PalacePlayLowerPalaceCardAction(this,
-						lower_palace.get((int) (Math.random() * lower_palace.size()))));
+						pgs.getPair(PalaceMove.get_card_id(move))));
 				return;
 			}
 
-			if (has_hand)
-			{
-				merge_sort(legal_hand);
+			// play every legal card of our smallest legal rank, unless it's a queen or higher, in which
+			// case we only play one of them, all in one action
+			int move = this.moves[0];
+			int group = PalaceMove.get_rank_group(move);
+			if (group + Rank.THREE_INT >= QUEEN_INT)
+				move = PalaceMove.play_cards(group, Integer.lowestOneBit(PalaceMove.get_suit_mask(move)));
 
-				Pair smallest_pair = legal_hand.get(0);
-				this.action_queue.add(new PalaceSelectCardAction(this, smallest_pair));
+			DeckLayout layout = pgs.getLayout();
+			long[] cards = PalaceMove.get_card_mask(move, layout.get_group_size(), new long[layout.get_mask_words()]);
+			this.game.sendAction(new PalacePlayCardsAction(this, cards));
+		}
+	}//END: receiveInfo() method
 
-				if (smallest_pair.get_card().get_rank().get_int_value() >= QUEEN_INT)
-				{
-					this.send_first_action();
-					return;
-				}
 
-				for (int i = 1;
-					 i < 4 &&
-					 i < legal_hand.size() &&
-					 legal_hand.get(i).get_card().get_rank() == smallest_pair.get_card().get_rank();
-					 i++)
-					this.action_queue.add(new PalaceSelectCardAction(this, legal_hand.get(i)));
-				this.send_first_action();
-			}
-			else
-			{
-				merge_sort(legal_upper_palace);
 
-				Pair smallest_pair = legal_upper_palace.get(0);
-				this.action_queue.add(new PalaceSelectCardAction(this, smallest_pair));
+	/**
+	 * This method sends the GameAction that makes the given move (see PalaceMove.java) to
+	 * PalaceLocalGame.java.
+	 * @param pgs
+	 * @param move
+	 */
+	private void send_move(PalaceGameState pgs, int move)
+	{
+		switch (PalaceMove.get_type(move))
+		{
+			case PalaceMove.TAKE_DISCARD_PILE:
+				this.game.sendAction(new PalaceTakeDiscardPileAction(this));
+				return;
 
-				if (smallest_pair.get_card().get_rank().get_int_value() >= QUEEN_INT)
-				{
-					this.send_first_action();
-					return;
-				}
+			case PalaceMove.PLAY_LOWER_PALACE_CARD:
+				this.game.sendAction(new PalacePlayLowerPalaceCardAction(this,
+						pgs.getPair(PalaceMove.get_card_id(move))));
+				return;
 
-				for (int i = 1;
-					 i < 3 &&
-					 i < legal_upper_palace.size() &&
-					 legal_upper_palace.get(i).get_card().get_rank() == smallest_pair.get_card().get_rank();
-					 i++)
-					this.action_queue.add(new PalaceSelectCardAction(this, legal_upper_palace.get(i)));
-				this.send_first_action();
-			}
+			default:
+				DeckLayout layout = pgs.getLayout();
+				this.game.sendAction(new PalacePlayCardsAction(this, PalaceMove.get_card_mask(move,
+						layout.get_group_size(), new long[layout.get_mask_words()])));
 		}
-	}//END: receiveInfo() method
-
-
+	}//END: send_move() method
 
 	/**
 	 * This method sends the head gameAction, of the action_queue, to PalaceLocalGame.java
@@ -386,116 +366,4 @@ public class PalaceComputerPlayerSmartAI extends GameComputerPlayer
 		while (j < len_r)
 			arr[k++] = R[j++];
 	}//END: merge() function
-
-	/**
-	 * This function takes an ArrayList of Pair objects, and sorts it based on the integer value of
-	 * the Rank enum of the Card object within each Pair object.
-	 * @param arr_list
-	 */
-	private static void merge_sort(ArrayList<Pair> arr_list)
-	{
-		int l = 0;
-		int r = arr_list.size() - 1;
-		merge_sort(arr_list, l, r);
-	}//END: merge_sort() function
-
-	/**
-	 * This function takes a sub ArrayList of 'arr_list' and sorts it based on the integer value of
-	 * Rank enum of the Card object within each Pair object.
-	 * @param arr_list
-	 * @param l
-	 * @param r
-	 */
-	private static void merge_sort(ArrayList<Pair> arr_list, int l, int r)
-	{
-		/* EXTERNAL CITATION
-		 *      Date:		2th December 2019
-		 * 	    Problem:	The SmartAI's algorithm for determining which cards to pick for its upper
-		 * 						palace, or which cards cards to play each turn, was inefficient. I found
-		 * 						that if the list of legal cards the SmartAI could choose from was sorted,
-		 * 						its algorithm would be much simpler. I chose merge-sort, because it's
-		 * 						almost as efficient as quick-sort, and there's a chance the cards could
-		 * 						be given to the SmartAI already sorted, which would make quick-sort
-		 * 						really inefficient.
-		 * 	    Resource:	https://www.geeksforgeeks.org/merge-sort/
-		 * 	    Solution:	I read the GeeksForGeeks page on merge-sort, to get the idea of how to implement
-		 * 						merge-sort in Java. Some of this code was copied, and the rest was written
-		 * 						by me, but most of it was copied.
-		 */
-
-		if (l < r               &&
-			r < arr_list.size())
-		{
-			int m = ((r - l) / 2) + l;
-
-			// Split arr in half, via recursive calls
-			merge_sort(arr_list, l, m);
-			merge_sort(arr_list, m + 1, r);
-
-			// Merge halves back together
-			merge(arr_list, l, m, r);
-		}
-	}//END: merge_sort() function
-
-	/**
-	 * This function takes two sub ArrayLists of 'arr_list' and merges them together, in order.
-	 * @param arr_list
-	 * @param l
-	 * @param m
-	 * @param r
-	 */
-	private static void merge(ArrayList<Pair> arr_list, int l, int m, int r)
-	{
-		/* EXTERNAL CITATION
-		 *      Date:		2th December 2019
-		 * 	    Problem:	The SmartAI's algorithm for determining which cards to pick for its upper
-		 * 						palace, or which cards cards to play each turn, was inefficient. I found
-		 * 						that if the list of legal cards the SmartAI could choose from was sorted,
-		 * 						its algorithm would be much simpler. I chose merge-sort, because it's
-		 * 						almost as efficient as quick-sort, and there's a chance the cards could
-		 * 						be given to the SmartAI already sorted, which would make quick-sort
-		 * 						really inefficient.
-		 * 	    Resource:	https://www.geeksforgeeks.org/merge-sort/
-		 * 	    Solution:	I read the GeeksForGeeks page on merge-sort, to get the idea of how to implement
-		 * 						merge-sort in Java. Some of this code was copied, and the rest was written
-		 * 						by me, but most of it was copied.
-		 */
-
-		// Sub-array sizes
-		int len_l = (m - l) + 1;
-		int len_r = r - m;
-
-		// Temp arrays
-		Pair[] L = new Pair[len_l];
-		Pair[] R = new Pair[len_r];
-
-		// Populate temp arrays
-		for (int i = 0; i < len_l; i++)
-			L[i] = arr_list.get(l + i);
-		for (int i = 0; i < len_r; i++)
-			R[i] = arr_list.get((m + 1) + i);
-
-		// Initial indexes
-		int i = 0;	// first sub-array
-		int j = 0;	// second sub-array
-		int k = l;	// merged array
-
-		// Repopulate arr
-		while (i < len_l &&
-			   j < len_r)
-		{
-			if (L[i].get_card().get_rank().get_int_value() <= R[j].get_card().get_rank().get_int_value())
-				arr_list.set(k++, L[i++]);
-			else
-				arr_list.set(k++, R[j++]);
-		}
-
-		// Copy remaining elements of L[] if any
-		while (i < len_l)
-			arr_list.set(k++, L[i++]);
-
-		// Copy remaining elements of R[] if any
-		while (j < len_r)
-			arr_list.set(k++, R[j++]);
-	}//END: merge() function
 }//END: PalaceComputerPlayerSmartAI class
@@ -27,7 +27,8 @@ import java.util.Hashtable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickListener, View.OnTouchListener
+public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickListener, View.OnTouchListener,
+		GameEventBus.Viewer
 {
 
 	private Activity myActivity;
@@ -55,6 +56,10 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 	private Toast toastBomb;
 	private MediaPlayer bomber;
 
+	//what happened in the game since the last state we received (see GameEventBus.java), as seen
+	//from our seat; set by the game on its own thread, so volatile
+	private volatile GameEventBus.Subscription events;
+
     private Pair tappedCard;
     private int lastTapX;
 	private int lastTapY;
@@ -183,17 +188,9 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 	{
 		leftButton = myActivity.findViewById(R.id.leftButton);
 		leftButton.setOnClickListener(this);
-		if (this.playerNum == 1)
-		{
-			leftButton.setY(leftButton.getY() - 7*palaceSurfaceView.getHeight()/10);
-		}
 
 		rightButton = myActivity.findViewById(R.id.rightButton);
 		rightButton.setOnClickListener(this);
-		if (this.playerNum == 1)
-		{
-			rightButton.setY(rightButton.getY() - 7*palaceSurfaceView.getHeight()/10);
-		}
 
 		palaceButton = myActivity.findViewById(R.id.PalaceButton);
 		palaceButton.setOnClickListener(this);
@@ -231,9 +228,9 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		bomber = MediaPlayer.create(myActivity.getApplicationContext(), R.raw.bomb_discard_pile_sfx);
 
 		palaceSurfaceView.setGame(game);
-		handLoc = (this.playerNum == 0)? Location.PLAYER_ONE_HAND : Location.PLAYER_TWO_HAND;
-		upLoc = (this.playerNum == 0)? Location.PLAYER_ONE_UPPER_PALACE : Location.PLAYER_TWO_UPPER_PALACE;
-		lowLoc = (this.playerNum == 0)? Location.PLAYER_ONE_LOWER_PALACE : Location.PLAYER_TWO_LOWER_PALACE;
+		handLoc = Location.hand(this.playerNum);
+		upLoc = Location.upper_palace(this.playerNum);
+		lowLoc = Location.lower_palace(this.playerNum);
 
 	}//initAfterReady
 
@@ -276,7 +273,13 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		{
 			palaceSurfaceView.setPgs((PalaceGameState) info);
 			pgs = (PalaceGameState) info;
-			if (pgs.getWasBombed())
+			GameEventBus.Subscription feed = events;
+			if (feed != null)
+			{
+				feed.poll();
+			}
+			//a game over the network has no events to give us
+			else if (pgs.getWasBombed())
 			{
 				toastBomb.show();
 				bomber.start();
@@ -286,6 +289,34 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 
 	}//receiveInfo
 
+	/**
+	 * on_game_event method:
+	 * Called from receiveInfo() for everything that happened in the game since the last state
+	 *
+	 * @param event what happened
+	 */
+	@Override
+	public void on_game_event(GameEvent event)
+	{
+		if (event.get_type() == GameEvent.PILE_BOMBED)
+		{
+			toastBomb.show();
+			bomber.start();
+		}
+	}//on_game_event
+
+	/**
+	 * set_subscription method:
+	 * Called by a local game before it sends us any state, with our feed of its events
+	 *
+	 * @param subscription the events of the game, as seen from our seat
+	 */
+	@Override
+	public void set_subscription(GameEventBus.Subscription subscription)
+	{
+		events = subscription;
+	}//set_subscription
+
 	/**
 	 * setAsGui method:
 	 * can access mainActivity from this class for resources
@@ -343,11 +374,7 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		//change palace button
 		else if (button.getId() == R.id.PalaceButton)
 		{
-			if (pgs != null && playerNum == 0 && !pgs.getP1CanChangePalace())
-			{
-				toast.show();
-			}
-			else if (pgs != null && playerNum == 1 && !pgs.getP2CanChangePalace())
+			if (pgs != null && !pgs.getCanChangePalace(playerNum))
 			{
 				toast.show();
 			}
@@ -372,14 +399,12 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		//play card button
 		else if (button.getId() == R.id.playCardButton)
 		{
-			for (Pair p : pgs.getSelectedCards())
+			//one action plays every selected card
+			if (!pgs.getSelectedCards().isEmpty())
 			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					PalacePlayCardAction playCardAction = new PalacePlayCardAction(this);
-					game.sendAction(playCardAction);
-					button.invalidate();
-				}
+				PalacePlayCardAction playCardAction = new PalacePlayCardAction(this);
+				game.sendAction(playCardAction);
+				button.invalidate();
 			}
 		}
 
@@ -425,7 +450,7 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		{
 		    lastTapX = (int) event.getX();
 		    lastTapY = (int) event.getY();
-			tappedCard = pgs.getPairAt(lastTapX, lastTapY, lowLoc);
+			tappedCard = palaceSurfaceView.getPairAt(lastTapX, lastTapY, lowLoc);
 			return true;
 		}
 
@@ -447,12 +472,7 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 				{
                     if (isSwipe(lastTapY, event))
                     {
-                    	if (pgs.getSelectedCards().isEmpty())
-                    	{
-							game.sendAction(new PalaceSelectCardAction(this, tappedCard));
-						}
-
-						game.sendAction(new PalacePlayCardAction(this));
+						playSwipedCards();
                     }
                     else
 					{
@@ -464,12 +484,7 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
             {
 				if (isSwipe(lastTapY, event))
 				{
-					if (pgs.getSelectedCards().isEmpty())
-					{
-						game.sendAction(new PalaceSelectCardAction(this, tappedCard));
-					}
-
-					game.sendAction(new PalacePlayCardAction(this));
+					playSwipedCards();
 				}
 				else
 				{
@@ -490,11 +505,27 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 		return true;
 	}
 
+	/**
+	 * playSwipedCards method:
+	 *
+	 * plays the selected cards, or the swiped card if none are selected, in a single action
+	 */
+	private void playSwipedCards()
+	{
+		long[] cards = pgs.getSelectedMask(new long[pgs.getLayout().get_mask_words()]);
+		if (pgs.getSelectedCards().isEmpty())
+		{
+			CardBitboard.add_card(cards, tappedCard.get_card_id());
+		}
+		game.sendAction(new PalacePlayCardsAction(this, cards));
+	}//playSwipedCards
+
 	/**
 	 * isSwipe method:
 	 *
 	 * determines whether the user swiped the screen by checking the distance between the
-	 * beginning and end of their contact with the screen
+	 * beginning and end of their contact with the screen. Their cards are always at the bottom
+	 * (see PalaceSurfaceView), so a swipe goes up, toward the discard pile.
 	 *
 	 * @param lastTapY y-coord of the beginning of their touch
 	 * @param event ACTION_UP event from the end of a touch
@@ -502,11 +533,7 @@ public class PalaceHumanPlayer extends GameHumanPlayer implements View.OnClickLi
 	 */
 	private boolean isSwipe(int lastTapY, MotionEvent event)
 	{
-		if (this.playerNum == 0)
-		{
-			return lastTapY - 50 > event.getY();
-		}
-		return lastTapY + 50 < event.getY();
+		return lastTapY - 50 > event.getY();
 	}
 
 	/**
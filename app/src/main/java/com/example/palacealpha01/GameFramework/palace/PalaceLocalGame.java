@@ -6,7 +6,7 @@ import com.example.palacealpha01.GameFramework.GamePlayer;
 import com.example.palacealpha01.GameFramework.LocalGame;
 import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
-import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 /**
  * PalaceLocalGame Class
@@ -17,15 +17,54 @@ public class PalaceLocalGame extends LocalGame
 {
 
 	private PalaceGameState pgs;
+	private PalaceRandom random; //shuffles the deck (see PalaceRandom.java)
+
+	//the last state broadcast to the players, and the version of pgs it was taken at
+	private PalaceGameState snapshot;
+	private int snapshotVersion;
+
+	//whether the last action could have left a player without cards (see checkIfGameOver)
+	private boolean mayBeOver;
+
+	//the handler for each action id (see PalaceAction.java), and each player's index
+	private ActionHandler[] handlers;
+	private IdentityHashMap<GamePlayer, Integer> playerIndex;
 
 	/**
 	 * Constructor for PalaceLocalGame
 	 */
 	public PalaceLocalGame()
+	{
+		this(DeckLayout.STANDARD);
+	}//PalaceLocalGame
+
+	/**
+	 * Constructor for PalaceLocalGame
+	 *
+	 * @param layout the decks to play with and how to deal them, such as DeckLayout.with_decks(2)
+	 *               for a two deck "big table" game. If the game turns out to have a different
+	 *               number of players, the cards are dealt to them instead (see start()).
+	 */
+	public PalaceLocalGame(DeckLayout layout)
+	{
+		this(layout, new PalaceRandom());
+	}//PalaceLocalGame
+
+	/**
+	 * Constructor for PalaceLocalGame
+	 *
+	 * @param layout the decks to play with and how to deal them (see the constructor above)
+	 * @param random the generator to shuffle the deck with; a game given a generator with the same
+	 *               seed is dealt the same cards, so it can be played again exactly
+	 */
+	public PalaceLocalGame(DeckLayout layout, PalaceRandom random)
 	{
 		super();
 
-		pgs = new PalaceGameState();
+		this.random = random;
+		pgs = new PalaceGameState(layout, random);
+		pgs.setEventBus(new GameEventBus());
+		registerHandlers();
 	}//PalaceLocalGame
 
 
@@ -34,12 +73,21 @@ public class PalaceLocalGame extends LocalGame
 	 * Notify the given player that its state has changed.
 	 * This should involve sending a GameInfo object to the player.
 	 *
+	 * Every player is sent the same copy-on-write snapshot of pgs, and a new snapshot is only
+	 * taken once pgs has changed, so a broadcast costs one small object instead of a deep copy
+	 * per player. Players must treat the state they receive as read-only.
+	 *
 	 * @param p
 	 */
 	@Override
 	protected void sendUpdatedStateTo(GamePlayer p)
 	{
-		p.sendInfo(new PalaceGameState(pgs));
+		if (snapshot == null || snapshotVersion != pgs.getVersion())
+		{
+			snapshot = pgs.snapshot();
+			snapshotVersion = pgs.getVersion();
+		}
+		p.sendInfo(snapshot);
 	}//sendUpdatedStateTo
 
 	/**
@@ -62,47 +110,77 @@ public class PalaceLocalGame extends LocalGame
 
 	/**
 	 * checkIfGameOver method:
-	 * checks the player's/computer's hand, lower palace and upper palace for cards.
-	 * If no cards are found then the game is over and the player without cards wins.
+	 * checks whether any player has no cards left in their hand, lower palace and upper palace.
+	 * If so, the game is over and the player without cards wins.
+	 *
+	 * The state keeps count of each player's cards, so this is a constant time check however many
+	 * players there are, and it is skipped entirely after actions that cannot leave a player
+	 * without cards.
 	 * @return
 	 */
 	@Override
 	protected String checkIfGameOver()
 	{
-		boolean playerOneWin = true;
-		boolean playerTwoWin = true;
-		for (Pair p : pgs.the_deck)
+		if (!mayBeOver)
 		{
-			if (p.get_location() == Location.PLAYER_ONE_HAND
-				|| p.get_location() == Location.PLAYER_ONE_UPPER_PALACE
-				|| p.get_location() == Location.PLAYER_ONE_LOWER_PALACE)
-			{
-				playerOneWin = false;
-			}
-			else if (p.get_location() == Location.PLAYER_TWO_HAND
-					|| p.get_location() == Location.PLAYER_TWO_UPPER_PALACE
-					|| p.get_location() == Location.PLAYER_TWO_LOWER_PALACE)
-			{
-				playerTwoWin = false;
-			}
+			return null;
 		}
+		mayBeOver = false;
 
-		if (playerOneWin)
+		int winner = pgs.getWinner();
+		if (winner >= 0)
 		{
-			return playerNames[0] + " is the winner ";
-		}
-
-		if (playerTwoWin)
-		{
-			return playerNames[1] + " is the winner ";
+			return playerNames[winner] + " is the winner ";
 		}
 
 		return null;
 	}//checkIfGameOver
 
+	/**
+	 * start method:
+	 * Builds the map from each player to their index before starting the game, so makeMove can
+	 * find who sent an action without searching the players array. If the state was dealt to a
+	 * different number of players than are playing, the cards are dealt again to the real players.
+	 * Players who want the game's events (see GameEventBus.Viewer) are subscribed for their seat.
+	 *
+	 * @param players the players of the game, in order of player number
+	 */
+	@Override
+	public void start(GamePlayer[] players)
+	{
+		if (this.players == null)
+		{
+			playerIndex = new IdentityHashMap<>();
+			for (int i = 0; i < players.length; i++)
+			{
+				playerIndex.put(players[i], i);
+			}
+
+			if (players.length != pgs.getPlayerCount())
+			{
+				GameEventBus events = pgs.getEventBus();
+				pgs = new PalaceGameState(pgs.getLayout().for_players(players.length), random);
+				pgs.setEventBus(events);
+			}
+
+			//players only get the game's events through a feed of their own, which keeps the other
+			//players' draws from them; the states they are sent carry no events
+			for (int i = 0; i < players.length; i++)
+			{
+				if (players[i] instanceof GameEventBus.Viewer)
+				{
+					GameEventBus.Viewer viewer = (GameEventBus.Viewer) players[i];
+					viewer.set_subscription(pgs.getEventBus().subscribe(viewer, i));
+				}
+			}
+		}
+		super.start(players);
+	}//start
+
 	/**
 	 * makeMove method:
-	 * Makes the move of the player
+	 * Makes the move of the player, by handing the action to the handler registered for its
+	 * action id (see PalaceAction.java)
 	 *
 	 * @param action
 	 * 			The type of move that the player has sent to the game
@@ -112,181 +190,150 @@ public class PalaceLocalGame extends LocalGame
 	@Override
 	protected boolean makeMove(GameAction action)
 	{
-
-		GamePlayer p = action.getPlayer();
-		int playerNum = 0;
-
-		//finds the playernum to the active player
-		for (int i = 0; i < players.length; i++)
+		if (!(action instanceof PalaceAction))
 		{
-			if (players[i] == p)
-			{
-				playerNum = i;
-			}
+			return false;
 		}
+
+		Integer playerNum = playerIndex.get(action.getPlayer());
+
 		//if it is not the player's turn return false
-		if (pgs.getTurn() != playerNum)
+		if (playerNum == null || pgs.getTurn() != playerNum)
 		{
 			return false;
 		}
 
+		//only a change (once after each bomb) makes the next broadcast take a new snapshot
 		pgs.setWasBombed(false);
+		mayBeOver = false;
 
-		//if action is a selectCardAction, perform this action
-		if (action instanceof PalaceSelectCardAction)
-		{
-			if (canMove(playerNum))
-			{
-				Pair pair = ((PalaceSelectCardAction) action).getUserSelectedCard();
-
-				if (pgs.getTurn() == 0)
-				{
-
-					pgs.selectCards(0, pair);
+		PalaceAction palaceAction = (PalaceAction) action;
+		return handlers[palaceAction.getActionId()].handle(palaceAction, playerNum);
+	}//makeMove
 
-					return true;
-				}
-				else
-				{
-					pgs.selectCards(1, pair);
-					return true;
-				}
+	/**
+	 * ActionHandler interface:
+	 * Makes one kind of move for the player whose turn it is
+	 */
+	private interface ActionHandler
+	{
+		/**
+		 * @param action the action, of the kind this handler was registered for
+		 * @param player the index of the player who sent it, whose turn it is
+		 * @return whether the move was a legal one
+		 */
+		boolean handle(PalaceAction action, int player);
+	}//ActionHandler
 
-			}
+	/**
+	 * registerHandlers method:
+	 * Fills the handler table with a handler for every action id in PalaceAction.java
+	 */
+	private void registerHandlers()
+	{
+		handlers = new ActionHandler[PalaceAction.ACTION_TYPES];
 
-		}
-		//if action is a playCardAction, perform this move
-		else if (action instanceof PalacePlayCardAction)
+		handlers[PalaceAction.SELECT_CARD] = new ActionHandler()
 		{
-			if (canMove(playerNum) && pgs.getSelectedCards().size() > 0)
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-
-				if (pgs.getTurn() == 0)
-				{
-					pgs.playCards(0);
-
-					//If this playCardAction causes the deck to be bombed, the player still has their turn
-					if (!pgs.discardPile.is_empty())
-					{
-                        pgs.setTurn(1);
-                    }
-
-					return true;
-				}
-				else
-				{
-					pgs.playCards(1);
-
-                    //If this playCardAction causes the deck to be bombed, the player still has their turn
-                    if (!pgs.discardPile.is_empty()) {
-                        pgs.setTurn(0);
-                    }
-
-					return true;
-				}
-
+				pgs.selectCards(player, ((PalaceSelectCardAction) action).getUserSelectedCard());
+				return true;
 			}
-		}
-		//if action is takeDiscardPile, perform this move
-		else if (action instanceof PalaceTakeDiscardPileAction)
+		};
+
+		handlers[PalaceAction.PLAY_CARDS] = new ActionHandler()
 		{
-			if (canMove(playerNum))
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				if (pgs.getTurn() == 0)
+				if (pgs.getSelectedCards().isEmpty())
 				{
-					pgs.takeDiscardPile(0);
-					pgs.setTurn(1);
-					return true;
+					return false;
 				}
+				pgs.playCards(player);
+				mayBeOver = true;
 
-				else
+				//If this playCardAction causes the deck to be bombed, the player still has their turn
+				if (!pgs.discardPile.is_empty())
 				{
-					pgs.takeDiscardPile(1);
-					pgs.setTurn(0);
-					return true;
+					pgs.setTurn(pgs.getNextPlayer(player));
 				}
+				return true;
 			}
-		}
-		else if (action instanceof PalaceConfirmPalaceAction)
+		};
+
+		handlers[PalaceAction.TAKE_DISCARD_PILE] = new ActionHandler()
 		{
-			if (canMove(playerNum))
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				if (pgs.getTurn() == 0)
-				{
-					pgs.confirmPalace(0);
-					return true;
-				}
-				else
-				{
-					pgs.confirmPalace(1);
-					return true;
-				}
+				pgs.takeDiscardPile(player);
+				pgs.setTurn(pgs.getNextPlayer(player));
+				return true;
 			}
-		}
+		};
 
-		//if action is of changepalaceaction, perform this action
-		else if (action instanceof PalaceChangePalaceAction)
+		handlers[PalaceAction.CONFIRM_PALACE] = new ActionHandler()
 		{
-			int turn = pgs.getTurn();
-			if (turn == 0)
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				pgs.changePalace(0);
+				pgs.confirmPalace(player);
 				return true;
 			}
-			else
+		};
+
+		handlers[PalaceAction.CHANGE_PALACE] = new ActionHandler()
+		{
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				pgs.changePalace(1);
+				pgs.changePalace(player);
 				return true;
 			}
-		}
-		else if (action instanceof PalaceSelectPalaceCardAction) {
+		};
 
-			if (canMove(playerNum))
+		handlers[PalaceAction.SELECT_PALACE_CARD] = new ActionHandler()
+		{
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				Pair pair = ((PalaceSelectPalaceCardAction) action).getUserSelectedCard();
-
-				if (pgs.getTurn() == 0)
-				{
+				pgs.selectPalaceCards(player, ((PalaceSelectPalaceCardAction) action).getUserSelectedCard());
+				return true;
+			}
+		};
 
-					pgs.selectPalaceCards(0, pair);
+		handlers[PalaceAction.PLAY_LOWER_PALACE_CARD] = new ActionHandler()
+		{
+			@Override
+			public boolean handle(PalaceAction action, int player)
+			{
+				pgs.playLowerPalaceCard(player, ((PalacePlayLowerPalaceCardAction) action).getUserSelectedCard());
+				mayBeOver = true;
 
-					return true;
-				}
-				else
+				//a player who played their last card on an empty (bombed) discard pile keeps the turn
+				if (!(pgs.discardPile.is_empty() && pgs.getLocationSize(Location.hand(player)) == 0))
 				{
-					pgs.selectPalaceCards(1, pair);
-					return true;
+					pgs.setTurn(pgs.getNextPlayer(player));
 				}
-
+				return true;
 			}
+		};
 
-		}
-
-		else if (action instanceof PalacePlayLowerPalaceCardAction) {
-
-			if (canMove(playerNum))
+		handlers[PalaceAction.PLAY_CARD_SET] = new ActionHandler()
+		{
+			@Override
+			public boolean handle(PalaceAction action, int player)
 			{
-				Pair pair = ((PalacePlayLowerPalaceCardAction) action).getUserSelectedCard();
-
-				if (pgs.getTurn() == 0)
-				{
-					pgs.playLowerPalaceCard(0, pair);
-					if (! (this.pgs.discardPile.is_empty() && this.pgs.getPlayerOneHandSize() == 0))
-						pgs.setTurn(1);
-					return true;
-				}
-				else
+				if (!pgs.playCardSet(player, ((PalacePlayCardsAction) action).getCards()))
 				{
-					pgs.playLowerPalaceCard(1, pair);
-					if (! (this.pgs.discardPile.is_empty() && this.pgs.getPlayerTwoHandSize() == 0))
-						pgs.setTurn(0);
-					return true;
+					return false;
 				}
-
+				mayBeOver = true;
+				return true;
 			}
-
-		}
-
-		return false;
-	}//makeMove
+		};
+	}//registerHandlers
 }//class PalaceLocalGame
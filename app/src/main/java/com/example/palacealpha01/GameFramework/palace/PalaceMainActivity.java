@@ -23,7 +23,8 @@ public class PalaceMainActivity extends GameMainActivity implements View.OnClick
 	public static final int PORT_NUMBER = 5213;
 
 	/**
-	 * Palace is for two players. The default is human vs. computer
+	 * Palace is for two to eight players, dealt from as many decks as it takes (see
+	 * DeckLayout.with_players()). The default is human vs. computer
 	 */
 	@Override
 	public GameConfig createDefaultConfig()
@@ -53,9 +54,17 @@ public class PalaceMainActivity extends GameMainActivity implements View.OnClick
 			}
 		});
 
+		playerTypes.add(new GamePlayerType("Computer Player (ISMCTS)")
+		{
+			public GamePlayer createPlayer(String name)
+			{
+				return new PalaceComputerPlayerISMCTS(name);
+			}
+		});
+
 
 
-		GameConfig defaultConfig = new GameConfig(playerTypes, 2, 2,
+		GameConfig defaultConfig = new GameConfig(playerTypes, 2, DeckLayout.MAX_PLAYERS,
 				"Palace", PORT_NUMBER);
 
 		defaultConfig.addPlayer("Human", 0);
@@ -15,6 +15,7 @@ import com.example.palacealpha01.GameFramework.GamePlayer;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Hashtable;
 
 
@@ -22,6 +23,10 @@ import java.util.Hashtable;
  * PalaceSurfaceView Class:
  * the user interface visuals are implemented in this class
  *
+ * The board is drawn from the seat of the local human player, whichever seat that is: their hand
+ * and palaces along the bottom, and every other player's, in turn order from the next seat on,
+ * side by side along the top, each squeezed into an equal share of the width.
+ *
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
@@ -39,14 +44,21 @@ public class PalaceSurfaceView extends SurfaceView
 	public static final int cardHeight = 150;
 
 
-	ArrayList<Pair> playerOneHand;
-	ArrayList<Pair> playerTwoHand;
+	//reused for the cards of each hand or palace while drawing it
+	ArrayList<Pair> handCards;
+	ArrayList<Pair> palaceCards;
 	private PalaceHumanPlayer localHumanPlayer;
 	private Game theGame;
 	private Activity myActivity;
 	private Hashtable<String, Bitmap> pictures;
 	private int offset = 0;
 
+	//where each card, by card id, was drawn on the screen the last time, or -1 if it wasn't. These
+	//are kept here rather than in the Pair objects, which are shared with the game's own state and
+	//every other player's snapshot of it.
+	private int[] cardX;
+	private int[] cardY;
+
 
 	/**
 	 * Constructor
@@ -77,8 +89,8 @@ public class PalaceSurfaceView extends SurfaceView
 		cardBack = BitmapFactory.decodeResource(getResources(), R.drawable.back);
 		turnIndicator = BitmapFactory.decodeResource(getResources(), R.drawable.pilot_turnlight);
 
-		playerOneHand = new ArrayList<>();
-		playerTwoHand = new ArrayList<>();
+		handCards = new ArrayList<>();
+		palaceCards = new ArrayList<>();
 
 		pictures = new Hashtable<>();
 
@@ -86,18 +98,6 @@ public class PalaceSurfaceView extends SurfaceView
 
 		this.pgs = new PalaceGameState();
 
-		for (Pair p : pgs.the_deck)
-		{
-			if (p.get_location() == Location.PLAYER_ONE_HAND)
-			{
-				playerOneHand.add(p);
-			}
-			else if (p.get_location() == Location.PLAYER_TWO_HAND)
-			{
-				playerTwoHand.add(p);
-			}
-		}
-
 		bitmapPaint.setColor(0xFF793ab0);
 		selectCardPaint.setColor(Color.YELLOW);
 		backgroundPaint.setColor(Color.GRAY);
@@ -158,22 +158,32 @@ public class PalaceSurfaceView extends SurfaceView
 			return;
 		}
 
+		int cards = pgs.getLayout().get_card_count();
+		if (cardX == null || cardX.length != cards)
+		{
+			cardX = new int[cards];
+			cardY = new int[cards];
+		}
+		Arrays.fill(cardX, -1);
+		Arrays.fill(cardY, -1);
+
 		//draw the background first so everything is on top of it
 		canvas.drawRect(0,0,getWidth(),getHeight(),backgroundPaint);
 
-		drawPlayerOnePalaces(canvas);
+		int viewer = localHumanPlayer.getPlayerNum();
+
+		drawOwnPalaces(canvas, viewer);
 
-		drawHands(canvas);
+		drawOwnHand(canvas, viewer);
 
-		drawPlayerTwoPalaces(canvas);
+		drawOtherSeats(canvas, viewer);
 
 		if (pgs.discardPile.peek() != null)
 		{
 			int discardX = getWidth() / 2;
 			int discardY = getHeight() / 2 - 3 * cardHeight / 4;
 			canvas.drawBitmap(pictures.get(pgs.discardPile.peek().get_card().toString()), discardX, discardY, bitmapPaint);
-			pgs.discardPile.peek().setX(discardX);
-			pgs.discardPile.peek().setY(discardY);
+			placeCard(pgs.discardPile.peek(), discardX, discardY);
 		}
 
 		if (!pgs.isDrawPileEmpty())
@@ -181,189 +191,117 @@ public class PalaceSurfaceView extends SurfaceView
 			canvas.drawBitmap(cardBack, getWidth() / 2 + cardWidth, getHeight() / 2 - 3 * (cardHeight / 4), bitmapPaint);
 		}
 
-		if (localHumanPlayer.getPlayerNum() == pgs.getTurn())
+		if (viewer == pgs.getTurn())
 		{
-			if (localHumanPlayer.getPlayerNum() == 1)
-			{
-				canvas.drawBitmap(turnIndicator, getWidth() / 3, getHeight() / 2 - 120, bitmapPaint);
-			}
-			else
-			{
-				canvas.drawBitmap(turnIndicator, getWidth() / 3, getHeight() / 2 - 100, bitmapPaint);
-			}
+			canvas.drawBitmap(turnIndicator, getWidth() / 3, getHeight() / 2 - 100, bitmapPaint);
 		}
 	}//onDraw
 
 	/**
-	 * drawPlayerTwoPalaces method:
-	 * draws player 2's palace
+	 * drawOtherSeats method:
+	 * draws the hands and palaces of every other player along the top of the screen, in turn
+	 * order starting from the seat after the viewer's, each in an equal share of the width
 	 * @param canvas
+	 * @param viewer the seat of the local human player
 	 */
-	private void drawPlayerTwoPalaces(Canvas canvas)
+	private void drawOtherSeats(Canvas canvas, int viewer)
 	{
+		int players = pgs.getPlayerCount();
+		int columnWidth = getWidth() / (players - 1);
+		int yLP = 50;
+		int yUP = 75;
+		int yH = getHeight() / 2 - 2 * (cardHeight);
 
-		int xP2LP = getWidth() / 2 - 3 * (cardWidth) / 2;
-		int xP2UP = getWidth() / 2 - 3 * (cardWidth) / 2;
+		for (int i = 1; i < players; i++)
+		{
+			int seat = (viewer + i) % players;
+			int left = (i - 1) * columnWidth;
 
-		int yP2LP = 50;
-		int yP2UP = 75;
+			drawRow(canvas, pgs.getCardsAt(Location.lower_palace(seat), palaceCards), left, columnWidth, yLP, false);
+			drawRow(canvas, pgs.getCardsAt(Location.upper_palace(seat), palaceCards), left, columnWidth, yUP, true);
+			drawRow(canvas, pgs.getCardsAt(Location.hand(seat), handCards), left, columnWidth, yH, false);
+		}
+	}//drawOtherSeats
 
-		for (Pair p : pgs.the_deck)
+	/**
+	 * drawRow method:
+	 * draws a row of cards centered in the given column, overlapping them if they don't fit side
+	 * by side
+	 * @param canvas
+	 * @param cards the cards to draw, from left to right
+	 * @param left the x-coord of the left edge of the column
+	 * @param width the width of the column
+	 * @param y the y-coord of the top of the row
+	 * @param faceUp whether to draw the cards' faces rather than their backs
+	 */
+	private void drawRow(Canvas canvas, ArrayList<Pair> cards, int left, int width, int y, boolean faceUp)
+	{
+		int count = cards.size();
+		int step = cardWidth + 5;
+		if (count > 1 && cardWidth + (count - 1) * step > width)
 		{
-			if (p.get_location() == Location.PLAYER_TWO_LOWER_PALACE)
-			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP2LP, yP2LP);
-				}
-				canvas.drawBitmap(cardBack, xP2LP, yP2LP, bitmapPaint);
-				p.setX(xP2LP);
-				p.setY(yP2LP);
-				xP2LP += cardWidth + 5;
-			}
-
+			step = Math.max(1, (width - cardWidth) / (count - 1));
 		}
+		int x = left + (width - (cardWidth + (count - 1) * step)) / 2;
 
-		for (Pair p : pgs.the_deck)
+		for (Pair p : cards)
 		{
-			if (p.get_location() == Location.PLAYER_TWO_UPPER_PALACE)
+			if (pgs.isSelected(p))
 			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP2UP, yP2UP);
-				}
-				canvas.drawBitmap(pictures.get(p.get_card().toString()), xP2UP, yP2UP, bitmapPaint);
-				p.setX(xP2UP);
-				p.setY(yP2UP);
-				xP2UP += cardWidth + 5;
+				drawSelectionBox(canvas, x, y);
 			}
+			canvas.drawBitmap(faceUp ? pictures.get(p.get_card().toString()) : cardBack, x, y, bitmapPaint);
+			placeCard(p, x, y);
+			x += step;
 		}
-	}//drawPlayerTwoPalaces
+	}//drawRow
 
 	/**
-	 * drawHands method:
-	 * draws the cards in the and tells which card is selected
+	 * drawOwnHand method:
+	 * draws the local human player's hand, face up, and tells which card is selected. A hand too
+	 * big for the screen is drawn from the card at the offset on (see setOffset()).
 	 * @param canvas
+	 * @param viewer the seat of the local human player
 	 */
-	private void drawHands(Canvas canvas)
+	private void drawOwnHand(Canvas canvas, int viewer)
 	{
+		int xH = 0;
+		int yH = getHeight() / 2 + (cardHeight / 2);
 
-		Paint recPaint = new Paint();
-		recPaint.setColor(Color.RED);
-		int xP1H = 0;
-		int yP1H = getHeight() / 2 + (cardHeight / 2);
-
-		int xP2H = 0;
-		int yP2H = getHeight() / 2 - 2 * (cardHeight);
-
-		playerOneHand.clear();
-		playerTwoHand.clear();
+		pgs.getCardsAt(Location.hand(viewer), handCards);
 
-		for (Pair p : pgs.the_deck) {
-			if (p.get_location() == Location.PLAYER_ONE_HAND)
-			{
-				playerOneHand.add(p);
-			}
-			else if (p.get_location() == Location.PLAYER_TWO_HAND)
-			{
-				playerTwoHand.add(p);
-			}
-		}
-
-		xP1H = (getWidth()/2) - ((playerOneHand.size()*(cardWidth+5))/2);
-		if(xP1H>0)
+		xH = (getWidth()/2) - ((handCards.size()*(cardWidth+5))/2);
+		if(xH>0)
 		{
-			for (Pair p : playerOneHand)
+			for (Pair p : handCards)
 			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP1H, yP1H);
-				}
-				if (localHumanPlayer.getPlayerNum() == 0)
+				if (pgs.isSelected(p))
 				{
-					canvas.drawBitmap(pictures.get(p.get_card().toString()), xP1H, yP1H, bitmapPaint);
+					drawSelectionBox(canvas, xH, yH);
 				}
-				else
-				{
-					canvas.drawBitmap(cardBack, xP1H, yP1H, bitmapPaint);
-				}
-				p.setX(xP1H);
-				p.setY(yP1H);
-				xP1H += cardWidth + 5;
+				canvas.drawBitmap(pictures.get(p.get_card().toString()), xH, yH, bitmapPaint);
+				placeCard(p, xH, yH);
+				xH += cardWidth + 5;
 			}
 		}
 		else
 		{
-			xP1H = 0;
-			for (int i = offset; i<playerOneHand.size();i++)
+			xH = 0;
+			for (int i = offset; i<handCards.size();i++)
 			{
-				if (xP1H + cardWidth < getWidth()) {
-					if (pgs.getSelectedCards().contains(playerOneHand.get(i)))
-					{
-						drawSelectionBox(canvas, xP1H, yP1H);
-					}
-					if (localHumanPlayer.getPlayerNum() == 0)
-					{
-						canvas.drawBitmap(pictures.get(playerOneHand.get(i).get_card().toString()), xP1H, yP1H, bitmapPaint);
-					}
-					else
+				if (xH + cardWidth < getWidth()) {
+					if (pgs.isSelected(handCards.get(i)))
 					{
-						canvas.drawBitmap(cardBack, xP1H, yP1H, bitmapPaint);
+						drawSelectionBox(canvas, xH, yH);
 					}
-					playerOneHand.get(i).setX(xP1H);
-					playerOneHand.get(i).setY(yP1H);
-					xP1H += cardWidth + 5;
+					canvas.drawBitmap(pictures.get(handCards.get(i).get_card().toString()), xH, yH, bitmapPaint);
+					placeCard(handCards.get(i), xH, yH);
+					xH += cardWidth + 5;
 				}
 			}
 
 		}
-		xP2H = (getWidth()/2) - ((playerTwoHand.size()*(cardWidth+5))/2);
-		if (xP2H > 0)
-		{
-			for (Pair p : playerTwoHand)
-			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP2H, yP2H);
-				}
-				canvas.drawBitmap(cardBack, xP2H, yP2H, bitmapPaint);
-				if (localHumanPlayer.getPlayerNum() == 1)
-				{
-					canvas.drawBitmap(pictures.get(p.get_card().toString()), xP2H, yP2H, bitmapPaint);
-				}
-				else
-				{
-					canvas.drawBitmap(cardBack, xP2H, yP2H, bitmapPaint);
-				}
-				p.setX(xP2H);
-				p.setY(yP2H);
-				xP2H += cardWidth + 5;
-			}
-		}
-		else
-		{
-			xP2H = 0;
-			for (int i = offset; i < playerTwoHand.size(); i++)
-			{
-				if (pgs.getSelectedCards().contains(playerTwoHand.get(i)))
-				{
-					drawSelectionBox(canvas, xP2H, yP2H);
-				}
-				canvas.drawBitmap(cardBack, xP2H, yP2H, bitmapPaint);
-				if (localHumanPlayer.getPlayerNum() == 1)
-				{
-					canvas.drawBitmap(pictures.get(playerTwoHand.get(i).get_card().toString()), xP2H, yP2H, bitmapPaint);
-				}
-				else
-				{
-					canvas.drawBitmap(cardBack, xP2H, yP2H, bitmapPaint);
-				}
-				playerTwoHand.get(i).setX(xP2H);
-				playerTwoHand.get(i).setY(yP2H);
-				xP2H += cardWidth + 5;
-			}
-		}
-	}
+	}//drawOwnHand
 
 	/**
 	 * setOffset method:
@@ -381,54 +319,71 @@ public class PalaceSurfaceView extends SurfaceView
 	}
 
 	/**
-	 * drawPlayerOnePalaces method:
-	 * draws the cards that are within player one's palace
+	 * drawOwnPalaces method:
+	 * draws the cards that are within the local human player's palace
 	 * @param canvas
+	 * @param viewer the seat of the local human player
 	 */
-	private void drawPlayerOnePalaces(Canvas canvas)
+	private void drawOwnPalaces(Canvas canvas, int viewer)
 	{
 
-		int xP1LP = getWidth() / 2 - 3 * (cardWidth) / 2;
-		int xP1UP = getWidth() / 2 - 3 * (cardWidth) / 2;
-		int yP1LP = getHeight() - 200;
-		int height = getHeight();
-		int yP1UP = getHeight() - 225;
+		int xLP = getWidth() / 2 - 3 * (cardWidth) / 2;
+		int xUP = getWidth() / 2 - 3 * (cardWidth) / 2;
+		int yLP = getHeight() - 200;
+		int yUP = getHeight() - 225;
 
-		for (Pair p : pgs.the_deck)
+		for (Pair p : pgs.getCardsAt(Location.lower_palace(viewer), palaceCards))
 		{
-
-			if (p.get_location() == Location.PLAYER_ONE_LOWER_PALACE)
+			if (pgs.isSelected(p))
 			{
-
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP1LP, yP1LP);
-				}
-				canvas.drawBitmap(cardBack, xP1LP, yP1LP, bitmapPaint);
-				p.setX(xP1LP);
-				p.setY(yP1LP);
-				xP1LP += cardWidth + 5;
+				drawSelectionBox(canvas, xLP, yLP);
 			}
-
+			canvas.drawBitmap(cardBack, xLP, yLP, bitmapPaint);
+			placeCard(p, xLP, yLP);
+			xLP += cardWidth + 5;
 		}
 
-		for (Pair p : pgs.the_deck)
+		for (Pair p : pgs.getCardsAt(Location.upper_palace(viewer), palaceCards))
 		{
-			if (p.get_location() == Location.PLAYER_ONE_UPPER_PALACE)
+			if (pgs.isSelected(p))
 			{
-				if (pgs.getSelectedCards().contains(p))
-				{
-					drawSelectionBox(canvas, xP1UP, yP1UP);
-				}
-				canvas.drawBitmap(pictures.get(p.get_card().toString()), xP1UP, yP1UP, bitmapPaint);
-				p.setX(xP1UP);
-				p.setY(yP1UP);
-				xP1UP += cardWidth + 5;
+				drawSelectionBox(canvas, xUP, yUP);
 			}
+			canvas.drawBitmap(pictures.get(p.get_card().toString()), xUP, yUP, bitmapPaint);
+			placeCard(p, xUP, yUP);
+			xUP += cardWidth + 5;
 		}
-	}//drawPlayerOnePalace
+	}//drawOwnPalaces
 
 
+	/**
+	 * placeCard method:
+	 * notes down where a card was drawn, for getPairAt() to find it there
+	 * @param p
+	 * @param x
+	 * @param y
+	 */
+	private void placeCard(Pair p, int x, int y)
+	{
+		cardX[p.get_card_id()] = x;
+		cardY[p.get_card_id()] = y;
+	}//placeCard
+
+	/**
+	 * isDrawnAt method:
+	 * tells whether the tap at (x, y) is on the given card, as it was last drawn
+	 * @param p
+	 * @param x
+	 * @param y
+	 * @return true if the card was drawn there
+	 */
+	private boolean isDrawnAt(Pair p, int x, int y)
+	{
+		int id = p.get_card_id();
+		return cardX[id] >= 0 && x > cardX[id] && x < cardX[id] + cardWidth
+			   && y > cardY[id] && y < cardY[id] + cardHeight;
+	}//isDrawnAt
+
 	/**
 	 * drawSelectionBox method:
 	 * draws the box that highlights the card that is selected
@@ -444,6 +399,55 @@ public class PalaceSurfaceView extends SurfaceView
 	}//drawSelectionBox
 
 
+	/**
+	 * getPairAt method:
+	 *
+	 * Finds the Pair object (representing a card) that was drawn at the coordinate specified by
+	 * parameters x and y and returns it.
+	 *
+	 * @param x x-coord of tap
+	 * @param y y-coord of tap
+	 * @param lowerPalaceLoc location of lower palace (whether it's player one or two)
+	 * @return the Pair at the given location
+	 */
+	public Pair getPairAt(int x, int y, Location lowerPalaceLoc)
+	{
+		//nothing has been drawn yet
+		if (cardX == null)
+		{
+			return null;
+		}
+
+		for (Pair p : pgs.the_deck)
+		{
+			if (isDrawnAt(p, x, y))
+			{
+				if (p.get_location() != lowerPalaceLoc)
+				{
+					return p;
+				}
+			}
+		}
+
+		for (Pair p : pgs.the_deck)
+		{
+			if (isDrawnAt(p, x, y))
+			{
+				if (p.get_location() == lowerPalaceLoc)
+				{
+					return p;
+				}
+			}
+		}
+
+		Pair discardTop = pgs.discardPile.peek();
+		if (discardTop != null && isDrawnAt(discardTop, x, y))
+		{
+			return discardTop;
+		}
+		return null;
+	}
+
 	/**
 	 * setPgs method:
 	 * sets the state of the game
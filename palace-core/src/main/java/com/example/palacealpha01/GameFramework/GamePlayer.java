@@ -6,6 +6,10 @@ import com.example.palacealpha01.GameFramework.infoMessage.GameInfo;
 /**
  * A player who plays a (generic) game. Each class that implements a player for
  * a particular game should implement this interface.
+ * <P>
+ * This interface has no Android dependencies, so the game rules can use it
+ * outside of an app; players that can be shown on screen implement
+ * GameGuiPlayer instead.
  *
  * @author Steven R. Vegdahl
  * @author Andrew M. Nuxoll
@@ -14,13 +18,6 @@ import com.example.palacealpha01.GameFramework.infoMessage.GameInfo;
 
 public interface GamePlayer {
 
-    // sets this player as the GUI player (implemented as final in the
-    // major player classes)
-    public abstract void gameSetAsGui(GameMainActivity activity);
-
-    // sets this player as the GUI player (overrideable)
-    public abstract void setAsGui(GameMainActivity activity);
-
     // sends a message to the player
     public abstract void sendInfo(GameInfo info);
 
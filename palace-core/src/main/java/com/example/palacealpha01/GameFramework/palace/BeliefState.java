@@ -0,0 +1,228 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class is what one player knows about the cards they cannot see, worked out from the states
+ * they receive and nothing else, so it knows as much in a game over the network as in a local one.
+ * Their own hand, the upper palaces and the discard and dead piles are in plain sight in every
+ * state, bombed cards included, so it does not copy those. What a state does not show is history:
+ * the cards another player picked up with the discard pile are still in that player's hand until
+ * they play them, so those are known exactly. Every other hidden card (in another hand, a lower
+ * palace or the draw pile) is equally likely to be in any of the places left for unknown cards, as
+ * every deal that fits what the player saw is; get_probability() gives those odds.
+ * <p>
+ * A pickup is seen by comparing each state with the one before: the cards of the last discard pile
+ * that are now out of sight went to the hand that grew by at least that many. The cards another
+ * player draws cannot be seen, so they are not taken into account; nor are palaces swapped before the
+ * game starts.
+ * <p>
+ * determinize() samples one of those deals, shuffling only the unknown cards, so searches can use it
+ * in place of PalaceGameState.determinize() (see PalaceSearch.set_belief()). Any number of threads
+ * can do so at once, as long as update() is not being called at the same time.
+ */
+public final class BeliefState
+{
+	private final int viewer;
+	private final long[][] known_hands;   // for each seat, the cards the viewer saw go into its hand
+	private final long[] known;           // every known_hands mask together
+	private final long[] pile;            // the discard pile in the last state received
+	private final int[] hand_sizes;       // and the size of each hand in it
+	private final long[] taken;           // reused for the cards picked up since then
+	private boolean has_seen;             // whether there was a last state
+
+	/**
+	 * Default constructor for BeliefState.java
+	 * @param viewer the seat of the player whose knowledge this is
+	 */
+	public BeliefState(int viewer)
+	{
+		this.viewer = viewer;
+		this.known_hands = new long[Location.MAX_SEATS][DeckLayout.MAX_MASK_WORDS];
+		this.known = new long[DeckLayout.MAX_MASK_WORDS];
+		this.pile = new long[DeckLayout.MAX_MASK_WORDS];
+		this.hand_sizes = new int[Location.MAX_SEATS];
+		this.taken = new long[DeckLayout.MAX_MASK_WORDS];
+	}//END: BeliefState() constructor
+
+	/**
+	 * Catches up with the game, given the latest state the viewer received, which should be every
+	 * state they receive. Known cards that came into sight have left the hand they were known to be
+	 * in; the cards of the last discard pile that went out of sight were picked up by the one other
+	 * player whose hand grew by at least as many. When more than one hand could have (states were
+	 * missed), nothing is learned, and a hand that ends up with more known cards than it holds is
+	 * forgotten, rather than being wrong about either.
+	 * @param state
+	 */
+	public void update(PalaceGameState state)
+	{
+		int players = state.getPlayerCount();
+		for (int seat = 0; seat < Location.MAX_SEATS; seat++)
+		{
+			long[] hand = this.known_hands[seat];
+			for (int id = CardBitboard.next_card(hand, 0); id >= 0; id = CardBitboard.next_card(hand, id + 1))
+				if (seat >= players || ! is_hidden(state.getPair(id).get_location()))
+					CardBitboard.remove_card(hand, id);
+		}
+
+		if (this.has_seen)
+		{
+			int count = 0;
+			for (int w = 0; w < this.taken.length; w++)
+				this.taken[w] = 0L;
+			for (int id = CardBitboard.next_card(this.pile, 0); id >= 0; id = CardBitboard.next_card(this.pile, id + 1))
+				if (is_hidden(state.getPair(id).get_location()))
+				{
+					CardBitboard.add_card(this.taken, id);
+					count++;
+				}
+
+			int taker = -1;
+			for (int seat = 0; seat < players && count > 0; seat++)
+				if (seat != this.viewer && state.getLocationSize(Location.hand(seat)) - this.hand_sizes[seat] >= count)
+					taker = (taker == -1) ? seat : -2;
+			if (taker >= 0)
+				for (int seat = 0; seat < players; seat++)
+					for (int w = 0; w < this.taken.length; w++)
+					{
+						if (seat == taker)
+							this.known_hands[seat][w] |= this.taken[w];
+						else
+							this.known_hands[seat][w] &= ~this.taken[w];
+					}
+		}
+
+		for (int seat = 0; seat < players; seat++)
+		{
+			int size = state.getLocationSize(Location.hand(seat));
+			if (CardBitboard.count_cards(this.known_hands[seat]) > size)
+				for (int w = 0; w < this.known_hands[seat].length; w++)
+					this.known_hands[seat][w] = 0L;
+			this.hand_sizes[seat] = size;
+		}
+		state.getLocationMask(Location.DISCARD_PILE, this.pile);
+		this.has_seen = true;
+		union();
+	}//END: update() method
+
+	/**
+	 * Guesses where the unknown cards of 'state' are, as PalaceGameState.determinize() does for the
+	 * viewer, but leaves the known cards in the hands they are in. Takes time in proportion to the
+	 * number of hidden cards.
+	 * @param state a state of the game this belief follows, or a copy of one
+	 * @param random
+	 */
+	public void determinize(PalaceGameState state, PalaceRandom random)
+	{
+		state.determinize(this.viewer, this.known, random);
+	}//END: determinize() method
+
+	/**
+	 * Returns how likely the viewer should think it is that the card with the given id is in
+	 * 'location': 1 or 0 for the cards they can see or know the place of, and for the others, the
+	 * share of the places left for unknown cards that are in 'location'.
+	 * @param state the latest state the viewer received
+	 * @param id
+	 * @param location
+	 * @return
+	 */
+	public double get_probability(PalaceGameState state, int id, Location location)
+	{
+		Location actual = state.getPair(id).get_location();
+		if (! is_hidden(actual) || CardBitboard.has_card(this.known, id))
+			return (actual == location) ? 1.0 : 0.0;
+		if (! is_hidden(location))
+			return 0.0;
+		return (double) get_unknown_count(state, location) / get_unknown_count(state);
+	}//END: get_probability() method
+
+	/**
+	 * Returns how many of the cards the viewer cannot see, they also do not know the place of
+	 * @param state the latest state the viewer received
+	 * @return
+	 */
+	public int get_unknown_count(PalaceGameState state)
+	{
+		int count = get_unknown_count(state, Location.DRAW_PILE);
+		for (int seat = 0; seat < state.getPlayerCount(); seat++)
+			count += get_unknown_count(state, Location.hand(seat)) + get_unknown_count(state, Location.lower_palace(seat));
+		return count;
+	}//END: get_unknown_count() method
+
+	/**
+	 * Returns how many of the cards in 'location' the viewer does not know, which is none of them
+	 * if they can see it
+	 * @param state the latest state the viewer received
+	 * @param location
+	 * @return
+	 */
+	public int get_unknown_count(PalaceGameState state, Location location)
+	{
+		if (! is_hidden(location))
+			return 0;
+		int count = state.getLocationSize(location);
+		if (location.get_kind() == Location.HAND)
+			count -= CardBitboard.count_cards(this.known_hands[location.get_seat()]);
+		return count;
+	}//END: get_unknown_count() method
+
+	/**
+	 * Returns the mask of every card the viewer knows is in another player's hand (see
+	 * CardBitboard.java). It is the array this belief keeps them in, so it must not be changed.
+	 * @return
+	 */
+	public long[] get_known_cards()
+	{
+		return this.known;
+	}//END: get_known_cards() method
+
+	/**
+	 * Returns the mask of the cards the viewer knows are in the hand of 'seat'. It is the array this
+	 * belief keeps them in, so it must not be changed.
+	 * @param seat
+	 * @return
+	 */
+	public long[] get_known_cards(int seat)
+	{
+		return this.known_hands[seat];
+	}//END: get_known_cards() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_viewer()
+	{
+		return this.viewer;
+	}//END: get_viewer() method
+
+	/**
+	 * Returns true iff the viewer cannot see the cards in 'location': another player's hand, a lower
+	 * palace or the draw pile
+	 * @param location
+	 * @return
+	 */
+	private boolean is_hidden(Location location)
+	{
+		if (location == Location.DRAW_PILE)
+			return true;
+		if (location.get_kind() == Location.HAND)
+			return location.get_seat() != this.viewer;
+		return location.get_kind() == Location.LOWER_PALACE;
+	}//END: is_hidden() method
+
+	/**
+	 * Sets known to every known_hands mask together
+	 */
+	private void union()
+	{
+		for (int w = 0; w < this.known.length; w++)
+		{
+			long word = 0L;
+			for (long[] hand : this.known_hands)
+				word |= hand[w];
+			this.known[w] = word;
+		}
+	}//END: union() method
+}//END: BeliefState class
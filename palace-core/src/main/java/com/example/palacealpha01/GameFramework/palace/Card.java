@@ -0,0 +1,233 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+
+/**
+ * @author Maximilian
+ * <p>
+ * This class combines both a suit and rank enumeration to create a card object. These card objects
+ * represent the card objects in the PalaceGameState.java class.
+ * <p>
+ * Card objects are immutable, and there is one canonical Card object for each of the 52 cards (see
+ * get_card()). Each card has a dense id from 0 to 51, in the order "initialize_the_deck()" in
+ * PalaceGameState.java creates the deck: rank major (THREE first, TEN last), suit minor (SPADES
+ * first, HEARTS last). Two Card objects are equal iff their ids are equal.
+ */
+public class Card implements Serializable
+{
+	public static final int DECK_SIZE = 52;
+	private static final int SUITS_PER_RANK = 4;
+
+	private static final Card[] CANONICAL_CARDS = new Card[DECK_SIZE];
+	private static final String[] NAMES = new String[DECK_SIZE];
+	static
+	{
+		for (int i = Rank.THREE_INT; i <= Rank.TEN_INT; i++)
+			for (int j = Suit.SPADES_INT; j <= Suit.HEARTS_INT; j++)
+			{
+				Card card = new Card(Rank.int_to_rank(i), Suit.int_to_suit(j));
+				CANONICAL_CARDS[card.id] = card;
+				NAMES[card.id] = name(card.rank, card.suit);
+			}
+	}
+
+	private final Suit suit;
+	private final Rank rank;
+	private final int id;
+
+	/**
+	 * Default constructor for Card.java
+	 * Prefer get_card(), which returns the canonical Card object instead of allocating a new one.
+	 * @param rank
+	 * @param suit
+	 */
+	public Card(Rank rank, Suit suit)
+	{
+		this.suit = suit;
+		this.rank = rank;
+		this.id = (rank.get_int_value() - Rank.THREE_INT) * SUITS_PER_RANK
+				  + (suit.get_suit_num() - Suit.SPADES_INT);
+	}//END: Card() constructor
+
+	/**
+	 * Copy constructor for Card.java
+	 * Card objects are immutable, so there is no need to copy one; share it instead.
+	 * @param that
+	 */
+	public Card(Card that)
+	{
+		this.suit = that.suit;
+		this.rank = that.rank;
+		this.id = that.id;
+	}//END: Card() copy constructor
+
+	/**
+	 * This function returns the canonical Card object with the given id.
+	 * @param id
+	 * @return
+	 */
+	public static Card get_card(int id)
+	{
+		return CANONICAL_CARDS[id];
+	}//END: get_card() function
+
+	/**
+	 * This function returns the canonical Card object with the given Rank and Suit enums.
+	 * @param rank
+	 * @param suit
+	 * @return
+	 */
+	public static Card get_card(Rank rank, Suit suit)
+	{
+		return CANONICAL_CARDS[(rank.get_int_value() - Rank.THREE_INT) * SUITS_PER_RANK
+							   + (suit.get_suit_num() - Suit.SPADES_INT)];
+	}//END: get_card() function
+
+	/**
+	 * Returns this card's id (0 - 51)
+	 * @return
+	 */
+	public int get_id()
+	{
+		return this.id;
+	}//END: get_id() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public Rank get_rank()
+	{
+		return this.rank;
+	}//END: get_rank() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public Suit get_suit()
+	{
+		return this.suit;
+	}//END: get_suit() method
+
+	/**
+	 * Returns the name of this card, such as "Ace of Spades". The names are built once, when the
+	 * class is loaded.
+	 * @return
+	 */
+	@Override
+	public String toString()
+	{
+		return NAMES[this.id];
+	}//END: toString() method
+
+	/**
+	 * Builds the name of a card, such as "Ace of Spades", which is also the key of its picture
+	 * @param rank
+	 * @param suit
+	 * @return
+	 */
+	private static String name(Rank rank, Suit suit)
+	{
+		String return_str = "";
+		switch (rank)
+		{
+			case THREE:
+				return_str += "Three";
+				break;
+			case FOUR:
+				return_str += "Four";
+				break;
+			case FIVE:
+				return_str += "Five";
+				break;
+			case SIX:
+				return_str += "Six";
+				break;
+			case SEVEN:
+				return_str += "Seven";
+				break;
+			case EIGHT:
+				return_str += "Eight";
+				break;
+			case NINE:
+				return_str += "Nine";
+				break;
+			case JACK:
+				return_str += "Jack";
+				break;
+			case QUEEN:
+				return_str += "Queen";
+				break;
+			case KING:
+				return_str += "King";
+				break;
+			case ACE:
+				return_str += "Ace";
+				break;
+			case TWO:
+				return_str += "Two";
+				break;
+			case TEN:
+				return_str += "Ten";
+				break;
+		}
+		return_str += " of ";
+		switch (suit)
+		{
+			case SPADES:
+				return_str += "Spades";
+				break;
+			case CLUBS:
+				return_str += "Clubs";
+				break;
+			case DIAMONDS:
+				return_str += "Diamonds";
+				break;
+			case HEARTS:
+				return_str += "Hearts";
+				break;
+		}
+		return return_str;
+	}//END: name() function
+
+	/**
+	 *
+	 * @param obj
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (! (obj instanceof Card))
+			return false;
+
+		return this.id == ((Card) obj).id;
+	}//END: equals() method
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public int hashCode()
+	{
+		return this.id;
+	}//END: hashCode() method
+
+	/**
+	 * Replaces every deserialized Card object with the canonical one, so that cards received over
+	 * the network do not allocate anything either.
+	 * @return
+	 */
+	private Object readResolve()
+	{
+		return CANONICAL_CARDS[this.id];
+	}//END: readResolve() method
+}//END: Card Class
+
@@ -0,0 +1,386 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class stores where every card in the game is, as one mask of card ids per Location
+ * enumeration. Bit 'i' of a Location's mask is set iff the card with id 'i' is currently in that
+ * Location. This lets PalaceGameState.java answer "how many cards are in player one's hand" with a
+ * few Long.bitCount() calls, and move whole piles from one Location to another with a couple of
+ * mask operations, instead of walking every Pair object in the_deck.
+ * <p>
+ * A mask is an array of longs, with card id 'i' at bit (i % 64) of word (i / 64), so the same code
+ * handles the 52 cards of a single deck (one word) and the 104 - 208 cards of a multi-deck game (see
+ * DeckLayout.java). The static functions of this class work on such arrays.
+ * Card ids are the ones defined in DeckLayout.java.
+ */
+public class CardBitboard implements Serializable
+{
+	private static final int NOWHERE = -1;
+	private static final Location[] LOCATIONS = Location.values();
+
+	private int words;          // longs per mask
+	private long[] masks;       // one mask of card ids per Location in use, Location.ordinal() * words onwards
+	private byte[] location_of; // Location.ordinal() of each card id, or NOWHERE
+
+	/**
+	 * Default constructor for CardBitboard.java
+	 * Holds the 52 cards of a single deck, which all start out in no Location at all.
+	 */
+	public CardBitboard()
+	{
+		this(Card.DECK_SIZE);
+	}//END: CardBitboard() constructor
+
+	/**
+	 * Constructor for CardBitboard.java
+	 * Holds the card ids 0 to card_count - 1 of a two player game, which all start out in no
+	 * Location at all.
+	 * @param card_count
+	 */
+	public CardBitboard(int card_count)
+	{
+		this(card_count, Location.location_count(2));
+	}//END: CardBitboard() constructor
+
+	/**
+	 * Constructor for CardBitboard.java
+	 * Holds the card ids 0 to card_count - 1, which all start out in no Location at all. Only the
+	 * first location_count Locations (see Location.location_count()) can hold cards, so a two player
+	 * game doesn't pay for the seats it doesn't use.
+	 * @param card_count
+	 * @param location_count
+	 */
+	public CardBitboard(int card_count, int location_count)
+	{
+		this.words = mask_words(card_count);
+		this.masks = new long[location_count * this.words];
+		this.location_of = new byte[card_count];
+		Arrays.fill(this.location_of, (byte) NOWHERE);
+	}//END: CardBitboard() constructor
+
+	/**
+	 * Copy constructor for CardBitboard.java
+	 * @param that
+	 */
+	public CardBitboard(CardBitboard that)
+	{
+		this.words = that.words;
+		this.masks = that.masks.clone();
+		this.location_of = that.location_of.clone();
+	}//END: CardBitboard() copy constructor
+
+	/**
+	 * Takes every card out of every Location, as if the board had just been constructed
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.masks, 0L);
+		Arrays.fill(this.location_of, (byte) NOWHERE);
+	}//END: clear() method
+
+	/**
+	 * This function returns the number of longs a mask of 'card_count' card ids takes.
+	 * @param card_count
+	 * @return
+	 */
+	public static int mask_words(int card_count)
+	{
+		return (card_count + 63) >>> 6;
+	}//END: mask_words() function
+
+	/**
+	 * This function returns the id of the lowest card in the 64-bit word 'mask'. It is meant to be
+	 * used together with without_lowest_card(), to iterate through every card in a word:
+	 * <pre>
+	 *     for (long m = mask; m != 0; m = CardBitboard.without_lowest_card(m))
+	 *         int id = CardBitboard.lowest_card(m);
+	 * </pre>
+	 * @param mask
+	 * @return
+	 */
+	public static int lowest_card(long mask)
+	{
+		return Long.numberOfTrailingZeros(mask);
+	}//END: lowest_card() function
+
+	/**
+	 * This function returns the 64-bit word 'mask' with its lowest card removed.
+	 * @param mask
+	 * @return
+	 */
+	public static long without_lowest_card(long mask)
+	{
+		return mask & (mask - 1);
+	}//END: without_lowest_card() function
+
+	/**
+	 * This function returns the id of the lowest card in 'mask' that is at least 'from', or -1 if
+	 * there is none. It iterates through every card in a mask of any length:
+	 * <pre>
+	 *     for (int id = CardBitboard.next_card(mask, 0); id >= 0; id = CardBitboard.next_card(mask, id + 1))
+	 * </pre>
+	 * @param mask
+	 * @param from
+	 * @return
+	 */
+	public static int next_card(long[] mask, int from)
+	{
+		int w = from >>> 6;
+		if (w >= mask.length)
+			return -1;
+		long word = mask[w] & (-1L << (from & 63));
+		while (word == 0L)
+		{
+			if (++w == mask.length)
+				return -1;
+			word = mask[w];
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}//END: next_card() function
+
+	/**
+	 * This function returns true iff the card with the given id is in 'mask'.
+	 * @param mask
+	 * @param id
+	 * @return
+	 */
+	public static boolean has_card(long[] mask, int id)
+	{
+		return (mask[id >>> 6] & (1L << id)) != 0L;
+	}//END: has_card() function
+
+	/**
+	 * This function adds the card with the given id to 'mask'.
+	 * @param mask
+	 * @param id
+	 */
+	public static void add_card(long[] mask, int id)
+	{
+		mask[id >>> 6] |= 1L << id;
+	}//END: add_card() function
+
+	/**
+	 * This function removes the card with the given id from 'mask'.
+	 * @param mask
+	 * @param id
+	 */
+	public static void remove_card(long[] mask, int id)
+	{
+		mask[id >>> 6] &= ~(1L << id);
+	}//END: remove_card() function
+
+	/**
+	 * This function returns the number of cards in 'mask'.
+	 * @param mask
+	 * @return
+	 */
+	public static int count_cards(long[] mask)
+	{
+		int count = 0;
+		for (long word : mask)
+			count += Long.bitCount(word);
+		return count;
+	}//END: count_cards() function
+
+	/**
+	 * This function returns the 'count' (at most 64) bits of 'mask' starting at card id 'first', as
+	 * the low bits of a long. Bit 'i' of the result is the card with id first + i.
+	 * @param mask
+	 * @param first
+	 * @param count
+	 * @return
+	 */
+	public static long get_bits(long[] mask, int first, int count)
+	{
+		return bits(mask, 0, mask.length, first, count);
+	}//END: get_bits() function
+
+	/**
+	 * This function does the work of both get_bits(), on the 'length' words of 'masks' from 'base' on
+	 * @param masks
+	 * @param base
+	 * @param length
+	 * @param first
+	 * @param count
+	 * @return
+	 */
+	private static long bits(long[] masks, int base, int length, int first, int count)
+	{
+		int w = first >>> 6;
+		int shift = first & 63;
+		long bits = (w < length) ? (masks[base + w] >>> shift) : 0L;
+		if (shift + count > 64 && w + 1 < length)
+			bits |= masks[base + w + 1] << (64 - shift);
+		return (count == 64) ? bits : bits & ((1L << count) - 1);
+	}//END: bits() function
+
+	/**
+	 * Moves a single card to a new Location
+	 * @param id
+	 * @param to
+	 */
+	public void move(int id, Location to)
+	{
+		int w = id >>> 6;
+		long bit = 1L << id;
+		if (this.location_of[id] != NOWHERE)
+			this.masks[(this.location_of[id] * this.words) + w] ^= bit;
+		this.masks[(to.ordinal() * this.words) + w] |= bit;
+		this.location_of[id] = (byte) to.ordinal();
+	}//END: move() method
+
+	/**
+	 * Moves every card in the Location 'from' to the Location 'to'
+	 * @param from
+	 * @param to
+	 */
+	public void move_all(Location from, Location to)
+	{
+		if (from == to)
+			return;
+		int from_base = from.ordinal() * this.words;
+		int to_base = to.ordinal() * this.words;
+		for (int w = 0; w < this.words; w++)
+		{
+			long moved = this.masks[from_base + w];
+			for (long m = moved; m != 0; m = without_lowest_card(m))
+				this.location_of[(w << 6) + lowest_card(m)] = (byte) to.ordinal();
+			this.masks[to_base + w] |= moved;
+			this.masks[from_base + w] = 0L;
+		}
+	}//END: move_all() method
+
+	/**
+	 * Returns the Location of the card with the given id, or null if it has not been placed yet
+	 * @param id
+	 * @return
+	 */
+	public Location get_location(int id)
+	{
+		if (this.location_of[id] == NOWHERE)
+			return null;
+		return LOCATIONS[this.location_of[id]];
+	}//END: get_location() method
+
+	/**
+	 * Returns the number of longs in each mask
+	 * @return
+	 */
+	public int get_words()
+	{
+		return this.words;
+	}//END: get_words() method
+
+	/**
+	 * Returns word 'w' of the mask of every card id in the given Location, that is, card ids
+	 * 64 * w to 64 * w + 63
+	 * @param location
+	 * @param w
+	 * @return
+	 */
+	public long get_word(Location location, int w)
+	{
+		return this.masks[(location.ordinal() * this.words) + w];
+	}//END: get_word() method
+
+	/**
+	 * Copies the mask of every card id in the given Location into 'mask', which needs get_words()
+	 * longs, and returns it
+	 * @param location
+	 * @param mask
+	 * @return
+	 */
+	public long[] get_mask(Location location, long[] mask)
+	{
+		System.arraycopy(this.masks, location.ordinal() * this.words, mask, 0, this.words);
+		return mask;
+	}//END: get_mask() method
+
+	/**
+	 * Returns the 'count' (at most 64) bits of the given Location's mask starting at card id 'first'
+	 * (see get_bits())
+	 * @param location
+	 * @param first
+	 * @param count
+	 * @return
+	 */
+	public long get_bits(Location location, int first, int count)
+	{
+		return bits(this.masks, location.ordinal() * this.words, this.words, first, count);
+	}//END: get_bits() method
+
+	/**
+	 * Returns true iff every card in 'mask' is in the given Location
+	 * @param location
+	 * @param mask
+	 * @return
+	 */
+	public boolean contains_all(Location location, long[] mask)
+	{
+		int base = location.ordinal() * this.words;
+		for (int w = 0; w < mask.length; w++)
+		{
+			long held = (w < this.words) ? this.masks[base + w] : 0L;
+			if ((held & mask[w]) != mask[w])
+				return false;
+		}
+		return true;
+	}//END: contains_all() method
+
+	/**
+	 * Returns the number of cards in the given Location
+	 * @param location
+	 * @return
+	 */
+	public int count(Location location)
+	{
+		int base = location.ordinal() * this.words;
+		int count = 0;
+		for (int w = 0; w < this.words; w++)
+			count += Long.bitCount(this.masks[base + w]);
+		return count;
+	}//END: count() method
+
+	/**
+	 * Returns true iff there are no cards in the given Location
+	 * @param location
+	 * @return
+	 */
+	public boolean is_empty(Location location)
+	{
+		int base = location.ordinal() * this.words;
+		for (int w = 0; w < this.words; w++)
+			if (this.masks[base + w] != 0L)
+				return false;
+		return true;
+	}//END: is_empty() method
+
+	/**
+	 *
+	 * @param obj
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (! (obj instanceof CardBitboard))
+			return false;
+
+		return Arrays.equals(this.masks, ((CardBitboard) obj).masks);
+	}//END: equals() method
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(this.masks);
+	}//END: hashCode() method
+}//END: CardBitboard class
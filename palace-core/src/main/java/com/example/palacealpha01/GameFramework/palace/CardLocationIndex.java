@@ -0,0 +1,286 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class keeps, for every Location enumeration, an ordered list of the ids of the cards in that
+ * Location, along with its size. It is updated every time a card moves, so "which cards are in my
+ * hand" is a walk over just those cards, and "how many cards are in my hand" or "which card is on
+ * top of the draw pile" are a single array read.
+ * <p>
+ * Cards keep the order in which they arrived in a Location. The draw pile is the exception: it is
+ * put into the_deck's (shuffled) order by sort_by(), so its first card is the next one to be drawn.
+ * Card ids are the ones defined in DeckLayout.java.
+ * <p>
+ * Each list is a ring buffer (a deque), so taking the first card of a Location, which is what
+ * drawing a card does, or putting a card back in front of it, costs the same as appending one.
+ * Removing any other card only shifts the cards on the shorter side of it.
+ */
+public class CardLocationIndex implements Serializable
+{
+	private static final int NOWHERE = -1;
+	private static final Location[] LOCATIONS = Location.values();
+
+	private int slots;          // slots per ring buffer: the smallest power of two >= the card count
+	private int slot_mask;      // slots - 1
+	private int[] members;      // a ring buffer of 'slots' slots per Location in use, laid out back to back
+	private int[] starts;       // slot of the first card of each Location, indexed by Location.ordinal()
+	private int[] sizes;        // number of cards in each Location, indexed by Location.ordinal()
+	private int[] slot_of;      // slot of each card id within its Location's ring buffer
+	private byte[] location_of; // Location.ordinal() of each card id, or NOWHERE
+
+	/**
+	 * Default constructor for CardLocationIndex.java
+	 * Holds the 52 cards of a single deck, which all start out in no Location at all.
+	 */
+	public CardLocationIndex()
+	{
+		this(Card.DECK_SIZE);
+	}//END: CardLocationIndex() constructor
+
+	/**
+	 * Constructor for CardLocationIndex.java
+	 * Holds the card ids 0 to card_count - 1 of a two player game, which all start out in no
+	 * Location at all.
+	 * @param card_count
+	 */
+	public CardLocationIndex(int card_count)
+	{
+		this(card_count, Location.location_count(2));
+	}//END: CardLocationIndex() constructor
+
+	/**
+	 * Constructor for CardLocationIndex.java
+	 * Holds the card ids 0 to card_count - 1, which all start out in no Location at all. Only the
+	 * first location_count Locations (see Location.location_count()) can hold cards.
+	 * @param card_count
+	 * @param location_count
+	 */
+	public CardLocationIndex(int card_count, int location_count)
+	{
+		this.slots = Integer.highestOneBit(Math.max(card_count - 1, 1)) << 1;
+		this.slot_mask = this.slots - 1;
+		this.members = new int[location_count * this.slots];
+		this.starts = new int[location_count];
+		this.sizes = new int[location_count];
+		this.slot_of = new int[card_count];
+		this.location_of = new byte[card_count];
+		Arrays.fill(this.location_of, (byte) NOWHERE);
+	}//END: CardLocationIndex() constructor
+
+	/**
+	 * Copy constructor for CardLocationIndex.java
+	 * @param that
+	 */
+	public CardLocationIndex(CardLocationIndex that)
+	{
+		this.slots = that.slots;
+		this.slot_mask = that.slot_mask;
+		this.members = that.members.clone();
+		this.starts = that.starts.clone();
+		this.sizes = that.sizes.clone();
+		this.slot_of = that.slot_of.clone();
+		this.location_of = that.location_of.clone();
+	}//END: CardLocationIndex() copy constructor
+
+	/**
+	 * Takes every card out of every Location, as if the index had just been constructed
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.starts, 0);
+		Arrays.fill(this.sizes, 0);
+		Arrays.fill(this.location_of, (byte) NOWHERE);
+	}//END: clear() method
+
+	/**
+	 * Moves a single card to the end of a Location's list. Moving a card to the Location it is
+	 * already in does nothing, so it keeps its place in the list.
+	 * @param id
+	 * @param to
+	 */
+	public void move(int id, Location to)
+	{
+		if (this.location_of[id] == to.ordinal())
+			return;
+		if (this.location_of[id] != NOWHERE)
+			remove(id);
+		append(id, to.ordinal());
+	}//END: move() method
+
+	/**
+	 * Moves a single card to the given position of a Location's list, shifting the cards from that
+	 * position on back by one. Used to put cards back exactly where they were when undoing a move.
+	 * @param id
+	 * @param to
+	 * @param position
+	 */
+	public void insert(int id, Location to, int position)
+	{
+		if (this.location_of[id] != NOWHERE)
+			remove(id);
+		int location_ordinal = to.ordinal();
+		int base = location_ordinal * this.slots;
+		int start = this.starts[location_ordinal];
+		int size = this.sizes[location_ordinal]++;
+
+		if (position == 0)
+		{
+			// putting a card back on top of a deque needs no shifting
+			start = (start - 1) & this.slot_mask;
+			this.starts[location_ordinal] = start;
+		}
+		else
+		{
+			for (int i = size; i > position; i--)
+				put(base, (start + i) & this.slot_mask, this.members[base + ((start + i - 1) & this.slot_mask)]);
+		}
+		put(base, (start + position) & this.slot_mask, id);
+		this.location_of[id] = (byte) location_ordinal;
+	}//END: insert() method
+
+	/**
+	 * Moves every card in the Location 'from' to the end of the Location 'to', keeping their order
+	 * @param from
+	 * @param to
+	 */
+	public void move_all(Location from, Location to)
+	{
+		if (from == to)
+			return;
+		int count = this.sizes[from.ordinal()];
+		for (int i = 0; i < count; i++)
+			append(get(from, i), to.ordinal());
+		this.starts[from.ordinal()] = 0;
+		this.sizes[from.ordinal()] = 0;
+	}//END: move_all() method
+
+	/**
+	 * Reorders the list of every Location so that its cards appear in the same order as in 'order',
+	 * which must hold every placed card id exactly once. This is only needed after the deck has been
+	 * shuffled.
+	 * @param order
+	 */
+	public void sort_by(int[] order)
+	{
+		Arrays.fill(this.starts, 0);
+		Arrays.fill(this.sizes, 0);
+		for (int id : order)
+			if (this.location_of[id] != NOWHERE)
+				append(id, this.location_of[id]);
+	}//END: sort_by() method
+
+	/**
+	 * Returns the number of cards in the given Location
+	 * @param location
+	 * @return
+	 */
+	public int size(Location location)
+	{
+		return this.sizes[location.ordinal()];
+	}//END: size() method
+
+	/**
+	 * Returns the id of the i'th card in the given Location
+	 * @param location
+	 * @param i
+	 * @return
+	 */
+	public int get(Location location, int i)
+	{
+		int location_ordinal = location.ordinal();
+		return this.members[(location_ordinal * this.slots) + ((this.starts[location_ordinal] + i) & this.slot_mask)];
+	}//END: get() method
+
+	/**
+	 * Returns the id of the first card in the given Location, or -1 if it is empty
+	 * @param location
+	 * @return
+	 */
+	public int first(Location location)
+	{
+		int location_ordinal = location.ordinal();
+		if (this.sizes[location_ordinal] == 0)
+			return -1;
+		return this.members[(location_ordinal * this.slots) + this.starts[location_ordinal]];
+	}//END: first() method
+
+	/**
+	 * Returns the position of the card with the given id within its Location's list
+	 * @param id
+	 * @return
+	 */
+	public int get_position(int id)
+	{
+		return (this.slot_of[id] - this.starts[this.location_of[id]]) & this.slot_mask;
+	}//END: get_position() method
+
+	/**
+	 * Returns the Location of the card with the given id, or null if it has not been placed yet
+	 * @param id
+	 * @return
+	 */
+	public Location get_location(int id)
+	{
+		if (this.location_of[id] == NOWHERE)
+			return null;
+		return LOCATIONS[this.location_of[id]];
+	}//END: get_location() method
+
+	/**
+	 * Appends a card to the end of a Location's list
+	 * @param id
+	 * @param location_ordinal
+	 */
+	private void append(int id, int location_ordinal)
+	{
+		int slot = (this.starts[location_ordinal] + this.sizes[location_ordinal]++) & this.slot_mask;
+		put(location_ordinal * this.slots, slot, id);
+		this.location_of[id] = (byte) location_ordinal;
+	}//END: append() method
+
+	/**
+	 * Removes a card from its Location's list. The cards on the shorter side of it are shifted by one
+	 * to close the gap, so removing the first or the last card shifts nothing.
+	 * @param id
+	 */
+	private void remove(int id)
+	{
+		int location_ordinal = this.location_of[id];
+		int base = location_ordinal * this.slots;
+		int start = this.starts[location_ordinal];
+		int position = (this.slot_of[id] - start) & this.slot_mask;
+		int last = --this.sizes[location_ordinal];
+
+		if (position < last - position)
+		{
+			// shift the cards in front of it back, and start one slot later
+			for (int i = position; i > 0; i--)
+				put(base, (start + i) & this.slot_mask, this.members[base + ((start + i - 1) & this.slot_mask)]);
+			this.starts[location_ordinal] = (start + 1) & this.slot_mask;
+		}
+		else
+		{
+			// shift the cards behind it forward
+			for (int i = position; i < last; i++)
+				put(base, (start + i) & this.slot_mask, this.members[base + ((start + i + 1) & this.slot_mask)]);
+		}
+		this.location_of[id] = NOWHERE;
+	}//END: remove() method
+
+	/**
+	 * Puts a card id into a slot of a Location's ring buffer
+	 * @param base
+	 * @param slot
+	 * @param id
+	 */
+	private void put(int base, int slot, int id)
+	{
+		this.members[base + slot] = id;
+		this.slot_of[id] = slot;
+	}//END: put() method
+}//END: CardLocationIndex class
@@ -0,0 +1,265 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+
+/**
+ * This class describes the cards a game of Palace is played with, and how they are dealt: how many
+ * 52 card decks are shuffled together, how many players (2 to MAX_PLAYERS) they are dealt to, and
+ * how many cards each player gets in their hand, upper palace and lower palace. STANDARD is the
+ * usual two player, single deck game; the "big table" tournament variant plays with two or three
+ * decks, and four to six players.
+ * <p>
+ * Every card in the game has a dense id from 0 to get_card_count() - 1, rank major, so that all
+ * the cards of one rank (a "rank group") have consecutive ids:
+ * <pre>
+ *     id = rank group * get_group_size() + deck * 4 + suit
+ * </pre>
+ * where the rank group and suit are numbered as in Card.java. With a single deck these are exactly
+ * the ids of Card.java. Masks of card ids are get_mask_words() longs long (see CardBitboard.java).
+ */
+public final class DeckLayout implements Serializable
+{
+	public static final int RANK_GROUPS = Card.DECK_SIZE / 4;
+	public static final int MAX_DECKS = 4;
+	public static final int MAX_CARDS = Card.DECK_SIZE * MAX_DECKS;
+	public static final int MAX_GROUP_SIZE = 4 * MAX_DECKS;
+	public static final int MAX_MASK_WORDS = (MAX_CARDS + 63) / 64;
+	public static final int MAX_ZONE_SIZE = 16; // most cards dealt to any one hand or palace
+	public static final int MAX_PLAYERS = Location.MAX_SEATS;
+
+	public static final DeckLayout STANDARD = new DeckLayout(1, 3, 3, 5);
+
+	private final int decks;
+	private final int players;
+	private final int lower_palace_size;
+	private final int upper_palace_size;
+	private final int hand_size;
+
+	/**
+	 * Default constructor for DeckLayout.java
+	 * Deals to two players.
+	 * @param decks             number of 52 card decks shuffled together (1 - MAX_DECKS)
+	 * @param lower_palace_size cards dealt face down to each lower palace
+	 * @param upper_palace_size cards dealt face up to each upper palace
+	 * @param hand_size         cards dealt to each hand, and refilled up to from the draw pile
+	 */
+	public DeckLayout(int decks, int lower_palace_size, int upper_palace_size, int hand_size)
+	{
+		this(decks, 2, lower_palace_size, upper_palace_size, hand_size);
+	}//END: DeckLayout() constructor
+
+	/**
+	 * Constructor for DeckLayout.java
+	 * @param decks             number of 52 card decks shuffled together (1 - MAX_DECKS)
+	 * @param players           number of players dealt to (2 - MAX_PLAYERS)
+	 * @param lower_palace_size cards dealt face down to each lower palace
+	 * @param upper_palace_size cards dealt face up to each upper palace
+	 * @param hand_size         cards dealt to each hand, and refilled up to from the draw pile
+	 */
+	public DeckLayout(int decks, int players, int lower_palace_size, int upper_palace_size, int hand_size)
+	{
+		if (decks < 1 || decks > MAX_DECKS)
+			throw new IllegalArgumentException("A game is played with 1 to " + MAX_DECKS + " decks, not " + decks);
+		if (players < 2 || players > MAX_PLAYERS)
+			throw new IllegalArgumentException("A game is played by 2 to " + MAX_PLAYERS + " players, not " + players);
+		if (lower_palace_size < 1 || lower_palace_size > MAX_ZONE_SIZE
+			|| upper_palace_size < 1 || upper_palace_size > MAX_ZONE_SIZE
+			|| hand_size < 1 || hand_size > MAX_ZONE_SIZE)
+			throw new IllegalArgumentException("Every hand and palace is dealt 1 to " + MAX_ZONE_SIZE + " cards");
+		if (players * (lower_palace_size + upper_palace_size + hand_size) > Card.DECK_SIZE * decks)
+			throw new IllegalArgumentException("Not enough cards in " + decks + " deck(s) to deal " + players + " players");
+
+		this.decks = decks;
+		this.players = players;
+		this.lower_palace_size = lower_palace_size;
+		this.upper_palace_size = upper_palace_size;
+		this.hand_size = hand_size;
+	}//END: DeckLayout() constructor
+
+	/**
+	 * This function returns the standard two player deal (3 lower palace, 3 upper palace and 5 hand
+	 * cards) with the given number of decks.
+	 * @param decks
+	 * @return
+	 */
+	public static DeckLayout with_decks(int decks)
+	{
+		if (decks == 1)
+			return STANDARD;
+		return new DeckLayout(decks, STANDARD.lower_palace_size, STANDARD.upper_palace_size, STANDARD.hand_size);
+	}//END: with_decks() function
+
+	/**
+	 * This function returns the standard deal to the given number of players, with as few decks as
+	 * it takes to deal everybody: one deck for up to four players, two for five to eight.
+	 * @param players
+	 * @return
+	 */
+	public static DeckLayout with_players(int players)
+	{
+		int dealt = STANDARD.lower_palace_size + STANDARD.upper_palace_size + STANDARD.hand_size;
+		int decks = Math.max(1, ((players * dealt) + Card.DECK_SIZE - 1) / Card.DECK_SIZE);
+		if (decks == 1 && players == 2)
+			return STANDARD;
+		return new DeckLayout(decks, players, STANDARD.lower_palace_size, STANDARD.upper_palace_size, STANDARD.hand_size);
+	}//END: with_players() function
+
+	/**
+	 * This function returns this layout, dealt to the given number of players instead, with more
+	 * decks if its own are not enough to deal everybody.
+	 * @param players
+	 * @return
+	 */
+	public DeckLayout for_players(int players)
+	{
+		if (players == this.players)
+			return this;
+		int dealt = this.lower_palace_size + this.upper_palace_size + this.hand_size;
+		int decks = Math.max(this.decks, ((players * dealt) + Card.DECK_SIZE - 1) / Card.DECK_SIZE);
+		return new DeckLayout(decks, players, this.lower_palace_size, this.upper_palace_size, this.hand_size);
+	}//END: for_players() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_decks()
+	{
+		return this.decks;
+	}//END: get_decks() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_players()
+	{
+		return this.players;
+	}//END: get_players() method
+
+	/**
+	 * Returns the number of Locations (see Location.java) the game uses
+	 * @return
+	 */
+	public int get_location_count()
+	{
+		return Location.location_count(this.players);
+	}//END: get_location_count() method
+
+	/**
+	 * Returns the number of cards in the game
+	 * @return
+	 */
+	public int get_card_count()
+	{
+		return Card.DECK_SIZE * this.decks;
+	}//END: get_card_count() method
+
+	/**
+	 * Returns the number of cards of each rank in the game
+	 * @return
+	 */
+	public int get_group_size()
+	{
+		return 4 * this.decks;
+	}//END: get_group_size() method
+
+	/**
+	 * Returns the number of longs a mask of every card id in the game takes
+	 * @return
+	 */
+	public int get_mask_words()
+	{
+		return (get_card_count() + 63) / 64;
+	}//END: get_mask_words() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_lower_palace_size()
+	{
+		return this.lower_palace_size;
+	}//END: get_lower_palace_size() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_upper_palace_size()
+	{
+		return this.upper_palace_size;
+	}//END: get_upper_palace_size() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_hand_size()
+	{
+		return this.hand_size;
+	}//END: get_hand_size() method
+
+	/**
+	 * Returns the rank group (0 for THREE up to 12 for TEN) of the card with the given id
+	 * @param id
+	 * @return
+	 */
+	public int get_rank_group(int id)
+	{
+		return id / get_group_size();
+	}//END: get_rank_group() method
+
+	/**
+	 * Returns the canonical Card object (see Card.java) the card with the given id is a copy of
+	 * @param id
+	 * @return
+	 */
+	public Card get_card(int id)
+	{
+		return Card.get_card((get_rank_group(id) * 4) + (id & 3));
+	}//END: get_card() method
+
+	/**
+	 *
+	 * @param obj
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (! (obj instanceof DeckLayout))
+			return false;
+
+		DeckLayout that = (DeckLayout) obj;
+		return this.decks == that.decks
+			   && this.players == that.players
+			   && this.lower_palace_size == that.lower_palace_size
+			   && this.upper_palace_size == that.upper_palace_size
+			   && this.hand_size == that.hand_size;
+	}//END: equals() method
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public int hashCode()
+	{
+		return ((((((this.decks * 31) + this.players) * 31) + this.lower_palace_size) * 31) + this.upper_palace_size) * 31 + this.hand_size;
+	}//END: hashCode() method
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public String toString()
+	{
+		return this.decks + " deck(s), " + this.players + " players, " + this.lower_palace_size + " lower palace, "
+			   + this.upper_palace_size + " upper palace and " + this.hand_size + " hand cards";
+	}//END: toString() method
+}//END: DeckLayout class
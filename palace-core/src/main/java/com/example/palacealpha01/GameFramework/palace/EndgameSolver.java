@@ -0,0 +1,385 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class plays out the end of a two player game exactly. Once the draw pile is empty, the only
+ * cards a player cannot see are the other player's hand and the lower palaces, and those are few
+ * enough that each guess at where they are (see PalaceGameState.determinize()) can be solved to the
+ * end of the game with alpha-beta search. The solver makes SAMPLES guesses and picks the move that
+ * won in the most of them: with few cards hidden, that covers most of their arrangements, and with
+ * none hidden (or only one way for them to be), it is exact.
+ * <p>
+ * The alpha-beta search is over win (1), loss (-1) or, for a line still going at the depth limit,
+ * unknown (0). It deepens iteratively, from FIRST_DEPTH moves to MAX_DEPTH, and stops as soon as no
+ * line was cut off, as a game where players keep taking the discard pile back can go on for a long
+ * time. It tries the move that was best the last time it saw a position first (see the
+ * transposition table below), then the moves in the order MoveGenerator.java lists them: the lowest
+ * cards first, taking the discard pile last. Plays that differ only in suits are the same to it.
+ * Every position it solves is kept in a TranspositionTable.java keyed by PalaceGameState.getHash(),
+ * which covers where every card is, so a solved position stays solved for the rest of the game,
+ * whichever guess or move it came up in; values that only hold up to a depth limit are not kept.
+ * <p>
+ * An object of this class is not thread safe, but is meant to be kept for a whole game. Its table can
+ * be shared with other solvers, in other threads too.
+ */
+public final class EndgameSolver
+{
+	// how deep the alpha-beta search goes, first and at most; a line still going by then counts as
+	// unknown
+	public static final int FIRST_DEPTH = 8;
+	public static final int MAX_DEPTH = 128;
+	// how many guesses at the hidden cards a solve() solves, all of them to the same depth
+	public static final int SAMPLES = 16;
+
+	private static final int WIN = 1;
+	private static final int UNKNOWN = 0;
+	private static final int LOSS = -1;
+
+	// the clock is read once every this many positions
+	private static final int CLOCK_MASK = 1023;
+
+	// the size of the transposition table of a solver that does not share one, 2^TABLE_BITS entries
+	public static final int TABLE_BITS = 16;
+
+	// what a table entry's data holds: bits 0-1 EXACT, LOWER_BOUND or UPPER_BOUND, 2-3 the value + 1,
+	// and the best move above those
+	private static final int EXACT = 1;
+	private static final int LOWER_BOUND = 2;
+	private static final int UPPER_BOUND = 3;
+
+	private final PalaceRandom random;
+	private final TranspositionTable table;
+	private BeliefState belief;       // what the player solving knows of the hidden cards, or null
+
+	private final int[][] moves;      // the moves at each depth
+	private final int[] root_keys;    // the moves at the root, as keys (see InformationSetSearch.key())
+	private final PalaceGameState[] guesses;
+	private final int[][] guess_values; // the value of each root move in each guess, at the deepest limit solved
+	private final int[] depth_values;   // the values of the guess being solved, at the current limit
+	private final int[] scores;         // over the guesses solved: 2 for each win, 1 for each unknown
+
+	private int root_player;
+	private long root_salt;           // tells apart the table entries of different root players
+	private int depth_limit;
+	private long deadline;
+	private boolean out_of_time;
+	private long nodes;
+	private long horizon_hits;        // how many lines have been cut off at the depth limit
+	private int samples;
+	private double win_rate;
+	private boolean complete;         // whether the last solve() solved every guess to the end
+
+	/**
+	 * Default constructor for EndgameSolver.java, with a transposition table of its own
+	 * @param random the generator the guesses come from
+	 */
+	public EndgameSolver(PalaceRandom random)
+	{
+		this(random, new TranspositionTable(TABLE_BITS));
+	}//END: EndgameSolver() constructor
+
+	/**
+	 * Constructor for EndgameSolver.java that stores what it solves in 'table', which can be shared
+	 * @param random the generator the guesses come from
+	 * @param table
+	 */
+	public EndgameSolver(PalaceRandom random, TranspositionTable table)
+	{
+		this.random = random;
+		this.table = table;
+		this.moves = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+		this.root_keys = new int[MoveGenerator.MAX_MOVES];
+		this.guesses = new PalaceGameState[SAMPLES];
+		this.guess_values = new int[SAMPLES][MoveGenerator.MAX_MOVES];
+		this.depth_values = new int[MoveGenerator.MAX_MOVES];
+		this.scores = new int[MoveGenerator.MAX_MOVES];
+	}//END: EndgameSolver() constructor
+
+	/**
+	 * This function returns whether solve() can be used on 'state': a two player game in which the
+	 * draw pile is empty, and which is not over.
+	 * @param state
+	 * @return
+	 */
+	public static boolean can_solve(PalaceGameState state)
+	{
+		return state.getPlayerCount() == 2 && state.isDrawPileEmpty() && state.getWinner() < 0
+			   && ! state.getIsChangingPalace() && state.getSelectedCards().isEmpty();
+	}//END: can_solve() function
+
+	/**
+	 * Makes SAMPLES guesses at the hidden cards of 'state', which is not changed, and solves all of
+	 * them FIRST_DEPTH moves deep, then twice as deep each time, until no line had to be cut off,
+	 * MAX_DEPTH is reached or 'time_nanos' nanoseconds have passed. Returns the move of the player
+	 * whose turn it is that won in the most of the guesses, at the deepest limit each was solved to
+	 * (the first one listed, of those that did equally well), or -1 if it could not tell a single win
+	 * or loss in time, so that the caller can fall back on something else. 'state' must be one
+	 * can_solve() accepts; if the player has no move in it at all, this returns -1 as well.
+	 * @param state
+	 * @param time_nanos
+	 * @return a move, as in PalaceMove.java, or -1
+	 */
+	public int solve(PalaceGameState state, long time_nanos)
+	{
+		this.deadline = System.nanoTime() + time_nanos;
+		this.out_of_time = false;
+		this.samples = 0;
+		this.win_rate = 0.0;
+		this.complete = false;
+		this.root_player = state.getTurn();
+		this.root_salt = this.root_player * 0x9E3779B97F4A7C15L;
+		this.table.new_search();
+
+		int count = drop_same_size_plays(this.moves[0], MoveGenerator.generate(state, this.moves[0]));
+		for (int i = 0; i < count; i++)
+			this.root_keys[i] = InformationSetSearch.key(state, this.moves[0][i]);
+		if (count == 0)
+			return -1;
+		if (count == 1)
+			return this.moves[0][0];
+
+		for (int g = 0; g < SAMPLES; g++)
+		{
+			this.guesses[g] = new PalaceGameState(state);
+			if (this.belief != null && this.belief.get_viewer() == this.root_player)
+				this.belief.determinize(this.guesses[g], this.random);
+			else
+				this.guesses[g].determinize(this.root_player, this.random);
+		}
+
+		// deepen every guess together, so that running out of time leaves them all solved about as
+		// deep, rather than a few of them solved to the end
+		for (int limit = FIRST_DEPTH; ! this.out_of_time; limit = Math.min(2 * limit, MAX_DEPTH))
+		{
+			this.depth_limit = limit;
+			long horizon_before = this.horizon_hits;
+			for (int g = 0; g < SAMPLES && solve_guess(g, count); g++)
+				this.samples = Math.max(this.samples, g + 1);
+			this.complete = ! this.out_of_time && this.horizon_hits == horizon_before;
+			if (this.horizon_hits == horizon_before || limit == MAX_DEPTH)
+				break;
+		}
+
+		boolean proven = false;
+		for (int i = 0; i < count; i++)
+		{
+			this.scores[i] = 0;
+			for (int g = 0; g < this.samples; g++)
+			{
+				this.scores[i] += this.guess_values[g][i] - LOSS;
+				proven |= this.guess_values[g][i] != UNKNOWN;
+			}
+		}
+		for (int g = 0; g < SAMPLES; g++)
+			this.guesses[g] = null;
+		if (! proven)
+			return -1;
+
+		int best = 0;
+		for (int i = 1; i < count; i++)
+			if (this.scores[i] > this.scores[best])
+				best = i;
+		this.win_rate = 0.0;
+		for (int g = 0; g < this.samples; g++)
+			if (this.guess_values[g][best] == WIN)
+				this.win_rate += 1.0 / this.samples;
+		return InformationSetSearch.to_move(state, this.root_keys[best]);
+	}//END: solve() method
+
+	/**
+	 * Solves guess 'g' to the current depth limit, for each of the 'count' moves in root_keys, into
+	 * guess_values[g]. Returns false, leaving guess_values[g] as it was, if time runs out first.
+	 * @param g
+	 * @param count
+	 * @return
+	 */
+	private boolean solve_guess(int g, int count)
+	{
+		PalaceGameState state = this.guesses[g];
+		for (int i = 0; i < count; i++)
+		{
+			long record = state.apply(InformationSetSearch.to_move(state, this.root_keys[i]));
+			this.depth_values[i] = search(state, 1, LOSS, WIN);
+			state.undo(record);
+			if (this.out_of_time)
+				return false;
+		}
+		System.arraycopy(this.depth_values, 0, this.guess_values[g], 0, count);
+		return true;
+	}//END: solve_guess() method
+
+	/**
+	 * Makes the next solves guess the hidden cards with 'belief' whenever it is the belief of the
+	 * player solving, so that the cards they know stay where they are (see BeliefState.java), or
+	 * with PalaceGameState.determinize() if it is null
+	 * @param belief
+	 */
+	public void set_belief(BeliefState belief)
+	{
+		this.belief = belief;
+	}//END: set_belief() method
+
+	/**
+	 * Returns how many guesses the last solve() solved
+	 * @return
+	 */
+	public int get_samples()
+	{
+		return this.samples;
+	}//END: get_samples() method
+
+	/**
+	 * Returns the share of the guesses the move the last solve() returned was proven to win, from 0
+	 * to 1; 0 if it returned -1, or the only legal move without solving anything
+	 * @return
+	 */
+	public double get_win_rate()
+	{
+		return this.win_rate;
+	}//END: get_win_rate() method
+
+	/**
+	 * Returns true iff the last solve() solved every guess to the end in time, with no line cut off
+	 * at the depth limit; false if it returned without solving anything
+	 * @return
+	 */
+	public boolean is_complete()
+	{
+		return this.complete;
+	}//END: is_complete() method
+
+	/**
+	 * Returns how many positions have been searched, over every solve()
+	 * @return
+	 */
+	public long get_nodes()
+	{
+		return this.nodes;
+	}//END: get_nodes() method
+
+	/**
+	 * Solves 'state' by alpha-beta search, 'depth' moves below the root, and returns WIN, LOSS or
+	 * UNKNOWN for the root player; a value outside of (alpha, beta) is only a bound on the true
+	 * one. Returns UNKNOWN, and stops, once out of time.
+	 * @param state
+	 * @param depth
+	 * @param alpha
+	 * @param beta
+	 * @return
+	 */
+	private int search(PalaceGameState state, int depth, int alpha, int beta)
+	{
+		int winner = state.getWinner();
+		if (winner >= 0)
+			return (winner == this.root_player) ? WIN : LOSS;
+		if (depth == this.depth_limit)
+		{
+			this.horizon_hits++;
+			return UNKNOWN;
+		}
+		if ((++this.nodes & CLOCK_MASK) == 0 && System.nanoTime() - this.deadline > 0)
+			this.out_of_time = true;
+		if (this.out_of_time)
+			return UNKNOWN;
+
+		// the values are the root player's, so the table keeps every root player's apart
+		long hash = state.getHash() ^ this.root_salt;
+		long data = this.table.probe(hash);
+		int hint = -1;
+		if (data >= 0)
+		{
+			int value = (int) ((data >> 2) & 3) - 1;
+			switch ((int) (data & 3))
+			{
+				case EXACT:       return value;
+				case LOWER_BOUND: alpha = Math.max(alpha, value); break;
+				case UPPER_BOUND: beta = Math.min(beta, value);   break;
+			}
+			if (alpha >= beta)
+				return value;
+			hint = (int) (data >>> 4);
+		}
+
+		int[] list = this.moves[depth];
+		int count = drop_same_size_plays(list, MoveGenerator.generate(state, list));
+		for (int i = 1; i < count; i++)
+			if (list[i] == hint)
+			{
+				list[i] = list[0];
+				list[0] = hint;
+				break;
+			}
+
+		boolean maximizing = state.getTurn() == this.root_player;
+		int original_alpha = alpha;
+		int original_beta = beta;
+		long horizon_before = this.horizon_hits;
+		int best = maximizing ? LOSS - 1 : WIN + 1;
+		int best_move = list[0];
+
+		for (int i = 0; i < count; i++)
+		{
+			long record = state.apply(list[i]);
+			int value = search(state, depth + 1, alpha, beta);
+			state.undo(record);
+			if (this.out_of_time)
+				return UNKNOWN;
+
+			if (maximizing ? value > best : value < best)
+			{
+				best = value;
+				best_move = list[i];
+			}
+			if (maximizing)
+				alpha = Math.max(alpha, value);
+			else
+				beta = Math.min(beta, value);
+			if (alpha >= beta)
+				break;
+		}
+
+		// a value that depends on where the depth limit cut lines off is only good for this one search
+		if (this.horizon_hits == horizon_before)
+		{
+			int flag = (best <= original_alpha) ? UPPER_BOUND : (best >= original_beta) ? LOWER_BOUND : EXACT;
+			this.table.store(hash, this.depth_limit - depth, flag | ((long) (best + 1) << 2) | ((long) best_move << 4));
+		}
+		return best;
+	}//END: search() method
+
+	/**
+	 * This function keeps only one of the plays of each number of cards of each rank among the first
+	 * 'count' moves in 'list', and returns how many moves are left. Suits make no difference to the
+	 * game, so playing any two sevens leads to the same outcome; with one deck, MoveGenerator.java
+	 * lists every pair of them, which would make the search tree far wider for nothing.
+	 * @param list
+	 * @param count
+	 * @return
+	 */
+	private static int drop_same_size_plays(int[] list, int count)
+	{
+		int kept = 0;
+		int group = -1;
+		int sizes = 0;
+		for (int i = 0; i < count; i++)
+		{
+			int move = list[i];
+			if (PalaceMove.get_type(move) == PalaceMove.PLAY_CARDS)
+			{
+				if (PalaceMove.get_rank_group(move) != group)
+				{
+					group = PalaceMove.get_rank_group(move);
+					sizes = 0;
+				}
+				int size = 1 << PalaceMove.get_card_count(move);
+				if ((sizes & size) != 0)
+					continue;
+				sizes |= size;
+			}
+			list[kept++] = move;
+		}
+		return kept;
+	}//END: drop_same_size_plays() function
+}//END: EndgameSolver class
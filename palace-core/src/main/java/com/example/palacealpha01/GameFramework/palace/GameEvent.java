@@ -0,0 +1,109 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class describes something that happened in a game of Palace, as published by
+ * PalaceGameState.java through a GameEventBus.java. Every event has a type, the player it happened
+ * to, and the cards involved, as a mask of DeckLayout.MAX_MASK_WORDS longs with bit 'id' set for
+ * every card id involved (see CardBitboard.java):
+ * <pre>
+ *     - CARDS_PLAYED:     the cards the player put on the discard pile
+ *     - PILE_BOMBED:      the cards moved from the discard pile to the dead pile; the player is the
+ *                         one whose play bombed it
+ *     - PILE_TAKEN:       the cards the player picked up from the discard pile
+ *     - HAND_REFILLED:    the cards the player drew from the draw pile; none, when another
+ *                         player's subscription hands it over (see GameEventBus.subscribe())
+ *     - PALACE_CONFIRMED: the cards the player put into their upper palace
+ * </pre>
+ * GameEvent objects are preallocated and reused by GameEventBus.java, so a listener must copy out
+ * whatever it wants to keep instead of keeping the event itself.
+ */
+public class GameEvent
+{
+	public static final int CARDS_PLAYED     = 0;
+	public static final int PILE_BOMBED      = 1;
+	public static final int PILE_TAKEN       = 2;
+	public static final int HAND_REFILLED    = 3;
+	public static final int PALACE_CONFIRMED = 4;
+
+	private static final String[] TYPE_NAMES = {"CardsPlayed", "PileBombed", "PileTaken", "HandRefilled", "PalaceConfirmed"};
+
+	private int type;
+	private int player;
+	private final long[] cards = new long[DeckLayout.MAX_MASK_WORDS];
+
+	/**
+	 * Sets the type and player of this event, so it can be reused for the next one. The caller
+	 * fills in the cards through get_cards().
+	 * @param type
+	 * @param player
+	 */
+	void set(int type, int player)
+	{
+		this.type = type;
+		this.player = player;
+	}//END: set() method
+
+	/**
+	 * Returns one of CARDS_PLAYED, PILE_BOMBED, PILE_TAKEN, HAND_REFILLED or PALACE_CONFIRMED
+	 * @return
+	 */
+	public int get_type()
+	{
+		return this.type;
+	}//END: get_type() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_player()
+	{
+		return this.player;
+	}//END: get_player() method
+
+	/**
+	 * Returns the mask with bit 'id' set for every card id involved in this event. The array is
+	 * reused for the next event, so copy it to keep it.
+	 * @return
+	 */
+	public long[] get_cards()
+	{
+		return this.cards;
+	}//END: get_cards() method
+
+	/**
+	 * Returns true iff the card with the given id is involved in this event
+	 * @param id
+	 * @return
+	 */
+	public boolean has_card(int id)
+	{
+		return CardBitboard.has_card(this.cards, id);
+	}//END: has_card() method
+
+	/**
+	 *
+	 * @return
+	 */
+	public int get_card_count()
+	{
+		return CardBitboard.count_cards(this.cards);
+	}//END: get_card_count() method
+
+	/**
+	 * Builds a description of this event for logging, naming the cards as in a single deck game. This
+	 * is only done by listeners that want it, never by the game itself.
+	 * @return
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder(TYPE_NAMES[this.type]).append(" by player ").append(this.player).append(':');
+		for (int id = CardBitboard.next_card(this.cards, 0); id >= 0; id = CardBitboard.next_card(this.cards, id + 1))
+			s.append(' ').append(id < Card.DECK_SIZE ? Card.get_card(id).toString() : "card " + id);
+		return s.toString();
+	}//END: toString() method
+}//END: GameEvent class
@@ -0,0 +1,186 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class carries the GameEvent.java stream of a game from PalaceGameState.java, which publishes
+ * it on the game's thread, to any number of listeners (logging, toasts, statistics, replays), which
+ * read it whenever and on whichever thread suits them.
+ * <p>
+ * The events are kept in a preallocated ring buffer of the last CAPACITY events, so publishing one
+ * is a few array stores: nothing is allocated, no lock is taken, and the game never waits for a
+ * listener. Each listener has its own Subscription, which remembers how far it has read; calling
+ * poll() hands it every event published since. A listener that falls more than CAPACITY events
+ * behind silently skips the oldest ones.
+ * <p>
+ * A player must only hear what they could have seen at the table, so a player's subscription is
+ * made for their seat (see subscribe(Listener, int) and Viewer): it hands over the HAND_REFILLED
+ * events of the other seats without their cards.
+ * <p>
+ * There must only be one publishing thread. Each Subscription must only be polled by one thread at
+ * a time, which may be a different one.
+ */
+public class GameEventBus
+{
+	public static final int CAPACITY = 64; // must be a power of two
+	private static final int SLOT_MASK = CAPACITY - 1;
+	private static final int WORDS = DeckLayout.MAX_MASK_WORDS;
+	private static final int SLOT_SIZE = 1 + WORDS;
+
+	// Each slot is SLOT_SIZE longs: a header holding the event's sequence number, type and player,
+	// then the mask of its cards. A header of -1 means the slot is being written.
+	private final AtomicLongArray slots;
+	private volatile long published; // number of events published so far
+
+	/**
+	 * Listener interface, implemented by whatever wants to hear about GameEvent objects
+	 */
+	public interface Listener
+	{
+		/**
+		 * Called once for every event, in the order they were published. 'event' is reused for the
+		 * next event as soon as this returns.
+		 * @param event
+		 */
+		void on_game_event(GameEvent event);
+	}//END: Listener interface
+
+	/**
+	 * Viewer interface, implemented by players who want to hear about the game they are in: the game
+	 * subscribes them for their own seat, and hands them the Subscription to poll
+	 */
+	public interface Viewer extends Listener
+	{
+		/**
+		 * Called once by the game, on the game's thread, before the player is sent any state
+		 * @param subscription the player's events, from now on
+		 */
+		void set_subscription(Subscription subscription);
+	}//END: Viewer interface
+
+	/**
+	 * Default constructor for GameEventBus.java
+	 */
+	public GameEventBus()
+	{
+		this.slots = new AtomicLongArray(CAPACITY * SLOT_SIZE);
+		for (int i = 0; i < CAPACITY; i++)
+			this.slots.set(i * SLOT_SIZE, -1L);
+		this.published = 0L;
+	}//END: GameEventBus() constructor
+
+	/**
+	 * Publishes an event (see GameEvent.java for what the arguments mean). 'cards' is copied, and may
+	 * be reused as soon as this returns. Only ever call this from one thread.
+	 * @param type
+	 * @param player
+	 * @param cards
+	 */
+	public void publish(int type, int player, long[] cards)
+	{
+		long sequence = this.published;
+		int slot = ((int) sequence & SLOT_MASK) * SLOT_SIZE;
+		this.slots.set(slot, -1L);
+		for (int w = 0; w < WORDS; w++)
+			this.slots.set(slot + 1 + w, (w < cards.length) ? cards[w] : 0L);
+		this.slots.set(slot, (sequence << 16) | ((type & 0xFF) << 8) | (player & 0xFF));
+		this.published = sequence + 1;
+	}//END: publish() method
+
+	/**
+	 * Returns the number of events published so far
+	 * @return
+	 */
+	public long get_published()
+	{
+		return this.published;
+	}//END: get_published() method
+
+	/**
+	 * Starts handing the events published from now on to 'listener', whenever the returned
+	 * Subscription is polled
+	 * @param listener
+	 * @return
+	 */
+	public Subscription subscribe(Listener listener)
+	{
+		return new Subscription(this, listener, -1);
+	}//END: subscribe() method
+
+	/**
+	 * Starts handing the events published from now on to 'listener' as the player in 'viewer' sees
+	 * them: the cards another player draws come through as an empty mask
+	 * @param listener
+	 * @param viewer
+	 * @return
+	 */
+	public Subscription subscribe(Listener listener, int viewer)
+	{
+		return new Subscription(this, listener, viewer);
+	}//END: subscribe() method
+
+	/**
+	 * Subscription class: one listener's position in the stream of events
+	 */
+	public static class Subscription
+	{
+		private final GameEventBus bus;
+		private final Listener listener;
+		private final int viewer;      // the seat whose view this is, or -1 to see every card
+		private final GameEvent event; // reused for every event handed to the listener
+		private long next;             // sequence number of the next event to hand over
+
+		/**
+		 * Default constructor for Subscription
+		 * @param bus
+		 * @param listener
+		 * @param viewer
+		 */
+		private Subscription(GameEventBus bus, Listener listener, int viewer)
+		{
+			this.bus = bus;
+			this.listener = listener;
+			this.viewer = viewer;
+			this.event = new GameEvent();
+			this.next = bus.published;
+		}//END: Subscription() constructor
+
+		/**
+		 * Hands every event published since the last poll to the listener, on the calling thread,
+		 * and returns how many were handed over
+		 * @return
+		 */
+		public int poll()
+		{
+			int count = 0;
+			long published = this.bus.published;
+			for (; this.next < published; this.next++)
+			{
+				// skip the events that have already been overwritten
+				if (published - this.next > CAPACITY)
+					this.next = published - CAPACITY;
+
+				int slot = ((int) this.next & SLOT_MASK) * SLOT_SIZE;
+				long header = this.bus.slots.get(slot);
+				long[] cards = this.event.get_cards();
+				for (int w = 0; w < WORDS; w++)
+					cards[w] = this.bus.slots.get(slot + 1 + w);
+				if ((header >>> 16) != this.next || this.bus.slots.get(slot) != header)
+					continue; // overwritten while it was being read
+
+				int type = (int) (header >> 8) & 0xFF;
+				int player = (int) header & 0xFF;
+				if (type == GameEvent.HAND_REFILLED && this.viewer >= 0 && player != this.viewer)
+					for (int w = 0; w < WORDS; w++)
+						cards[w] = 0L;
+				this.event.set(type, player);
+				this.listener.on_game_event(this.event);
+				count++;
+			}
+			return count;
+		}//END: poll() method
+	}//END: Subscription class
+}//END: GameEventBus class
@@ -0,0 +1,534 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.util.Arrays;
+
+/**
+ * This class picks a move for the player whose turn it is by Information-Set Monte Carlo Tree
+ * Search (single observer ISMCTS). The player cannot see the other players' hands, the lower
+ * palaces or the draw pile, so every iteration first guesses them, by shuffling those cards among
+ * those places (see PalaceGameState.determinize()), and then searches one tree shared by all the
+ * guesses:
+ * <pre>
+ *     - selection:   from the root, pick the child with the best UCB1 score among the moves that
+ *                    are legal in this guess, counting, for each of those, that it was available
+ *     - expansion:   as soon as a legal move has no child yet, add one for it (picked at random)
+ *     - playout:     finish the game from there with a cheap policy (see playout_move())
+ *     - backup:      every node on the way down gets a visit, and a win if the player who made
+ *                    its move won the game
+ * </pre>
+ * The moves are applied to, and undone on, one copy of the state (see PalaceGameState.apply()),
+ * and the tree is kept in parallel arrays, so an iteration allocates nothing.
+ * <p>
+ * Moves are stored in the tree as keys (see key()), which are the moves themselves except for
+ * playing a lower palace card: the card is unseen, so which card it is differs from guess to guess,
+ * and the key is its place in the lower palace instead.
+ * <p>
+ * Given a TranspositionTable.java (see set_table()), it also keeps the visits and wins of every
+ * node there, under a hash of the root position and the keys of the moves down to the node, and a
+ * node it adds starts from what other searches on the same table, or its own earlier runs, found
+ * for it. Those count for picking the child to go down, but not for get_root_moves(), so the
+ * workers of a ParallelSearch.java are still only counted once when their trees are merged.
+ * <p>
+ * An object of this class is not thread safe, but can be reused for any number of searches. To
+ * search on several cores at once, run one per core with ParallelSearch.java.
+ */
+public final class InformationSetSearch implements PalaceSearch
+{
+	// the UCB1 exploration constant; rewards are 0 or 1
+	public static final double EXPLORATION = 0.7;
+	// the most moves an iteration makes, tree and playout together; a game that is not over by then
+	// is won by whoever has the fewest cards left
+	public static final int MAX_ITERATION_MOVES = 1_000;
+	// how often the playout policy plays the lowest cards it can, rather than any legal ones
+	private static final double GREEDY_PLAYOUTS = 0.75;
+	// the clock is read once every this many iterations
+	private static final int CLOCK_INTERVAL = 16;
+	private static final int INITIAL_NODES = 1 << 12;
+	// a table entry's data holds the visits in its low STAT_BITS bits and the wins above them
+	private static final int STAT_BITS = 24;
+	private static final int STAT_MASK = (1 << STAT_BITS) - 1;
+
+	// makes the workers of a ParallelSearch.java
+	public static final PalaceSearch.Factory FACTORY = new PalaceSearch.Factory()
+	{
+		@Override
+		public PalaceSearch create(PalaceRandom random)
+		{
+			return new InformationSetSearch(random);
+		}
+	};
+
+	private final PalaceRandom random;
+	private BeliefState belief;  // what the player searching knows of the hidden cards, or null
+	private TranspositionTable table; // where the nodes' statistics are shared, or null
+
+	// the tree: one entry per node in each array, node 0 being the root
+	private int[] keys;          // key of the move that leads to the node
+	private int[] movers;        // the player who makes that move
+	private int[] first_child;   // first child of the node, or -1
+	private int[] next_sibling;  // next child of the node's parent, or -1
+	private int[] visits;        // how many iterations went through the node
+	private int[] available;     // how many of the iterations through its parent could have made its move
+	private int[] wins;          // how many of its visits its mover won
+	private long[] hashes;       // the node's key in the table
+	private int[] prior_visits;  // the visits the table had for the node when it was added
+	private int[] prior_wins;    // and the wins
+	private int node_count;
+
+	private int[] moves;         // the legal moves where the iteration is at
+	private int[] untried;       // those of them without a child yet
+	private int[] path;          // the nodes an iteration went through
+	private long[] records;      // the undo records of the moves an iteration made
+
+	private int iterations;
+	private long elapsed_nanos;
+
+	/**
+	 * Default constructor for InformationSetSearch.java
+	 * @param random the generator every guess and every random choice comes from
+	 */
+	public InformationSetSearch(PalaceRandom random)
+	{
+		this.random = random;
+		this.keys = new int[INITIAL_NODES];
+		this.movers = new int[INITIAL_NODES];
+		this.first_child = new int[INITIAL_NODES];
+		this.next_sibling = new int[INITIAL_NODES];
+		this.visits = new int[INITIAL_NODES];
+		this.available = new int[INITIAL_NODES];
+		this.wins = new int[INITIAL_NODES];
+		this.hashes = new long[INITIAL_NODES];
+		this.prior_visits = new int[INITIAL_NODES];
+		this.prior_wins = new int[INITIAL_NODES];
+		this.moves = new int[MoveGenerator.MAX_MOVES];
+		this.untried = new int[MoveGenerator.MAX_MOVES];
+		this.path = new int[MAX_ITERATION_MOVES + 1];
+		this.records = new long[MAX_ITERATION_MOVES];
+	}//END: InformationSetSearch() constructor
+
+	/**
+	 * Searches for the best move of the player whose turn it is in 'state', which is not changed,
+	 * until 'time_nanos' nanoseconds have passed or 'max_iterations' iterations have been run,
+	 * whichever comes first (see run()), and returns the move it tried most often.
+	 * @param state
+	 * @param time_nanos
+	 * @param max_iterations
+	 * @return the move, as in PalaceMove.java
+	 */
+	public int search(PalaceGameState state, long time_nanos, int max_iterations)
+	{
+		run(state, time_nanos, max_iterations);
+		return to_move(state, best_child_key());
+	}//END: search() method
+
+	/**
+	 * Builds the tree for the player whose turn it is in 'state', which is not changed, until
+	 * 'time_nanos' nanoseconds have passed or 'max_iterations' iterations have been run, whichever
+	 * comes first. A budget of 0 or less is no limit, but not both of them can be. A player with
+	 * only one legal move gets it without any search.
+	 * <p>
+	 * Nobody may be changing their palace in 'state', no cards may be selected, and the game must
+	 * not be over.
+	 * @param state
+	 * @param time_nanos
+	 * @param max_iterations
+	 */
+	@Override
+	public void run(PalaceGameState state, long time_nanos, int max_iterations)
+	{
+		if (time_nanos <= 0 && max_iterations <= 0)
+			throw new IllegalArgumentException("the search needs a time or an iteration budget");
+
+		long start = System.nanoTime();
+		this.iterations = 0;
+		clear_tree();
+		this.hashes[0] = child_hash(state.getHash(), 0, state.getTurn());
+		if (MoveGenerator.generate(state, this.moves) == 1)
+		{
+			add_child(0, key(state, this.moves[0]), state.getTurn());
+			this.elapsed_nanos = System.nanoTime() - start;
+			return;
+		}
+
+		PalaceGameState work = new PalaceGameState(state);
+		int observer = state.getTurn();
+
+		long now = start;
+		while ((max_iterations <= 0 || this.iterations < max_iterations)
+			   && (time_nanos <= 0 || now - start < time_nanos))
+		{
+			iterate(work, observer);
+			if (++this.iterations % CLOCK_INTERVAL == 0 && time_nanos > 0)
+				now = System.nanoTime();
+		}
+		this.elapsed_nanos = System.nanoTime() - start;
+	}//END: run() method
+
+	/**
+	 * Writes the moves at the root of the tree the last run() built, as they are made in 'state',
+	 * and how often each was tried (see PalaceSearch.get_root_moves())
+	 * @param state
+	 * @param moves
+	 * @param visits
+	 * @return
+	 */
+	@Override
+	public int get_root_moves(PalaceGameState state, int[] moves, int[] visits)
+	{
+		int count = 0;
+		for (int child = this.first_child[0]; child >= 0; child = this.next_sibling[child])
+		{
+			moves[count] = to_move(state, this.keys[child]);
+			visits[count++] = this.visits[child];
+		}
+		return count;
+	}//END: get_root_moves() method
+
+	/**
+	 * Makes the next runs guess the hidden cards with 'belief' (see PalaceSearch.set_belief())
+	 * @param belief
+	 */
+	@Override
+	public void set_belief(BeliefState belief)
+	{
+		this.belief = belief;
+	}//END: set_belief() method
+
+	/**
+	 * Makes the next runs share the statistics of their nodes in 'table' (see PalaceSearch.set_table())
+	 * @param table
+	 */
+	@Override
+	public void set_table(TranspositionTable table)
+	{
+		this.table = table;
+	}//END: set_table() method
+
+	/**
+	 * Returns how many iterations the last run() ran
+	 * @return
+	 */
+	@Override
+	public int get_iterations()
+	{
+		return this.iterations;
+	}//END: get_iterations() method
+
+	/**
+	 * Returns how long the last run() took, in nanoseconds
+	 * @return
+	 */
+	public long get_elapsed_nanos()
+	{
+		return this.elapsed_nanos;
+	}//END: get_elapsed_nanos() method
+
+	/**
+	 * Returns how many iterations per second the last run() ran
+	 * @return
+	 */
+	public double get_iterations_per_second()
+	{
+		return (this.elapsed_nanos == 0) ? 0.0 : (this.iterations * 1e9) / this.elapsed_nanos;
+	}//END: get_iterations_per_second() method
+
+	/**
+	 * Runs one iteration on 'state', which it leaves the way it found it except for the guess of
+	 * the hidden cards.
+	 * @param state
+	 * @param observer the player searching
+	 */
+	private void iterate(PalaceGameState state, int observer)
+	{
+		if (this.belief != null && this.belief.get_viewer() == observer)
+			this.belief.determinize(state, this.random);
+		else
+			state.determinize(observer, this.random);
+
+		int node = 0;
+		int depth = 0;
+		int length = 0;
+		this.path[length++] = node;
+
+		// selection and expansion
+		boolean expanded = false;
+		while (! expanded && depth < MAX_ITERATION_MOVES && state.getWinner() < 0)
+		{
+			int count = MoveGenerator.generate(state, this.moves);
+			if (count == 0)
+				break;
+			int mover = state.getTurn();
+			int untried_count = 0;
+			int best = -1;
+			double best_score = Double.NEGATIVE_INFINITY;
+
+			for (int i = 0; i < count; i++)
+			{
+				int key = key(state, this.moves[i]);
+				int child = find_child(node, key);
+				if (child < 0)
+				{
+					this.untried[untried_count++] = i;
+					continue;
+				}
+				this.available[child]++;
+				if (untried_count > 0)
+					continue;
+				int visits = this.visits[child] + this.prior_visits[child];
+				double score = ((double) (this.wins[child] + this.prior_wins[child]) / visits)
+							   + (EXPLORATION * Math.sqrt(Math.log(this.available[child] + this.prior_visits[child]) / visits));
+				if (score > best_score)
+				{
+					best_score = score;
+					best = child;
+				}
+			}
+
+			int move;
+			if (untried_count > 0)
+			{
+				move = this.moves[this.untried[this.random.next_int(untried_count)]];
+				node = add_child(node, key(state, move), mover);
+				expanded = true;
+			}
+			else
+			{
+				node = best;
+				move = to_move(state, this.keys[node]);
+			}
+			this.records[depth++] = state.apply(move);
+			this.path[length++] = node;
+		}
+
+		// playout
+		while (depth < MAX_ITERATION_MOVES && state.getWinner() < 0)
+		{
+			int move = playout_move(state);
+			if (move < 0)
+				break;
+			this.records[depth++] = state.apply(move);
+		}
+
+		int winner = state.getWinner();
+		if (winner < 0)
+			winner = fewest_cards_left(state);
+
+		while (depth > 0)
+			state.undo(this.records[--depth]);
+
+		// backup
+		for (int i = 0; i < length; i++)
+		{
+			int n = this.path[i];
+			this.visits[n]++;
+			if (this.movers[n] == winner)
+				this.wins[n]++;
+			if (this.table != null && i > 0)
+				share(n);
+		}
+	}//END: iterate() method
+
+	/**
+	 * Stores the visits and wins of 'node', its prior ones included, in the table, halving them
+	 * both until they fit; a node visited more often is kept over one visited less
+	 * @param node
+	 */
+	private void share(int node)
+	{
+		long visits = (long) this.visits[node] + this.prior_visits[node];
+		long wins = (long) this.wins[node] + this.prior_wins[node];
+		while (visits > STAT_MASK)
+		{
+			visits >>>= 1;
+			wins >>>= 1;
+		}
+		this.table.store(this.hashes[node], 64 - Long.numberOfLeadingZeros(visits), visits | (wins << STAT_BITS));
+	}//END: share() method
+
+	/**
+	 * Returns the table key of the child reached from a node with key 'parent' by the move with
+	 * the given key, made by 'mover'
+	 * @param parent
+	 * @param key
+	 * @param mover
+	 * @return
+	 */
+	private static long child_hash(long parent, int key, int mover)
+	{
+		long z = parent + ((((long) key << 8) | mover) + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}//END: child_hash() function
+
+	/**
+	 * Returns the move a playout makes in 'state': any lower palace card, once that is where the
+	 * player has to play from; otherwise, usually the most cards of the lowest rank they can play
+	 * (the first move MoveGenerator.java lists), sometimes any legal cards; and taking the discard
+	 * pile only when nothing can be played.
+	 * @param state
+	 * @return the move, or -1 if there is none
+	 */
+	private int playout_move(PalaceGameState state)
+	{
+		int count = MoveGenerator.generate(state, this.moves);
+		if (count == 0)
+			return -1;
+		int plays = count;
+		if (PalaceMove.get_type(this.moves[count - 1]) == PalaceMove.TAKE_DISCARD_PILE)
+			plays--;
+
+		if (plays == 0)
+			return this.moves[count - 1];
+		if (PalaceMove.get_type(this.moves[0]) == PalaceMove.PLAY_CARDS
+			&& this.random.next_double() < GREEDY_PLAYOUTS)
+			return this.moves[0];
+		return this.moves[this.random.next_int(plays)];
+	}//END: playout_move() method
+
+	/**
+	 * Returns the key (see the class comment) under which the tree stores 'move' in 'state'. A
+	 * key means the same move in every guess at the hidden cards, which is what EndgameSolver.java
+	 * needs too.
+	 * @param state
+	 * @param move
+	 * @return
+	 */
+	static int key(PalaceGameState state, int move)
+	{
+		if (PalaceMove.get_type(move) != PalaceMove.PLAY_LOWER_PALACE_CARD)
+			return move;
+
+		int id = PalaceMove.get_card_id(move);
+		Location lower = Location.lower_palace(state.getTurn());
+		int position = 0;
+		while (state.getCardIdAt(lower, position) != id)
+			position++;
+		return PalaceMove.play_lower_palace_card(position);
+	}//END: key() function
+
+	/**
+	 * Returns the move stored in the tree under 'key', as it is made in 'state'
+	 * @param state
+	 * @param key
+	 * @return
+	 */
+	static int to_move(PalaceGameState state, int key)
+	{
+		if (PalaceMove.get_type(key) != PalaceMove.PLAY_LOWER_PALACE_CARD)
+			return key;
+
+		Location lower = Location.lower_palace(state.getTurn());
+		return PalaceMove.play_lower_palace_card(state.getCardIdAt(lower, PalaceMove.get_card_id(key)));
+	}//END: to_move() function
+
+	/**
+	 * Returns the player with the fewest cards left in 'state', the lowest one should there be several
+	 * @param state
+	 * @return
+	 */
+	private static int fewest_cards_left(PalaceGameState state)
+	{
+		int fewest = 0;
+		for (int seat = 1; seat < state.getPlayerCount(); seat++)
+			if (state.getCardsLeft(seat) < state.getCardsLeft(fewest))
+				fewest = seat;
+		return fewest;
+	}//END: fewest_cards_left() function
+
+	/**
+	 * Returns the key of the root's most visited child: the move the search recommends
+	 * @return
+	 */
+	private int best_child_key()
+	{
+		int best = -1;
+		for (int child = this.first_child[0]; child >= 0; child = this.next_sibling[child])
+			if (best < 0 || this.visits[child] > this.visits[best])
+				best = child;
+		return this.keys[best];
+	}//END: best_child_key() method
+
+	/**
+	 * Returns the child of 'node' reached by the move with the given key, or -1 if there is none
+	 * @param node
+	 * @param key
+	 * @return
+	 */
+	private int find_child(int node, int key)
+	{
+		int child = this.first_child[node];
+		while (child >= 0 && this.keys[child] != key)
+			child = this.next_sibling[child];
+		return child;
+	}//END: find_child() method
+
+	/**
+	 * Adds a child to 'node' for the move with the given key, made by 'mover', and returns it
+	 * @param node
+	 * @param key
+	 * @param mover
+	 * @return
+	 */
+	private int add_child(int node, int key, int mover)
+	{
+		if (this.node_count == this.keys.length)
+			grow();
+		int child = this.node_count++;
+		this.keys[child] = key;
+		this.movers[child] = mover;
+		this.first_child[child] = -1;
+		this.next_sibling[child] = this.first_child[node];
+		this.first_child[node] = child;
+		this.visits[child] = 0;
+		this.available[child] = 1;
+		this.wins[child] = 0;
+		this.hashes[child] = child_hash(this.hashes[node], key, mover);
+		this.prior_visits[child] = 0;
+		this.prior_wins[child] = 0;
+		if (this.table != null)
+		{
+			long data = this.table.probe(this.hashes[child]);
+			if (data != -1L)
+			{
+				this.prior_visits[child] = (int) (data & STAT_MASK);
+				this.prior_wins[child] = (int) ((data >>> STAT_BITS) & STAT_MASK);
+			}
+		}
+		return child;
+	}//END: add_child() method
+
+	/**
+	 * Empties the tree down to a bare root
+	 */
+	private void clear_tree()
+	{
+		this.node_count = 1;
+		this.first_child[0] = -1;
+		this.next_sibling[0] = -1;
+		this.movers[0] = -1;
+		this.visits[0] = 0;
+		this.wins[0] = 0;
+	}//END: clear_tree() method
+
+	/**
+	 * Doubles the room for nodes
+	 */
+	private void grow()
+	{
+		int capacity = this.keys.length * 2;
+		this.keys = Arrays.copyOf(this.keys, capacity);
+		this.movers = Arrays.copyOf(this.movers, capacity);
+		this.first_child = Arrays.copyOf(this.first_child, capacity);
+		this.next_sibling = Arrays.copyOf(this.next_sibling, capacity);
+		this.visits = Arrays.copyOf(this.visits, capacity);
+		this.available = Arrays.copyOf(this.available, capacity);
+		this.wins = Arrays.copyOf(this.wins, capacity);
+		this.hashes = Arrays.copyOf(this.hashes, capacity);
+		this.prior_visits = Arrays.copyOf(this.prior_visits, capacity);
+		this.prior_wins = Arrays.copyOf(this.prior_wins, capacity);
+	}//END: grow() method
+}//END: InformationSetSearch class
@@ -0,0 +1,60 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class holds the rules of Palace for which card may be played on which, compiled into a 16x16
+ * table indexed by the integer value of the Rank enum on top of the discard pile and of the card
+ * being played (see Rank.java). An empty discard pile has the value EMPTY_PILE. Checking whether a
+ * card may be played on the discard pile is then a single array load.
+ */
+public final class LegalityTable
+{
+	public static final int EMPTY_PILE = 0;
+
+	private static final int SIZE = 16;
+	private static final boolean[] LEGAL = new boolean[SIZE * SIZE];
+
+	static
+	{
+		for (int top = 0; top < SIZE; top++)
+			for (int rank = 0; rank < SIZE; rank++)
+				LEGAL[(top * SIZE) + rank] = rule(top, rank);
+	}
+
+	private LegalityTable() {}
+
+	/**
+	 * This function returns true iff a card of Rank value 'rank' may be played on a discard pile with
+	 * a card of Rank value 'top' on top of it, or on an empty discard pile if 'top' is EMPTY_PILE.
+	 * @param top
+	 * @param rank
+	 * @return
+	 */
+	public static boolean is_legal(int top, int rank)
+	{
+		return LEGAL[(top * SIZE) + rank];
+	}//END: is_legal() function
+
+	/**
+	 * This function is the rule the table is built from.
+	 * @param top
+	 * @param rank
+	 * @return
+	 */
+	private static boolean rule(int top, int rank)
+	{
+		//anything can be played on an empty discard pile
+		if (top == EMPTY_PILE)
+			return true;
+		//playing a two or a ten or playing on a two is always legal
+		if (top == Rank.TWO_INT || rank == Rank.TWO_INT || rank == Rank.TEN_INT)
+			return true;
+		//cards of equal or lower rank are allowed on top of sevens
+		if (top == Rank.SEVEN_INT)
+			return rank <= Rank.SEVEN_INT;
+		//otherwise, a card is only legal if its rank is at least the top card of the discard pile
+		return top <= rank;
+	}//END: rule() function
+}//END: LegalityTable class
@@ -0,0 +1,151 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+
+/**
+ * @author Maximilian
+ * <p>
+ * This class is an enumeration for the Pair.java class. It represents a card object's location in the
+ * game.
+ * <p>
+ * Every seat at the table (0 to MAX_SEATS - 1) has a hand, an upper palace and a lower palace; the
+ * draw, discard and dead piles are shared. The Locations of the first two seats come first, so a two
+ * player game only uses the first SHARED_END ordinals, and every further seat adds three more (see
+ * location_count()). Use hand(), upper_palace() and lower_palace() to find a seat's Locations, and
+ * get_seat() and get_kind() to go the other way.
+ */
+public enum Location implements Serializable
+{
+	PLAYER_ONE_HAND(0, 0),
+	PLAYER_ONE_UPPER_PALACE(0, 1),
+	PLAYER_ONE_LOWER_PALACE(0, 2),
+	PLAYER_TWO_HAND(1, 0),
+	PLAYER_TWO_UPPER_PALACE(1, 1),
+	PLAYER_TWO_LOWER_PALACE(1, 2),
+	DRAW_PILE(-1, -1),
+	DISCARD_PILE(-1, -1),
+	DEAD_PILE(-1, -1),
+	PLAYER_THREE_HAND(2, 0),
+	PLAYER_THREE_UPPER_PALACE(2, 1),
+	PLAYER_THREE_LOWER_PALACE(2, 2),
+	PLAYER_FOUR_HAND(3, 0),
+	PLAYER_FOUR_UPPER_PALACE(3, 1),
+	PLAYER_FOUR_LOWER_PALACE(3, 2),
+	PLAYER_FIVE_HAND(4, 0),
+	PLAYER_FIVE_UPPER_PALACE(4, 1),
+	PLAYER_FIVE_LOWER_PALACE(4, 2),
+	PLAYER_SIX_HAND(5, 0),
+	PLAYER_SIX_UPPER_PALACE(5, 1),
+	PLAYER_SIX_LOWER_PALACE(5, 2),
+	PLAYER_SEVEN_HAND(6, 0),
+	PLAYER_SEVEN_UPPER_PALACE(6, 1),
+	PLAYER_SEVEN_LOWER_PALACE(6, 2),
+	PLAYER_EIGHT_HAND(7, 0),
+	PLAYER_EIGHT_UPPER_PALACE(7, 1),
+	PLAYER_EIGHT_LOWER_PALACE(7, 2);
+
+	public static final int MAX_SEATS = 8;
+
+	// the kinds of Location every seat has one of
+	public static final int HAND = 0;
+	public static final int UPPER_PALACE = 1;
+	public static final int LOWER_PALACE = 2;
+	public static final int KINDS = 3;
+
+	private static final int SHARED_END = DEAD_PILE.ordinal() + 1;
+	private static final Location[] SEAT_ZONES = new Location[MAX_SEATS * KINDS];
+	static
+	{
+		for (Location location : values())
+			if (location.seat >= 0)
+				SEAT_ZONES[(location.seat * KINDS) + location.kind] = location;
+	}
+
+	private final int seat;
+	private final int kind;
+
+	/**
+	 * Default constructor for Location.java
+	 * @param seat the seat whose zone this is, or -1 for the shared piles
+	 * @param kind HAND, UPPER_PALACE or LOWER_PALACE, or -1 for the shared piles
+	 */
+	Location(int seat, int kind)
+	{
+		this.seat = seat;
+		this.kind = kind;
+	}//END: Location() constructor
+
+	/**
+	 * Returns the seat whose hand or palace this is, or -1 for the draw, discard and dead piles
+	 * @return
+	 */
+	public int get_seat()
+	{
+		return this.seat;
+	}//END: get_seat() method
+
+	/**
+	 * Returns HAND, UPPER_PALACE or LOWER_PALACE, or -1 for the draw, discard and dead piles
+	 * @return
+	 */
+	public int get_kind()
+	{
+		return this.kind;
+	}//END: get_kind() method
+
+	/**
+	 * This function returns the given kind (HAND, UPPER_PALACE or LOWER_PALACE) of Location of the
+	 * given seat.
+	 * @param seat
+	 * @param kind
+	 * @return
+	 */
+	public static Location of_seat(int seat, int kind)
+	{
+		return SEAT_ZONES[(seat * KINDS) + kind];
+	}//END: of_seat() function
+
+	/**
+	 * This function returns the hand of the given seat.
+	 * @param seat
+	 * @return
+	 */
+	public static Location hand(int seat)
+	{
+		return SEAT_ZONES[seat * KINDS];
+	}//END: hand() function
+
+	/**
+	 * This function returns the upper palace of the given seat.
+	 * @param seat
+	 * @return
+	 */
+	public static Location upper_palace(int seat)
+	{
+		return SEAT_ZONES[(seat * KINDS) + UPPER_PALACE];
+	}//END: upper_palace() function
+
+	/**
+	 * This function returns the lower palace of the given seat.
+	 * @param seat
+	 * @return
+	 */
+	public static Location lower_palace(int seat)
+	{
+		return SEAT_ZONES[(seat * KINDS) + LOWER_PALACE];
+	}//END: lower_palace() function
+
+	/**
+	 * This function returns how many Locations a game with the given number of players uses: every
+	 * Location with a lower ordinal than that. Two players use the first nine.
+	 * @param players
+	 * @return
+	 */
+	public static int location_count(int players)
+	{
+		return SHARED_END + (KINDS * Math.max(players - 2, 0));
+	}//END: location_count() function
+}//END: Location enum
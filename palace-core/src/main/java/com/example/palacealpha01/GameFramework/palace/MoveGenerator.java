@@ -0,0 +1,79 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class lists every legal move (see PalaceMove.java) of the player whose turn it is, writing
+ * them into an int array the caller keeps reusing, so nothing is allocated. It works on whole rank
+ * groups at a time: the cards of one rank in the zone the player has to play from are a run of
+ * consecutive bits of the zone's CardBitboard mask (see DeckLayout.java), so the rank's legality is
+ * only looked up once (see LegalityTable.java), and every way of playing several cards of that rank
+ * at once is just a subset of those bits.
+ * <p>
+ * With a single deck, every subset is listed. With more decks a rank can have up to 16 cards, whose
+ * suits make no difference to the game, so only one set of each size is listed: the cards with the
+ * lowest ids. That keeps the number of moves linear in the number of cards.
+ * <p>
+ * The moves are listed as follows:
+ * <pre>
+ *     - from the hand, or the upper palace once the hand is empty: every non-empty set of legal cards
+ *       of the same rank (or one of each size), by increasing rank, largest set of each rank first
+ *     - once both are empty: playing any of the lower palace cards, unseen
+ *     - last, taking the discard pile, if it is not empty
+ * </pre>
+ */
+public final class MoveGenerator
+{
+	private static final int RANK_GROUPS = DeckLayout.RANK_GROUPS;
+
+	// 15 non-empty suit sets for each of the 13 ranks with one deck, or one set of each of up to 16
+	// sizes with more, plus taking the discard pile
+	public static final int MAX_MOVES = (RANK_GROUPS * Math.max(15, DeckLayout.MAX_GROUP_SIZE)) + 1;
+
+	private MoveGenerator() {}
+
+	/**
+	 * This function writes every legal move of the player whose turn it is in 'state' into 'moves',
+	 * from index 0 on, and returns how many there are. 'moves' needs room for MAX_MOVES moves.
+	 * @param state
+	 * @param moves
+	 * @return
+	 */
+	public static int generate(PalaceGameState state, int[] moves)
+	{
+		Location zone = state.getPlayableZone(state.getTurn());
+		DeckLayout layout = state.getLayout();
+		int count = 0;
+
+		if (zone.get_kind() != Location.LOWER_PALACE)
+		{
+			int top = state.getTopRank();
+			int group_size = layout.get_group_size();
+			for (int group = 0; group < RANK_GROUPS; group++)
+			{
+				int suits = (int) state.getLocationBits(zone, group * group_size, group_size);
+				if (suits == 0 || ! LegalityTable.is_legal(top, group + Rank.THREE_INT))
+					continue;
+
+				if (group_size == 4)
+					for (int subset = suits; subset != 0; subset = (subset - 1) & suits)
+						moves[count++] = PalaceMove.play_cards(group, subset);
+				else
+					for (int subset = suits; subset != 0; subset &= ~Integer.highestOneBit(subset))
+						moves[count++] = PalaceMove.play_cards(group, subset);
+			}
+		}
+		else
+		{
+			for (int w = 0; w < layout.get_mask_words(); w++)
+				for (long m = state.getLocationWord(zone, w); m != 0L; m = CardBitboard.without_lowest_card(m))
+					moves[count++] = PalaceMove.play_lower_palace_card((w << 6) + CardBitboard.lowest_card(m));
+		}
+
+		if (! state.discardPile.is_empty())
+			moves[count++] = PalaceMove.take_discard_pile();
+
+		return count;
+	}//END: generate() function
+}//END: MoveGenerator class
@@ -3,8 +3,6 @@
  */
 package com.example.palacealpha01.GameFramework.palace;
 
-import android.util.Log;
-
 import java.io.Serializable;
 
 /**
@@ -12,26 +10,50 @@ import java.io.Serializable;
  * @author Andres Giesemann
  *
  * This class combines both a card object and a location enumeration to create a pair object. These
- * pair objects simply represent the both a card and where it is in the game.
+ * pair objects simply represent the both a card and where it is in the game. Where a card is drawn on
+ * the screen is up to PalaceSurfaceView.java, as the same Pair objects are shared by every snapshot
+ * of a state (see PalaceGameState.snapshot()).
  */
 public class Pair implements Serializable
 {
+	private static final Location[] LOCATIONS = Location.values();
+	private static final String[] KIND_NAMES = {"hand", "upper palace", "lower palace"};
+	private static final String[] NAMES = new String[Card.DECK_SIZE * LOCATIONS.length];
+	static
+	{
+		for (int id = 0; id < Card.DECK_SIZE; id++)
+			for (Location location : LOCATIONS)
+				NAMES[(id * LOCATIONS.length) + location.ordinal()] = Card.get_card(id) + " in " + location_name(location);
+	}
+
 	private Card card;
+	private int id;
 	private Location location;
-	private int x;
-	private int y;
 
 	/**
 	 * Default constructor for Pair.java
+	 * The Pair's card id is the Card object's own id, as in a single deck game.
 	 * @param card
 	 * @param location
 	 */
 	public Pair(Card card, Location location)
+	{
+		this(card, location, card.get_id());
+	}//END: Pair() constructor
+
+	/**
+	 * Constructor for Pair.java
+	 * Used when several decks are played with, where copies of a Card object have their own card
+	 * ids (see DeckLayout.java).
+	 * @param card
+	 * @param location
+	 * @param id
+	 */
+	public Pair(Card card, Location location, int id)
 	{
 		this.card = card;
+		this.id = id;
 		this.location = location;
-		this.x = -1; // initial invalid value
-		this.y = -1; // initial invalid value
 	}//END: Pair() constructor
 
 	/**
@@ -40,10 +62,9 @@ public class Pair implements Serializable
 	 */
 	public Pair(Pair that)
 	{
-		this.card = new Card(that.card);
+		this.card = that.card; // Card objects are immutable, so they can be shared
+		this.id = that.id;
 		this.location = that.location;
-		this.x = that.x;
-		this.y = that.y;
 	}//END: Pair() copy constructor
 
 	/**
@@ -55,6 +76,16 @@ public class Pair implements Serializable
 		return card;
 	}//END: get_card() method
 
+	/**
+	 * Returns the id of this Pair's card in the game (see DeckLayout.java). In a single deck game,
+	 * this is the id (0 - 51) of its Card object.
+	 * @return
+	 */
+	public int get_card_id()
+	{
+		return id;
+	}//END: get_card_id() method
+
 	/**
 	 *
 	 * @return
@@ -74,49 +105,24 @@ public class Pair implements Serializable
 	}//END: set_location() method
 
 	/**
-	 *
-	 * @return
-	 */
-	public int getX()
-	{
-		return this.x;
-	}//END: getY() method
-
-	/**
-	 *
+	 * Returns a description of this pair, such as "Ace of Spades in Draw pile". The descriptions are
+	 * built once, when the class is loaded.
 	 * @return
 	 */
-	public int getY()
-	{
-		return this.y;
-	}//END: getY() method
-
-	/**
-	 *
-	 * @param x
-	 */
-	public void setX(int x)
-	{
-		this.x = x;
-	}//END: setX() method
-
-	/**
-	 *
-	 * @param y
-	 */
-	public void setY(int y)
+	@Override
+	public String toString()
 	{
-		this.y = y;
-	}//END: setY() method
+		return NAMES[(this.card.get_id() * LOCATIONS.length) + this.location.ordinal()];
+	}//END: toString() method
 
 	/**
-	 *
+	 * Builds the description of a Location used by toString()
+	 * @param location
 	 * @return
 	 */
-	@Override
-	public String toString()
+	private static String location_name(Location location)
 	{
-		String return_str = card.toString() + " in ";
+		String return_str = "";
 
 		switch (location)
 		{
@@ -148,12 +154,12 @@ public class Pair implements Serializable
 				return_str += "Draw pile";
 				break;
 			default:
-				Log.d("Pair.java", "toString()");
-				return null;
+				return_str += "Player " + (location.get_seat() + 1) + "'s " + KIND_NAMES[location.get_kind()];
+				break;
 		}
 
 		return return_str;
-	}//END: toString() method
+	}//END: location_name() function
 
 	/**
 	 *
@@ -166,11 +172,21 @@ public class Pair implements Serializable
 		if (! (obj instanceof Pair))
 			return false;
 
-		if (! this.card.equals(((Pair) obj).get_card()))
+		if (this.id != ((Pair) obj).id)
 			return false;
 		if (this.location != ((Pair) obj).location)
 			return false;
 
 		return true;
 	}//END: equals() method
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public int hashCode()
+	{
+		return id * 31 + (location == null ? 0 : location.ordinal());
+	}//END: hashCode() method
 }//END: Pair class
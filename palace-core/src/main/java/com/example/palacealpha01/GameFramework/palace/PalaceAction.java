@@ -0,0 +1,52 @@
+package com.example.palacealpha01.GameFramework.palace;
+
+import com.example.palacealpha01.GameFramework.GamePlayer;
+import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
+
+import java.io.Serializable;
+
+/**
+ * The superclass of every Palace action. Each kind of action has a small, stable id, which
+ * PalaceLocalGame uses to look up the handler for an action instead of testing it against every
+ * action class in turn. The ids are part of the network protocol, so they must never change; a
+ * new kind of action gets the next unused id.
+ *
+ * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
+ * @version November 2019
+ */
+public abstract class PalaceAction extends GameAction implements Serializable
+{
+	public static final int SELECT_CARD = 0;
+	public static final int PLAY_CARDS = 1;
+	public static final int TAKE_DISCARD_PILE = 2;
+	public static final int CONFIRM_PALACE = 3;
+	public static final int CHANGE_PALACE = 4;
+	public static final int SELECT_PALACE_CARD = 5;
+	public static final int PLAY_LOWER_PALACE_CARD = 6;
+	public static final int PLAY_CARD_SET = 7;
+	public static final int ACTION_TYPES = 8; //number of action ids
+
+	private final int actionId;
+
+	/**
+	 * constructor for PalaceAction
+	 *
+	 * @param player   the player who created the action
+	 * @param actionId one of the ids above
+	 */
+	protected PalaceAction(GamePlayer player, int actionId)
+	{
+		super(player);
+		this.actionId = actionId;
+	}//PalaceAction
+
+	/**
+	 * getActionId method:
+	 *
+	 * @return which kind of action this is, as one of the ids above
+	 */
+	public final int getActionId()
+	{
+		return actionId;
+	}//getActionId
+}//class PalaceAction
@@ -1,7 +1,6 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalaceChangePalaceAction extends GameAction implements Serializable
+public class PalaceChangePalaceAction extends PalaceAction implements Serializable
 {
 	/**
 	 * constructor for GameAction
@@ -20,6 +19,6 @@ public class PalaceChangePalaceAction extends GameAction implements Serializable
 	 */
 	public PalaceChangePalaceAction(GamePlayer player)
 	{
-		super(player);
+		super(player, CHANGE_PALACE);
 	}//PalaceChangePalaceAction
 }//class PalaceChangePalaceAction
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalaceConfirmPalaceAction extends GameAction implements Serializable
+public class PalaceConfirmPalaceAction extends PalaceAction implements Serializable
 {
 	/**
 	 * constructor for GameAction
@@ -20,6 +19,6 @@ public class PalaceConfirmPalaceAction extends GameAction implements Serializabl
 	 */
 	public PalaceConfirmPalaceAction(GamePlayer player)
 	{
-		super(player);
+		super(player, CONFIRM_PALACE);
 	}//PalaceConfirmPalaceAction
 }//class PalaceConfirmPalaceAction
@@ -0,0 +1,1992 @@
+package com.example.palacealpha01.GameFramework.palace;
+
+
+import com.example.palacealpha01.GameFramework.infoMessage.GameState;
+//import com.example.palacealpha01.R;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+/**
+ * Data representation of a game of Palace for use with the CS301 Game Framework
+ * Contains the state of the Palace game.
+ *
+ * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
+ */
+public class PalaceGameState extends GameState implements Serializable
+{
+
+
+	//Declare Variables
+
+	public ArrayList<Pair> the_deck;
+	private DeckLayout layout;   //how many decks are played with, by how many players, and how they are dealt
+	private int players;         //layout.get_players(): seats 0 to players - 1 take turns in order
+	private int locationCount;   //layout.get_location_count(): the locations this game has
+	private ArrayList<Pair> selectedCards; //in the order they were selected
+	private long[] selectedMask;           //bit 'id' is set iff the card with that id is selected
+	public Stack discardPile;
+	private CardBitboard board;  //where every card is, one bit mask per Location (see CardBitboard.java)
+	private CardLocationIndex index; //the cards in each location, in order (see CardLocationIndex.java)
+	private Pair[] pairsById;    //the Pair object in the_deck for each card id
+	private int turn;
+	private boolean isChangingPalace;
+	private int canChangePalace;     //bit 'seat' is set iff that player can still change their palace
+	private boolean discardPileWasBombed;
+	private long hash;           //Zobrist hash of the position (see ZobristKeys.java and getHash())
+	private Location[] playableZones; //where each player has to play from: hand, then upper, then lower palace
+	private int[] cardsLeft;          //cards in each player's hand, upper and lower palace
+	private int emptySeats;           //bit 'seat' is set iff that player has no cards left
+	private boolean testingP1Palace = false; //change this for debugging issues with playing cards from player one's lower palace
+
+	//copy-on-write bookkeeping (see snapshot()). These are transient, so a deserialized state
+	//always owns everything it references.
+	private transient boolean cardsShared;     //the_deck, pairsById, board, index, discardPile, playableZones and cardsLeft
+	private transient boolean selectionShared; //selectedCards and selectedMask
+	private transient int version;             //bumped by every change to this state
+
+	//positions the cards played by apply() came from, for undo() to put them back (see apply()).
+	//Like the records themselves, they only make sense to the state that made the moves.
+	private transient int[] undoPositions;
+	private transient int undoTop;
+
+	//reused by determinize() for the ids of the cards it shuffles, and the sizes of their locations
+	private transient int[] hiddenCards;
+	private transient int[] hiddenSizes;
+
+	//where this state publishes what happens in the game (see GameEventBus.java), or null. Only
+	//the state a game is played on has one: its deep copies and snapshots stay silent, so that no
+	//player who is sent one can read what the other players drew.
+	private transient GameEventBus events;
+	private transient long[] eventCards; //reused for the cards of every event published
+
+	//layout of the undo records returned by apply() and read by undo()
+	private static final int UNDO_MOVE_MASK = (1 << PalaceMove.MOVE_BITS) - 1; //bits 0-21: the move itself
+	private static final int UNDO_TURN_SHIFT = 22;        //4 bits: the turn before the move
+	private static final int UNDO_WAS_BOMBED_SHIFT = 26;  //1 bit: discardPileWasBombed before the move
+	private static final int UNDO_CAN_CHANGE_SHIFT = 27;  //1 bit: whether the mover could change their palace before the move
+	private static final int UNDO_SOURCE_SHIFT = 28;      //2 bits: the kind of the mover's location the played cards came from
+	private static final int UNDO_DRAWN_SHIFT = 32;       //8 bits: number of cards drawn from the draw pile
+	private static final int UNDO_BOMBED_SHIFT = 40;      //8 bits: number of cards bombed into the dead pile
+	private static final int UNDO_TAKEN_SHIFT = 48;       //8 bits: number of cards taken from the discard pile
+	private static final int UNDO_PLAYED_SHIFT = 56;      //1 bit: whether any cards were played
+	private static final int UNDO_COUNT_MASK = 0xFF;
+
+
+	/**
+	 * Default Constructor for PalaceGameState
+	 * <p>
+	 * Creates a deck of cards, shuffles it and deals it
+	 */
+	public PalaceGameState()
+	{
+		this(DeckLayout.STANDARD);
+	}//constructor
+
+	/**
+	 * Constructor for PalaceGameState
+	 * <p>
+	 * Creates the cards of the given number of decks, shuffles them and deals them to as many
+	 * players as the layout says
+	 *
+	 * @param layout the decks to play with and how to deal them (see DeckLayout.java)
+	 */
+	public PalaceGameState(DeckLayout layout)
+	{
+		this(layout, new PalaceRandom());
+	}//constructor
+
+	/**
+	 * Constructor for PalaceGameState
+	 * <p>
+	 * Like the constructor above, but shuffles with the given generator, so that a game started
+	 * with a generator of the same seed is dealt exactly the same cards. The state does not keep
+	 * the generator: nothing a player can see of the state says how the cards will be shuffled.
+	 *
+	 * @param layout the decks to play with and how to deal them (see DeckLayout.java)
+	 * @param random the generator to shuffle the deck with (see PalaceRandom.java)
+	 */
+	public PalaceGameState(DeckLayout layout, PalaceRandom random)
+	{
+		this.layout = layout;
+		players = layout.get_players();
+		locationCount = layout.get_location_count();
+		the_deck = new ArrayList<>(layout.get_card_count());
+		selectedCards = new ArrayList<>();
+		selectedMask = new long[layout.get_mask_words()];
+		discardPile = new Stack();
+		board = new CardBitboard(layout.get_card_count(), locationCount);
+		index = new CardLocationIndex(layout.get_card_count(), locationCount);
+		pairsById = new Pair[layout.get_card_count()];
+		playableZones = new Location[players];
+		cardsLeft = new int[players];
+		emptySeats = (1 << players) - 1;
+		initialize_the_deck();
+		shuffleTheDeck(random);
+		turn = 0;
+		dealTheDeck();
+		isChangingPalace = false;
+		canChangePalace = (1 << players) - 1;
+		discardPileWasBombed = false;
+		hash = computeHash();
+		refreshPlayableZones();
+	}//constructor
+
+	/**
+	 * Deep Copy Constructor
+	 *
+	 * @param state The one true state of the game, to be copied
+	 */
+	public PalaceGameState(PalaceGameState state)
+	{
+		turn = state.turn;
+		layout = state.layout;
+		players = state.players;
+		locationCount = state.locationCount;
+		the_deck = new ArrayList<>(state.the_deck.size());
+		pairsById = new Pair[state.pairsById.length];
+
+		for (Pair p : state.the_deck)
+		{
+			Pair copy = new Pair(p);
+			the_deck.add(copy);
+			pairsById[copy.get_card_id()] = copy;
+		}
+		board = new CardBitboard(state.board);
+		index = new CardLocationIndex(state.index);
+
+		selectedCards = new ArrayList<>();
+		for (Pair p : state.selectedCards)
+		{
+			selectedCards.add(new Pair(p));
+		}
+		selectedMask = state.selectedMask.clone();
+
+		discardPile = rebuildDiscardPile();
+
+		isChangingPalace = state.getIsChangingPalace();
+		canChangePalace = state.canChangePalace;
+		discardPileWasBombed = state.getWasBombed();
+		hash = state.hash;
+		playableZones = state.playableZones.clone();
+		cardsLeft = state.cardsLeft.clone();
+		emptySeats = state.emptySeats;
+
+	}//deep copy constructor
+
+	/**
+	 * Snapshot Constructor
+	 * <p>
+	 * Shares every part of the state with the original instead of copying it. Whichever of the
+	 * two states changes a shared part first makes its own copy of that part (see writeCards() and
+	 * writeSelection()), so neither can see the other's later changes.
+	 *
+	 * @param state the state to share structure with
+	 * @param ignored only here to tell this constructor apart from the deep copy constructor
+	 */
+	private PalaceGameState(PalaceGameState state, boolean ignored)
+	{
+		turn = state.turn;
+		layout = state.layout;
+		players = state.players;
+		locationCount = state.locationCount;
+		the_deck = state.the_deck;
+		pairsById = state.pairsById;
+		board = state.board;
+		index = state.index;
+		discardPile = state.discardPile;
+		selectedCards = state.selectedCards;
+		selectedMask = state.selectedMask;
+
+		isChangingPalace = state.isChangingPalace;
+		canChangePalace = state.canChangePalace;
+		discardPileWasBombed = state.discardPileWasBombed;
+		hash = state.hash;
+		playableZones = state.playableZones;
+		cardsLeft = state.cardsLeft;
+		emptySeats = state.emptySeats;
+
+		cardsShared = true;
+		selectionShared = true;
+		state.cardsShared = true;
+		state.selectionShared = true;
+		version = state.version;
+	}//snapshot constructor
+
+	/**
+	 * snapshot method:
+	 * Creates a copy of this state in constant time by sharing its structure (copy-on-write).
+	 * After a snapshot, this state copies only the parts it actually changes, the next time it
+	 * changes them. Use it instead of the deep copy constructor when broadcasting the state.
+	 *
+	 * @return a state equal to this one, which later changes to this state will not affect
+	 */
+	public PalaceGameState snapshot()
+	{
+		return new PalaceGameState(this, true);
+	}//snapshot
+
+	/**
+	 * getVersion method:
+	 *
+	 * @return a number that changes every time this state changes
+	 */
+	public int getVersion()
+	{
+		return version;
+	}//getVersion
+
+	/**
+	 * getHash method:
+	 * Returns the Zobrist hash of this position. It covers the location of every card, the order of
+	 * the discard pile, the turn and the palace flags, and is updated as the state changes, so
+	 * reading it is free. The order of the draw pile, the selected cards and discardPileWasBombed are
+	 * not part of the position.
+	 *
+	 * @return a 64-bit hash of this position
+	 */
+	public long getHash()
+	{
+		return hash;
+	}//getHash
+
+	/**
+	 * computeHash method:
+	 * Computes the hash getHash() returns from scratch, by visiting every card.
+	 *
+	 * @return a 64-bit hash of this position, always equal to getHash()
+	 */
+	public long computeHash()
+	{
+		long h = ZobristKeys.turn(turn);
+		for (int id = 0; id < pairsById.length; id++)
+		{
+			h ^= ZobristKeys.location(id, pairsById[id].get_location());
+		}
+		for (int i = 0; i < discardPile.size(); i++)
+		{
+			h ^= ZobristKeys.discard(i, discardPile.get(i).get_card_id());
+		}
+		if (isChangingPalace)
+		{
+			h ^= ZobristKeys.IS_CHANGING_PALACE;
+		}
+		for (int seat = 0; seat < players; seat++)
+		{
+			if ((canChangePalace & (1 << seat)) != 0)
+			{
+				h ^= ZobristKeys.can_change_palace(seat);
+			}
+		}
+		return h;
+	}//computeHash
+
+	/**
+	 * writeCards method:
+	 * Must be called before changing the_deck, the Pairs in it, board, index or discardPile, or
+	 * moving any card. Copies them first if they are shared with a snapshot.
+	 */
+	private void writeCards()
+	{
+		version++;
+		if (!cardsShared)
+		{
+			return;
+		}
+
+		ArrayList<Pair> deck = new ArrayList<>(the_deck.size());
+		pairsById = new Pair[pairsById.length];
+		for (Pair p : the_deck)
+		{
+			Pair copy = new Pair(p);
+			deck.add(copy);
+			pairsById[copy.get_card_id()] = copy;
+		}
+		the_deck = deck;
+		board = new CardBitboard(board);
+		index = new CardLocationIndex(index);
+		discardPile = rebuildDiscardPile();
+		playableZones = playableZones.clone();
+		cardsLeft = cardsLeft.clone();
+		cardsShared = false;
+	}//writeCards
+
+	/**
+	 * writeSelection method:
+	 * Must be called before changing selectedCards or selectedMask. Copies them first if they are
+	 * shared with a snapshot.
+	 */
+	private void writeSelection()
+	{
+		version++;
+		if (!selectionShared)
+		{
+			return;
+		}
+
+		selectedCards = new ArrayList<>(selectedCards);
+		selectedMask = selectedMask.clone();
+		selectionShared = false;
+	}//writeSelection
+
+	/**
+	 * rebuildDiscardPile method:
+	 * Builds a discard pile out of this state's own Pairs. The index lists the discard pile in the
+	 * order its cards were played, which is exactly the order they were pushed.
+	 *
+	 * @return a new discard pile equal to the current one
+	 */
+	private Stack rebuildDiscardPile()
+	{
+		Stack pile = new Stack();
+		for (int i = 0; i < index.size(Location.DISCARD_PILE); i++)
+		{
+			pile.push(pairsById[index.get(Location.DISCARD_PILE, i)]);
+		}
+		return pile;
+	}//rebuildDiscardPile
+
+	/**
+	 * getSelectedCards method:
+	 *
+	 * @return the selected cards, in the order they were selected. Use isSelected() to check if a
+	 *         card is selected, rather than searching this list.
+	 */
+	public ArrayList<Pair> getSelectedCards()
+	{
+		return selectedCards;
+	}
+
+	/**
+	 * isSelected method:
+	 *
+	 * @param p a Pair from any copy of the state
+	 * @return true if its card is selected
+	 */
+	public boolean isSelected(Pair p)
+	{
+		return CardBitboard.has_card(selectedMask, p.get_card_id());
+	}
+
+	/**
+	 * getSelectedMask method:
+	 *
+	 * @param mask array of at least getLayout().get_mask_words() longs to copy the mask into
+	 * @return 'mask', with bit 'id' set for every selected card id (see CardBitboard.java)
+	 */
+	public long[] getSelectedMask(long[] mask)
+	{
+		System.arraycopy(selectedMask, 0, mask, 0, selectedMask.length);
+		return mask;
+	}
+
+	/**
+	 * addSelected method:
+	 * Selects a card. writeSelection() must have been called first.
+	 *
+	 * @param p the card to select
+	 */
+	private void addSelected(Pair p)
+	{
+		selectedCards.add(p);
+		CardBitboard.add_card(selectedMask, p.get_card_id());
+	}//addSelected
+
+	/**
+	 * removeSelected method:
+	 * Deselects a card. writeSelection() must have been called first.
+	 *
+	 * @param p the card to deselect
+	 */
+	private void removeSelected(Pair p)
+	{
+		CardBitboard.remove_card(selectedMask, p.get_card_id());
+		for (int i = 0; i < selectedCards.size(); i++)
+		{
+			if (selectedCards.get(i).get_card_id() == p.get_card_id())
+			{
+				selectedCards.remove(i);
+				return;
+			}
+		}
+	}//removeSelected
+
+	/**
+	 * clearSelected method:
+	 * Deselects every card. writeSelection() must have been called first.
+	 */
+	private void clearSelected()
+	{
+		selectedCards.clear();
+		Arrays.fill(selectedMask, 0L);
+	}//clearSelected
+
+	/**
+	 * initialize_the_deck method:
+	 * Creates a Pair object for each of the 52 cards of every deck, in the order of their ids (see
+	 * DeckLayout.java). All Pair objects have initial location of DRAW_PILE
+	 */
+	private void initialize_the_deck()
+	{
+		for (int id = 0; id < layout.get_card_count(); id++)
+		{
+			Pair p = new Pair(layout.get_card(id), Location.DRAW_PILE, id);
+			the_deck.add(p);
+			pairsById[id] = p;
+			board.move(id, Location.DRAW_PILE);
+			index.move(id, Location.DRAW_PILE);
+		}
+
+	}//initialize_the_deck
+
+	/**
+	 * moveCard method:
+	 * Moves one of the Pairs in the_deck to a new location, keeping the board up to date.
+	 * Every location change in this class has to go through here (or moveAll).
+	 *
+	 * @param p  a Pair from the_deck
+	 * @param to the card's new location
+	 */
+	private void moveCard(Pair p, Location to)
+	{
+		int id = p.get_card_id();
+		hash ^= ZobristKeys.location(id, p.get_location()) ^ ZobristKeys.location(id, to);
+		Location from = p.get_location();
+		countCardsLeft(from, to, 1);
+		p.set_location(to);
+		board.move(id, to);
+		index.move(id, to);
+		refreshPlayableZones(from, to);
+	}//moveCard
+
+	/**
+	 * moveCardTo method:
+	 * Like moveCard, but puts the card at the given position of its new location instead of at
+	 * the end. Used by undo() to put cards back exactly where they were.
+	 *
+	 * @param p        a Pair from the_deck
+	 * @param to       the card's new location
+	 * @param position its position among the cards in that location
+	 */
+	private void moveCardTo(Pair p, Location to, int position)
+	{
+		int id = p.get_card_id();
+		hash ^= ZobristKeys.location(id, p.get_location()) ^ ZobristKeys.location(id, to);
+		Location from = p.get_location();
+		countCardsLeft(from, to, 1);
+		p.set_location(to);
+		board.move(id, to);
+		index.insert(id, to, position);
+		refreshPlayableZones(from, to);
+	}//moveCardTo
+
+	/**
+	 * moveAll method:
+	 * Moves every card in one location to another location, visiting only the cards that move.
+	 *
+	 * @param from the location being emptied
+	 * @param to   the location receiving the cards
+	 */
+	private void moveAll(Location from, Location to)
+	{
+		countCardsLeft(from, to, index.size(from));
+		for (int i = 0; i < index.size(from); i++)
+		{
+			int id = index.get(from, i);
+			hash ^= ZobristKeys.location(id, from) ^ ZobristKeys.location(id, to);
+			pairsById[id].set_location(to);
+		}
+		board.move_all(from, to);
+		index.move_all(from, to);
+		refreshPlayableZones(from, to);
+	}//moveAll
+
+	/**
+	 * countCardsLeft method:
+	 * Keeps cardsLeft and emptySeats up to date when cards move. Called whenever cards move. Only
+	 * the (at most two) players whose hand or palace the cards move between are touched, however
+	 * many players there are.
+	 *
+	 * @param from  where the cards were
+	 * @param to    where they are going
+	 * @param count how many cards are moving
+	 */
+	private void countCardsLeft(Location from, Location to, int count)
+	{
+		if (from == to || count == 0)
+		{
+			return;
+		}
+		int fromSeat = from.get_seat();
+		int toSeat = to.get_seat();
+		if (fromSeat >= 0 && (cardsLeft[fromSeat] -= count) == 0)
+		{
+			emptySeats |= 1 << fromSeat;
+		}
+		if (toSeat >= 0)
+		{
+			cardsLeft[toSeat] += count;
+			emptySeats &= ~(1 << toSeat);
+		}
+	}//countCardsLeft
+
+	/**
+	 * getCardsLeft method:
+	 * The number of cards a player still has to get rid of: those in their hand, upper palace and
+	 * lower palace. A player with none left has won.
+	 *
+	 * @param playerID the player
+	 * @return the number of cards the player has left
+	 */
+	public int getCardsLeft(int playerID)
+	{
+		return cardsLeft[playerID];
+	}//getCardsLeft
+
+	/**
+	 * getWinner method:
+	 * The first player to get rid of all their cards wins. As the state keeps count of every
+	 * player's cards, this is a constant time check however many players there are.
+	 *
+	 * @return the player with no cards left (the lowest one, should there be several), or -1 if
+	 *         every player still has cards
+	 */
+	public int getWinner()
+	{
+		return (emptySeats == 0) ? -1 : Integer.numberOfTrailingZeros(emptySeats);
+	}//getWinner
+
+	/**
+	 * refreshPlayableZones method:
+	 * Works out again which location the players whose cards moved have to play from. Called
+	 * whenever cards move.
+	 *
+	 * @param from where the cards were
+	 * @param to   where they went
+	 */
+	private void refreshPlayableZones(Location from, Location to)
+	{
+		int fromSeat = from.get_seat();
+		int toSeat = to.get_seat();
+		if (fromSeat >= 0)
+		{
+			refreshPlayableZone(fromSeat);
+		}
+		if (toSeat >= 0 && toSeat != fromSeat)
+		{
+			refreshPlayableZone(toSeat);
+		}
+	}//refreshPlayableZones
+
+	/**
+	 * refreshPlayableZones method:
+	 * Works out again which location every player has to play from.
+	 */
+	private void refreshPlayableZones()
+	{
+		for (int seat = 0; seat < players; seat++)
+		{
+			refreshPlayableZone(seat);
+		}
+	}//refreshPlayableZones
+
+	/**
+	 * refreshPlayableZone method:
+	 * Works out again which location a player has to play from.
+	 *
+	 * @param seat the player
+	 */
+	private void refreshPlayableZone(int seat)
+	{
+		Location hand = Location.hand(seat);
+		Location upper = Location.upper_palace(seat);
+		playableZones[seat] = (index.size(hand) != 0) ? hand
+				: (index.size(upper) != 0) ? upper
+				: Location.lower_palace(seat);
+	}//refreshPlayableZone
+
+	/**
+	 * ownPair method:
+	 * Finds this state's own Pair for a card. Pairs inside actions come from a player's copy of the
+	 * state, so they must not be moved around directly.
+	 *
+	 * @param p a Pair from any copy of the state
+	 * @return the Pair in this state's the_deck holding the same card
+	 */
+	private Pair ownPair(Pair p)
+	{
+		return pairsById[p.get_card_id()];
+	}//ownPair
+
+	/**
+	 * pushDiscardPile method:
+	 * Pushes one of this state's Pairs onto the discard pile, keeping the hash up to date.
+	 *
+	 * @param p a Pair from the_deck
+	 */
+	private void pushDiscardPile(Pair p)
+	{
+		hash ^= ZobristKeys.discard(discardPile.size(), p.get_card_id());
+		discardPile.push(p);
+	}//pushDiscardPile
+
+	/**
+	 * popDiscardPile method:
+	 * Pops the top Pair off the discard pile, keeping the hash up to date. Does not move the card
+	 * anywhere.
+	 *
+	 * @return the Pair that was on top of the discard pile
+	 */
+	private Pair popDiscardPile()
+	{
+		Pair p = discardPile.pop();
+		hash ^= ZobristKeys.discard(discardPile.size(), p.get_card_id());
+		return p;
+	}//popDiscardPile
+
+	/**
+	 * clearDiscardPile method:
+	 * Empties the discard pile, keeping the hash up to date. Does not move the cards anywhere.
+	 */
+	private void clearDiscardPile()
+	{
+		for (int i = 0; i < discardPile.size(); i++)
+		{
+			hash ^= ZobristKeys.discard(i, discardPile.get(i).get_card_id());
+		}
+		discardPile.clear();
+	}//clearDiscardPile
+
+	/**
+	 * setIsChangingPalace method:
+	 * Sets isChangingPalace, keeping the hash up to date.
+	 *
+	 * @param b the new value of isChangingPalace
+	 */
+	private void setIsChangingPalace(boolean b)
+	{
+		if (isChangingPalace != b)
+		{
+			hash ^= ZobristKeys.IS_CHANGING_PALACE;
+			isChangingPalace = b;
+		}
+	}//setIsChangingPalace
+
+	/**
+	 * shuffleTheDeck method:
+	 * Shuffles the deck with a freshly seeded generator (see shuffleTheDeck(PalaceRandom))
+	 */
+	public void shuffleTheDeck()
+	{
+		shuffleTheDeck(new PalaceRandom());
+	}//shuffleTheDeck
+
+	/**
+	 * shuffleTheDeck method:
+	 * Shuffles the deck with the given generator, then puts the index's lists (most importantly the
+	 * draw pile) into the new order of the_deck
+	 *
+	 * @param random the generator to shuffle with (see PalaceRandom.java)
+	 */
+	public void shuffleTheDeck(PalaceRandom random)
+	{
+		writeCards();
+		random.shuffle(the_deck);
+
+		int[] order = new int[the_deck.size()];
+		for (int i = 0; i < order.length; i++)
+		{
+			order[i] = the_deck.get(i).get_card_id();
+		}
+		index.sort_by(order);
+	}//shuffleTheDeck
+
+	/**
+	 * determinize method:
+	 * Shuffles every card the given player cannot see among the places it could be: the other
+	 * players' hands, every lower palace (the player's own included, as it is face down) and the
+	 * draw pile. Every location keeps its size, so the result is one of the deals the player cannot
+	 * tell apart from this one, each of them equally likely. The cards the player can see (their
+	 * own hand, the upper palaces and the discard and dead piles) stay where they are.
+	 * <p>
+	 * Searches use this to guess the hidden cards (see InformationSetSearch.java). Like apply(),
+	 * it publishes no events, and allocates nothing after the first call.
+	 *
+	 * @param playerID the player whose view of the game is kept
+	 * @param random   the generator to shuffle with (see PalaceRandom.java)
+	 */
+	public void determinize(int playerID, PalaceRandom random)
+	{
+		determinize(playerID, null, random);
+	}//determinize
+
+	/**
+	 * determinize method:
+	 * Like determinize(playerID, random), but the hidden cards the player knows the place of
+	 * anyway, such as the ones they saw another player pick up (see BeliefState.java), stay in the
+	 * location they are in. Only the rest are shuffled, among the places left for them, and each
+	 * location's known cards end up behind its shuffled ones.
+	 *
+	 * @param playerID the player whose view of the game is kept
+	 * @param known    the mask of the cards that stay where they are (see CardBitboard.java), or
+	 *                 null for none
+	 * @param random   the generator to shuffle with (see PalaceRandom.java)
+	 */
+	public void determinize(int playerID, long[] known, PalaceRandom random)
+	{
+		writeCards();
+		if (hiddenCards == null)
+		{
+			hiddenCards = new int[pairsById.length];
+			hiddenSizes = new int[(2 * players) + 1];
+		}
+
+		int count = 0;
+		for (int l = 0; l <= 2 * players; l++)
+		{
+			Location location = hiddenLocation(playerID, l);
+			int size = (location == null) ? 0 : index.size(location);
+			hiddenSizes[l] = 0;
+			for (int i = 0; i < size; i++)
+			{
+				int id = index.get(location, i);
+				if (known == null || !CardBitboard.has_card(known, id))
+				{
+					hiddenCards[count++] = id;
+					hiddenSizes[l]++;
+				}
+			}
+		}
+		random.shuffle(hiddenCards, count);
+
+		//deal the shuffled cards back out, location by location, front to back: each card is put
+		//at its place in its new location, which pushes the cards behind it back. Those that belong
+		//elsewhere are taken out again when their turn comes, and the cards in front of it are
+		//already the right ones, so every location ends up holding exactly its share, in order,
+		//followed by its known cards, which never move to another location.
+		int next = 0;
+		for (int l = 0; l <= 2 * players; l++)
+		{
+			Location location = hiddenLocation(playerID, l);
+			for (int i = 0; i < hiddenSizes[l]; i++)
+			{
+				Pair p = pairsById[hiddenCards[next++]];
+				if (p.get_location() != location || index.get_position(p.get_card_id()) != i)
+				{
+					moveCardTo(p, location, i);
+				}
+			}
+		}
+	}//determinize
+
+	/**
+	 * hiddenLocation method:
+	 * Lists the locations determinize() shuffles the cards of: every other player's hand, then
+	 * every lower palace, then the draw pile.
+	 *
+	 * @param playerID the viewer
+	 * @param l        which of them, from 0 to twice the number of players
+	 *
+	 * @return the location, or null for the viewer's own hand
+	 */
+	private Location hiddenLocation(int playerID, int l)
+	{
+		if (l < players)
+		{
+			return (l == playerID) ? null : Location.hand(l);
+		}
+		return (l < 2 * players) ? Location.lower_palace(l - players) : Location.DRAW_PILE;
+	}//hiddenLocation
+
+	/**
+	 * selectCards method:
+	 * Adds legal, user-selected cards to the selected cards
+	 *
+	 * @param playerID         ID of player who called the method
+	 * @param userSelectedCard card that user attempted to select
+	 *
+	 * @return true if a card was successfully selected OR deselected
+	 */
+	public boolean selectCards(int playerID, Pair userSelectedCard)
+	{
+		if (isLegal(userSelectedCard))
+		{
+			writeSelection();
+			if (selectedCards.isEmpty())
+			{
+				addSelected(userSelectedCard);
+				return true;
+			}
+			//also select the card if the other selected cards are of the same rank
+			else if (!isSelected(userSelectedCard)
+					&& userSelectedCard.get_card().get_rank()
+					== selectedCards.get(selectedCards.size() - 1).get_card().get_rank())
+			{
+				addSelected(userSelectedCard);
+				return true;
+			}
+			//deselect a card that is already selected
+			else if (isSelected(userSelectedCard))
+			{
+				removeSelected(userSelectedCard);
+				return true;
+			}
+			return false;
+		}
+		return false;
+	}//selectCards
+
+	/**
+	 * selectPalaceCards method:
+	 * Selects cards to be placed into the palace of the player who called the method.
+	 * Different from selectCards because any cards can be legally added to the palace.
+	 *
+	 * @param playerID         ID of player who called the method
+	 * @param userSelectedCard card that user attempted to select
+	 *
+	 * @return true if a card was successfully selected OR deselected
+	 */
+	public boolean selectPalaceCards(int playerID, Pair userSelectedCard)
+	{
+		writeSelection();
+
+		//deselects the card if it is already selected
+		if (isSelected(userSelectedCard))
+		{
+			removeSelected(userSelectedCard);
+			return true;
+		}
+
+		//selects a card if there are not already as many selected cards as fit in the upper palace
+		if (CardBitboard.count_cards(selectedMask) < layout.get_upper_palace_size())
+		{
+			addSelected(userSelectedCard);
+			return true;
+		}
+
+		return false;
+
+	}//selectPalaceCards
+
+	/**
+	 * playLowerPalaceCards method:
+	 *
+	 * Plays a lower palace card immediately without selecting it first and automatically
+	 * takes the discard pile if the played card was illegal
+	 *
+	 * @param playerID player who is playing the card
+	 * @param userSelectedCard card that was chosen
+	 * @return true if the card is legal OR if the card was illegal and the discard pile was taken
+	 */
+	public boolean playLowerPalaceCard(int playerID, Pair userSelectedCard)
+	{
+
+		if (isLegal(userSelectedCard))
+		{
+			selectCards(playerID, userSelectedCard);
+			playCards(playerID);
+			return true;
+		}
+
+		else
+		{
+			//an illegal lower palace card can only be played once its owner's hand and upper palace are empty
+			Location location = userSelectedCard.get_location();
+			int seat = location.get_seat();
+			if (location.get_kind() == Location.LOWER_PALACE
+				&& index.size(Location.hand(seat)) == 0 && index.size(Location.upper_palace(seat)) == 0)
+			{
+				writeSelection();
+				addSelected(userSelectedCard);
+				playCards(playerID);
+				takeDiscardPile(playerID);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * playCards method:
+	 * Places all selected cards into the discard pile. Bombs the discard pile (bombDiscardPile()) if
+	 * 4 of a kind are on top of the discard pile or a ten is played.
+	 *
+	 * @param playerID player who called this method,
+	 *
+	 * @return true if cards have been selected for play
+	 */
+	public boolean playCards(int playerID)
+	{
+		if (isChangingPalace)
+		{
+			return false;
+		}
+		if (!selectedCards.isEmpty())
+		{
+			writeCards();
+			writeSelection();
+			publish(GameEvent.CARDS_PLAYED, playerID, selectedMask);
+			for (int i = 0; i < selectedCards.size(); i++)
+			{
+				Pair p = ownPair(selectedCards.get(i));
+				pushDiscardPile(p);
+				moveCard(p, Location.DISCARD_PILE);
+			}
+
+			clearSelected();
+
+			finishPlay(playerID);
+			return true;
+		}
+		return false;
+	}//playCards
+
+	/**
+	 * playCardSet method:
+	 * Plays a set of cards of the same rank in one go, checking first that all of them may be
+	 * played, and passes the turn on as PalaceLocalGame does after playCards(). Any selected
+	 * cards are deselected.
+	 *
+	 * @param playerID player who is playing the cards, whose turn it must be
+	 * @param cards    mask with bit 'id' set for the id of every card to play (see CardBitboard.java)
+	 *
+	 * @return true if the cards were played, false if the play was not legal
+	 */
+	public boolean playCardSet(int playerID, long[] cards)
+	{
+		int first = CardBitboard.next_card(cards, 0);
+		if (isChangingPalace || playerID != turn || first < 0)
+		{
+			return false;
+		}
+
+		//the cards must all be of one rank...
+		int groupSize = layout.get_group_size();
+		int group = first / groupSize;
+		long suits = CardBitboard.get_bits(cards, group * groupSize, groupSize);
+		if (Long.bitCount(suits) != CardBitboard.count_cards(cards))
+		{
+			return false;
+		}
+
+		//...in the hand, or in the upper palace once the hand is empty, and playable on the discard pile
+		Location zone = getPlayableZone(playerID);
+		if (zone.get_kind() == Location.LOWER_PALACE
+			|| !board.contains_all(zone, cards)
+			|| !LegalityTable.is_legal(getTopRank(), group + Rank.THREE_INT))
+		{
+			return false;
+		}
+
+		writeCards();
+		writeSelection();
+		clearSelected();
+		playMove(PalaceMove.play_cards(group, (int) suits), playerID);
+
+		//If this play bombed the discard pile, the player still has their turn
+		if (!discardPile.is_empty())
+		{
+			setTurn(getNextPlayer(playerID));
+		}
+		return true;
+	}//playCardSet
+
+	/**
+	 * finishPlay method:
+	 * Everything that happens after cards have been put on the discard pile: bombs the discard pile
+	 * if 4 of a kind are on top of it or a ten was played, refills the player's hand, and stops the
+	 * player from changing their palace from now on.
+	 *
+	 * @param playerID player who played the cards
+	 */
+	private void finishPlay(int playerID)
+	{
+		//bomb the discard pile if the top four cards are of the same rank OR if the top card is a ten
+		if (discardPile.are_next_four_equal()
+			|| discardPile.peek().get_card().get_rank() == Rank.TEN)
+		{
+			bombDiscardPile(playerID);
+		}
+
+		takeFromDrawPile(playerID);
+
+		if ((canChangePalace & (1 << playerID)) != 0)
+		{
+			canChangePalace &= ~(1 << playerID);
+			hash ^= ZobristKeys.can_change_palace(playerID);
+		}
+	}//finishPlay
+
+	/**
+	 * apply method:
+	 * Makes a move (see PalaceMove.java) for the player whose turn it is, with exactly the same
+	 * result as PalaceLocalGame.makeMove() gets from the matching action: the cards are played,
+	 * bombed and drawn as in playCards(), playLowerPalaceCard() and takeDiscardPile(), and the turn
+	 * passes on to the next player (see getNextPlayer()) by the same rules. Unlike those, it neither
+	 * reads nor changes the selected cards.
+	 * <p>
+	 * The move must be legal, nobody may be changing their palace, and no cards may be selected.
+	 * The record holds everything undo() needs except where the played cards came from, which this
+	 * state keeps on a stack of its own, as a play can be up to 16 cards in a multi-deck game. So the
+	 * move can only be undone by this same state object. Apart from that stack growing to the
+	 * deepest line searched, nothing is allocated, so a search can apply() and undo() millions of
+	 * moves on one state.
+	 *
+	 * @param move a move from PalaceMove.java
+	 * @return a record that undo() needs to take the move back
+	 */
+	public long apply(int move)
+	{
+		writeCards();
+		int player = turn;
+		int other = getNextPlayer(player);
+		Location hand = Location.hand(player);
+
+		long record = move
+				| ((long) (turn & 0x0F) << UNDO_TURN_SHIFT)
+				| ((discardPileWasBombed ? 1L : 0L) << UNDO_WAS_BOMBED_SHIFT)
+				| ((long) ((canChangePalace >> player) & 1) << UNDO_CAN_CHANGE_SHIFT);
+
+		switch (PalaceMove.get_type(move))
+		{
+			case PalaceMove.PLAY_CARDS:
+				record |= playForUndo(move, player, hand);
+
+				//If this move causes the deck to be bombed, the player still has their turn
+				if (!discardPile.is_empty())
+				{
+					setTurn(other);
+				}
+				break;
+
+			case PalaceMove.PLAY_LOWER_PALACE_CARD:
+				Pair p = pairsById[PalaceMove.get_card_id(move)];
+				Location lower = Location.lower_palace(player);
+				Location upper = Location.upper_palace(player);
+				if (isLegal(p))
+				{
+					record |= playForUndo(PalaceMove.play_card(p.get_card_id(), layout.get_group_size()), player, hand);
+				}
+				else if (p.get_location() == lower && index.size(hand) == 0 && index.size(upper) == 0)
+				{
+					record |= playForUndo(PalaceMove.play_card(p.get_card_id(), layout.get_group_size()), player, hand);
+					record |= (long) index.size(Location.DISCARD_PILE) << UNDO_TAKEN_SHIFT;
+					takeDiscardPile(player);
+				}
+
+				if (!(discardPile.is_empty() && index.size(hand) == 0))
+				{
+					setTurn(other);
+				}
+				break;
+
+			case PalaceMove.TAKE_DISCARD_PILE:
+				record |= (long) index.size(Location.DISCARD_PILE) << UNDO_TAKEN_SHIFT;
+				takeDiscardPile(player);
+				setTurn(other);
+				break;
+		}
+		return record;
+	}//apply
+
+	/**
+	 * playMove method:
+	 * Plays the cards of a PLAY_CARDS move the way playCards() does: onto the discard pile in
+	 * order of card id, then bombing it and refilling the player's hand as finishPlay() does. It
+	 * keeps nothing for undo(), so playCardSet() uses it for the real game, and apply() through
+	 * playForUndo(). The caller has called writeCards() and passes the turn on.
+	 *
+	 * @param move   a PLAY_CARDS move
+	 * @param player player who is playing the cards
+	 */
+	private void playMove(int move, int player)
+	{
+		int firstId = PalaceMove.get_rank_group(move) * layout.get_group_size();
+		int suits = PalaceMove.get_suit_mask(move);
+		if (events != null)
+		{
+			publish(GameEvent.CARDS_PLAYED, player, PalaceMove.get_card_mask(move, layout.get_group_size(), eventCards()));
+		}
+
+		for (int rest = suits; rest != 0; rest &= rest - 1)
+		{
+			Pair p = pairsById[firstId + Integer.numberOfTrailingZeros(rest)];
+			pushDiscardPile(p);
+			moveCard(p, Location.DISCARD_PILE);
+		}
+		finishPlay(player);
+	}//playMove
+
+	/**
+	 * playForUndo method:
+	 * Plays the cards of a PLAY_CARDS move with playMove(), and notes down everything undo() needs
+	 * to put them back: the positions the cards came from go on undoPositions, in the order they
+	 * are played, and everything else into the returned part of the record.
+	 *
+	 * @param move   a PLAY_CARDS move
+	 * @param player player who is playing the cards
+	 * @param hand   that player's hand
+	 * @return the part of the undo record describing the play
+	 */
+	private long playForUndo(int move, int player, Location hand)
+	{
+		int firstId = PalaceMove.get_rank_group(move) * layout.get_group_size();
+		int suits = PalaceMove.get_suit_mask(move);
+		int count = Integer.bitCount(suits);
+		long record = (1L << UNDO_PLAYED_SHIFT)
+				| ((long) pairsById[firstId + Integer.numberOfTrailingZeros(suits)].get_location().get_kind() << UNDO_SOURCE_SHIFT);
+
+		if (undoPositions == null)
+		{
+			undoPositions = new int[64];
+		}
+		else if (undoTop + count > undoPositions.length)
+		{
+			undoPositions = Arrays.copyOf(undoPositions, 2 * undoPositions.length);
+		}
+
+		//the cards all come from one location, and each one played moves the cards behind it
+		//forward, so a card's position when its turn comes is its position now, less the number of
+		//cards played before it from in front of it
+		int first = undoTop;
+		for (int rest = suits; rest != 0; rest &= rest - 1)
+		{
+			undoPositions[undoTop++] = index.get_position(firstId + Integer.numberOfTrailingZeros(rest));
+		}
+		for (int k = undoTop - 1; k > first; k--)
+		{
+			int position = undoPositions[k];
+			for (int j = first; j < k; j++)
+			{
+				if (undoPositions[j] < position)
+				{
+					undoPositions[k]--;
+				}
+			}
+		}
+
+		//the hand size once the cards have left it, so that what is drawn after that can be counted
+		int deadSize = index.size(Location.DEAD_PILE);
+		int handSize = index.size(hand) - ((((record >> UNDO_SOURCE_SHIFT) & 0x03) == Location.HAND) ? count : 0);
+		playMove(move, player);
+		record |= (long) (index.size(hand) - handSize) << UNDO_DRAWN_SHIFT;
+		record |= (long) (index.size(Location.DEAD_PILE) - deadSize) << UNDO_BOMBED_SHIFT;
+		return record;
+	}//playForUndo
+
+	/**
+	 * getUndoDepth method:
+	 * How many card positions apply() has noted down for undo() and not taken back yet. Only
+	 * searches apply() moves, so this stays 0 for the state a game is played on.
+	 *
+	 * @return the depth of the stack undo() takes the positions of played cards from
+	 */
+	public int getUndoDepth()
+	{
+		return undoTop;
+	}//getUndoDepth
+
+	/**
+	 * undo method:
+	 * Takes back the move that returned 'record' from apply(), restoring the exact state from
+	 * before it: the location and order of every card, the discard pile, the turn and the flags.
+	 * Moves have to be undone in the opposite order they were applied in.
+	 *
+	 * @param record a record returned by apply()
+	 */
+	public void undo(long record)
+	{
+		writeCards();
+		int move = (int) (record & UNDO_MOVE_MASK);
+		int player = (int) ((record >> UNDO_TURN_SHIFT) & 0x0F);
+		Location hand = Location.hand(player);
+
+		setTurn(player);
+
+		//the taken cards are at the end of the hand, in the order they were in the discard pile
+		int taken = (int) ((record >> UNDO_TAKEN_SHIFT) & UNDO_COUNT_MASK);
+		int start = index.size(hand) - taken;
+		for (int i = 0; i < taken; i++)
+		{
+			Pair p = pairsById[index.get(hand, start)];
+			pushDiscardPile(p);
+			moveCard(p, Location.DISCARD_PILE);
+		}
+
+		if (((record >> UNDO_PLAYED_SHIFT) & 1) == 0)
+		{
+			return;
+		}
+
+		//the drawn cards are now at the end of the hand; the last one drawn goes back first
+		int drawn = (int) ((record >> UNDO_DRAWN_SHIFT) & UNDO_COUNT_MASK);
+		for (int i = 0; i < drawn; i++)
+		{
+			int id = index.get(hand, index.size(hand) - 1);
+			moveCardTo(pairsById[id], Location.DRAW_PILE, 0);
+		}
+
+		//the bombed cards are at the end of the dead pile, in the order they were in the discard pile
+		int bombed = (int) ((record >> UNDO_BOMBED_SHIFT) & UNDO_COUNT_MASK);
+		start = index.size(Location.DEAD_PILE) - bombed;
+		for (int i = 0; i < bombed; i++)
+		{
+			Pair p = pairsById[index.get(Location.DEAD_PILE, start)];
+			pushDiscardPile(p);
+			moveCard(p, Location.DISCARD_PILE);
+		}
+
+		//the played cards are on top of the discard pile again; the last one played goes back first
+		int played = (PalaceMove.get_type(move) == PalaceMove.PLAY_CARDS)
+				? PalaceMove.get_card_count(move) : 1;
+		Location source = Location.of_seat(player, (int) ((record >> UNDO_SOURCE_SHIFT) & 0x03));
+		for (int i = 0; i < played; i++)
+		{
+			Pair p = popDiscardPile();
+			moveCardTo(p, source, undoPositions[--undoTop]);
+		}
+
+		discardPileWasBombed = ((record >> UNDO_WAS_BOMBED_SHIFT) & 1) != 0;
+		int couldChangePalace = (int) ((record >> UNDO_CAN_CHANGE_SHIFT) & 1);
+		if (((canChangePalace >> player) & 1) != couldChangePalace)
+		{
+			canChangePalace ^= 1 << player;
+			hash ^= ZobristKeys.can_change_palace(player);
+		}
+	}//undo
+
+	/**
+	 * setEventBus method:
+	 * Makes this state publish what happens in the game (see GameEvent.java) to the given bus. Its
+	 * snapshots and deep copies don't publish anything, nor hand out the bus.
+	 *
+	 * @param events the bus to publish to, or null to stop publishing
+	 */
+	public void setEventBus(GameEventBus events)
+	{
+		this.events = events;
+	}//setEventBus
+
+	/**
+	 * getEventBus method:
+	 *
+	 * @return the bus this state publishes to, or null if it doesn't publish
+	 */
+	public GameEventBus getEventBus()
+	{
+		return events;
+	}//getEventBus
+
+	/**
+	 * publish method:
+	 * Publishes an event to the event bus, if this state has one.
+	 *
+	 * @param type   one of the event types in GameEvent.java
+	 * @param player player the event happened to
+	 * @param cards  mask of the ids of the cards involved
+	 */
+	private void publish(int type, int player, long[] cards)
+	{
+		if (events != null)
+		{
+			events.publish(type, player, cards);
+		}
+	}//publish
+
+	/**
+	 * publishLocation method:
+	 * Publishes an event involving every card in a location to the event bus, if this state has one.
+	 *
+	 * @param type     one of the event types in GameEvent.java
+	 * @param player   player the event happened to
+	 * @param location location holding the cards involved
+	 */
+	private void publishLocation(int type, int player, Location location)
+	{
+		if (events != null)
+		{
+			events.publish(type, player, board.get_mask(location, eventCards()));
+		}
+	}//publishLocation
+
+	/**
+	 * eventCards method:
+	 *
+	 * @return the empty mask reused for the cards of the events this state publishes
+	 */
+	private long[] eventCards()
+	{
+		if (eventCards == null)
+		{
+			eventCards = new long[layout.get_mask_words()];
+		}
+		Arrays.fill(eventCards, 0L);
+		return eventCards;
+	}//eventCards
+
+	/**
+	 * takeFromDrawPile method:
+	 *
+	 * Moves cards from draw pile into the player's hand when 1) they have fewer cards than the layout
+	 * deals to a hand and 2) the draw pile is not empty
+	 * @param playerID the player whose hand is getting refilled
+	 */
+	private void takeFromDrawPile(int playerID)
+	{
+		if (!isPlayer(playerID)) {
+			return;
+		}
+		Location hand = Location.hand(playerID);
+
+		int drawPileSize = index.size(Location.DRAW_PILE);
+		int handSize = index.size(hand);
+
+		//the draw pile is kept in the order the deck was shuffled in, so its first card is the top;
+		//taking it off the front of the index's deque costs as much as appending it to the hand,
+		//so refilling a hand is linear in the number of cards drawn
+		long[] drawn = (events != null) ? eventCards() : null;
+		int drawnCount = 0;
+		while (handSize < layout.get_hand_size() && drawPileSize > 0) {
+			int id = index.first(Location.DRAW_PILE);
+			moveCard(pairsById[id], hand);
+			if (drawn != null) {
+				CardBitboard.add_card(drawn, id);
+			}
+			drawnCount++;
+			drawPileSize--;
+			handSize++;
+		}
+
+		if (drawnCount > 0) {
+			publish(GameEvent.HAND_REFILLED, playerID, drawn);
+		}
+
+	}
+
+
+	/**
+	 * changePalace method:
+	 * Places cards from player's upper palace to their hand.
+	 *
+	 * @param playerID player who called this method
+	 *
+	 * @return true if called by a valid player
+	 */
+	public boolean changePalace(int playerID)
+	{
+		if (!isPlayer(playerID) || !getCanChangePalace(playerID))
+		{
+			return false;
+		}
+		writeCards();
+		setIsChangingPalace(true);
+		moveAll(Location.upper_palace(playerID), Location.hand(playerID));
+		return true;
+	}//changePalace
+
+
+	/**
+	 * confirmPalace method:
+	 * places selected cards into the upper palace of the player with playerID
+	 *
+	 * @param playerID player who called this method
+	 *
+	 * @return true if called by a valid player and there are as many selected cards as fit in the
+	 *         upper palace
+	 */
+	public boolean confirmPalace(int playerID)
+	{
+		if (isPlayer(playerID)
+			&& CardBitboard.count_cards(selectedMask) == layout.get_upper_palace_size())
+		{
+			writeCards();
+			writeSelection();
+			Location hand = Location.hand(playerID);
+			for (Pair selected : selectedCards)
+			{
+				Pair p = ownPair(selected);
+				if (p.get_location() == hand && p.equals(selected))
+				{
+					moveCard(p, Location.upper_palace(playerID));
+				}
+			}
+			publish(GameEvent.PALACE_CONFIRMED, playerID, selectedMask);
+			clearSelected();
+			setIsChangingPalace(false);
+			return true;
+		}
+		return false;
+	}//confirmPalace
+
+	/**
+	 * takeDiscardPile method:
+	 * Reassigns location of cards in discard pile to the
+	 * player with the PlayerID passed as parameter. Any cards the player had selected are
+	 * deselected, as their turn is over.
+	 *
+	 * @param playerID player who called the method
+	 *
+	 * @return true if called by a valid player
+	 */
+	public boolean takeDiscardPile(int playerID)
+	{
+
+		if (!discardPile.is_empty() && isPlayer(playerID))
+		{
+			writeCards();
+			publishLocation(GameEvent.PILE_TAKEN, playerID, Location.DISCARD_PILE);
+			moveAll(Location.DISCARD_PILE, Location.hand(playerID));
+			clearDiscardPile();
+			if (!selectedCards.isEmpty())
+			{
+				writeSelection();
+				clearSelected();
+			}
+			return true;
+		}
+		return false;
+	}//takeDiscardPile
+
+
+	/**
+	 * dealTheDeck method:
+	 * Deals cards from DRAW_PILE to palaces and hands of players, going round the players in turn
+	 * order: first the hands, then the lower palaces, then the upper palaces, as many cards each as
+	 * the layout says
+	 */
+	public void dealTheDeck()
+	{
+		writeCards();
+		int hands = players * layout.get_hand_size();
+		int lowers = hands + players * layout.get_lower_palace_size();
+		int uppers = lowers + players * layout.get_upper_palace_size();
+
+		if (!testingP1Palace) {
+			for (int i = 0; i < uppers; i++) {
+				int seat = i % players;
+
+				if (i < hands) {
+					moveCard(the_deck.get(i), Location.hand(seat));
+				}
+				else if (i < lowers) {
+					moveCard(the_deck.get(i), Location.lower_palace(seat));
+				}
+				else {
+					moveCard(the_deck.get(i), Location.upper_palace(seat));
+				}
+			}
+		}
+
+		else {
+			int lower = layout.get_lower_palace_size();
+			for (int i = 0; i < the_deck.size(); i++) {
+
+				if (i < lower) {
+					moveCard(the_deck.get(i), Location.PLAYER_ONE_LOWER_PALACE);
+				}
+				else if (i < 2 * lower) {
+					moveCard(the_deck.get(i), Location.PLAYER_TWO_LOWER_PALACE);
+				}
+				else if (i < 2 * lower + layout.get_upper_palace_size()) {
+					moveCard(the_deck.get(i), Location.PLAYER_TWO_UPPER_PALACE);
+				}
+				else {
+					moveCard(the_deck.get(i), Location.PLAYER_TWO_HAND);
+				}
+			}
+		}
+
+	}//dealTheDeck
+
+	/**
+	 * isLegal method:
+	 * Checks if playing the selected card is legal according to the rules of Palace
+	 *
+	 * @param selectedCard the card that is selected
+	 *
+	 * @return true if the move is legal, else false
+	 */
+	public boolean isLegal(Pair selectedCard)
+	{
+		//a palace card can only be played once the cards in front of it are gone
+		int owner = selectedCard.get_location().get_seat();
+		if (owner >= 0 && selectedCard.get_location() != getPlayableZone(owner))
+		{
+			return false;
+		}
+		return LegalityTable.is_legal(getTopRank(), selectedCard.get_card().get_rank().get_int_value());
+	}//isLegal
+
+	/**
+	 * bombDiscardPile method:
+	 * Removes the discardPile from play by moving it to the dead pile.
+	 *
+	 * @param playerID player whose play bombed the discard pile
+	 */
+	private void bombDiscardPile(int playerID)
+	{
+		writeCards();
+		publishLocation(GameEvent.PILE_BOMBED, playerID, Location.DISCARD_PILE);
+		clearDiscardPile();
+		for (int i = 0; i < index.size(Location.DISCARD_PILE); i++)
+		{
+			Pair p = pairsById[index.get(Location.DISCARD_PILE, i)];
+			hash ^= ZobristKeys.location(p.get_card_id(), Location.DISCARD_PILE)
+					^ ZobristKeys.location(p.get_card_id(), Location.DEAD_PILE);
+			p.set_location(Location.DEAD_PILE);
+		}
+		board.move_all(Location.DISCARD_PILE, Location.DEAD_PILE);
+		index.move_all(Location.DISCARD_PILE, Location.DEAD_PILE);
+		discardPileWasBombed = true;
+	}//bombDiscardPile
+
+	/**
+	 * getTurn method:
+	 * gets the turn of the player
+	 * @return the turn of the user
+	 */
+	public int getTurn()
+	{
+		return turn;
+	}//getTurn
+
+	/**
+	 * getNextPlayer method:
+	 * Players take turns in the order of their seats, and the last player is followed by the first.
+	 *
+	 * @param playerID a player
+	 * @return the player whose turn comes after theirs
+	 */
+	public int getNextPlayer(int playerID)
+	{
+		int next = playerID + 1;
+		return (next == players) ? 0 : next;
+	}//getNextPlayer
+
+	/**
+	 * getPlayerCount method:
+	 *
+	 * @return the number of players at the table
+	 */
+	public int getPlayerCount()
+	{
+		return players;
+	}//getPlayerCount
+
+	/**
+	 * isPlayer method:
+	 *
+	 * @param playerID any number
+	 * @return true if a player with that ID is at the table
+	 */
+	private boolean isPlayer(int playerID)
+	{
+		return playerID >= 0 && playerID < players;
+	}//isPlayer
+
+	/**
+	 * setTurn method:
+	 * sets the turn
+	 * @param newTurn return whos turn it is
+	 */
+	public void setTurn(int newTurn)
+	{
+		hash ^= ZobristKeys.turn(turn) ^ ZobristKeys.turn(newTurn);
+		turn = newTurn;
+		version++;
+	}//setTurn
+
+	/**
+	 * isDrawPileEmpty method:
+	 * checks to see if the draw pile is empty
+	 *
+	 * @return true is the draw pile is empty
+	 */
+	public boolean isDrawPileEmpty()
+	{
+		return board.is_empty(Location.DRAW_PILE);
+	}//isDrawPileEmpty
+
+	/**
+	 * toString method:
+	 * Creates a String representation of the results of the Use Case methods.
+	 *
+	 * @return A string representation of the result of the Use Case methods.
+	 */
+	@Override
+	public String toString()
+	{
+		String gameStateString = "";
+
+		gameStateString += "Turn is: " + turn + "\n";
+
+		gameStateString += "Deck contains:\n";
+
+		for (Pair p : the_deck)
+		{
+			gameStateString += p.toString() + "\n";
+		}
+
+		gameStateString += "Discard pile contains:\n";
+
+		gameStateString += discardPile.toString();
+
+/*		for (Pair p : discardPile)
+		{
+			gameStateString += p.toString() + "\n";
+		}
+*/
+		gameStateString += "Selected cards contains:\n";
+
+		for (Pair p : selectedCards)
+		{
+			gameStateString += p.toString() + "\n";
+		}
+
+		return gameStateString;
+	}//toString
+
+	/**
+		* getIsChangingPalace method:
+		*
+		* @return truth value of instance variable: isChangingPalace
+	 */
+	public boolean getIsChangingPalace () {
+	 	return isChangingPalace;
+	}
+
+	/**
+	 * getCanChangePalace method:
+	 *
+	 * @param playerID a player
+	 * @return true if that player can still change their palace: they have not played a card yet
+	 */
+	public boolean getCanChangePalace(int playerID) {
+		return (canChangePalace & (1 << playerID)) != 0;
+	}
+
+	/**
+	 * getP1CanChangePalace method:
+	 *
+	 * @return whether player one can still change their palace (see getCanChangePalace())
+	 */
+	public boolean getP1CanChangePalace() {
+	 	return getCanChangePalace(0);
+	}
+
+	/**
+	 * getP2CanChangePalace method:
+	 *
+	 * @return whether player two can still change their palace (see getCanChangePalace())
+	 */
+	public boolean getP2CanChangePalace() {
+		return getCanChangePalace(1);
+	}
+
+	/**
+	 * getPlayerOneHandSize method:
+	 *
+	 * @return number of cards in player one's hand
+	 */
+	public int getPlayerOneHandSize()
+	{
+		return board.count(Location.PLAYER_ONE_HAND);
+	}
+
+	/**
+	 * getPlayerTwoHandSize method:
+	 *
+	 * @return number of cards in player two's hand
+	 */
+	public int getPlayerTwoHandSize()
+	{
+		return board.count(Location.PLAYER_TWO_HAND);
+	}
+
+	/**
+	 * getPlayerOneUpperPalaceSize method:
+	 *
+	 * @return number of cards in player one's upper palace
+	 */
+	public int getPlayerOneUpperPalaceSize()
+	{
+		return board.count(Location.PLAYER_ONE_UPPER_PALACE);
+	}
+
+	/**
+	 * getPlayerTwoUpperPalaceSize method:
+	 *
+	 * @return number of cards in player two's upper palace
+	 */
+	public int getPlayerTwoUpperPalaceSize()
+	{
+		return board.count(Location.PLAYER_TWO_UPPER_PALACE);
+	}
+
+	/**
+	 * getLocationSize method:
+	 *
+	 * @param location any location
+	 * @return number of cards in that location, which is 0 for the hands and palaces of seats
+	 *         nobody sits at
+	 */
+	public int getLocationSize(Location location)
+	{
+		if (location.ordinal() >= locationCount)
+		{
+			return 0;
+		}
+		return index.size(location);
+	}
+
+	/**
+	 * getLocationMask method:
+	 *
+	 * @param location any location
+	 * @param mask     array of at least getLayout().get_mask_words() longs to copy the mask into
+	 * @return 'mask', with bit 'id' set for every card id in that location (see CardBitboard.java)
+	 */
+	public long[] getLocationMask(Location location, long[] mask)
+	{
+		if (location.ordinal() >= locationCount)
+		{
+			Arrays.fill(mask, 0, board.get_words(), 0L);
+			return mask;
+		}
+		return board.get_mask(location, mask);
+	}
+
+	/**
+	 * getLocationWord method:
+	 *
+	 * @param location a location of this game (see DeckLayout.get_location_count())
+	 * @param word     which 64 card ids to look at: ids 64 * word to 64 * word + 63
+	 * @return those bits of the location's mask
+	 */
+	public long getLocationWord(Location location, int word)
+	{
+		return board.get_word(location, word);
+	}
+
+	/**
+	 * getLocationBits method:
+	 *
+	 * @param location a location of this game (see DeckLayout.get_location_count())
+	 * @param first    the first card id to look at
+	 * @param count    how many card ids to look at, at most 64
+	 * @return a mask with bit 'i' set if the card with id first + i is in that location, such as
+	 *         the cards of one rank when first is a multiple of getLayout().get_group_size()
+	 */
+	public long getLocationBits(Location location, int first, int count)
+	{
+		return board.get_bits(location, first, count);
+	}
+
+	/**
+	 * getLayout method:
+	 *
+	 * @return the decks this game is played with, by how many players, and how they were dealt
+	 *         (see DeckLayout.java)
+	 */
+	public DeckLayout getLayout()
+	{
+		return layout;
+	}
+
+	/**
+	 * getPlayableZone method:
+	 *
+	 * @param playerID a player
+	 * @return the location that player has to play from: their hand, or once that is empty their
+	 *         upper palace, or once that is empty too their lower palace
+	 */
+	public Location getPlayableZone(int playerID)
+	{
+		return playableZones[playerID];
+	}
+
+	/**
+	 * getTopRank method:
+	 *
+	 * @return the integer value of the rank on top of the discard pile, or
+	 *         LegalityTable.EMPTY_PILE if it is empty
+	 */
+	public int getTopRank()
+	{
+		Pair top = discardPile.peek();
+		return (top == null) ? LegalityTable.EMPTY_PILE : top.get_card().get_rank().get_int_value();
+	}
+
+	/**
+	 * getCardsAt method:
+	 *
+	 * Fills the given list with the cards in a location, in the order they arrived there (the draw
+	 * pile is in the order the cards will be drawn). Only the cards in that location are visited.
+	 *
+	 * @param location the location to look at
+	 * @param cards    list to fill; it is cleared first, so callers can reuse one list
+	 * @return the filled list
+	 */
+	public ArrayList<Pair> getCardsAt(Location location, ArrayList<Pair> cards)
+	{
+		cards.clear();
+		for (int i = 0; i < getLocationSize(location); i++)
+		{
+			cards.add(pairsById[index.get(location, i)]);
+		}
+		return cards;
+	}
+
+	/**
+	 * getPair method:
+	 *
+	 * @param cardId id of a card (see DeckLayout.java)
+	 * @return this state's Pair for that card
+	 */
+	public Pair getPair(int cardId)
+	{
+		return pairsById[cardId];
+	}
+
+	/**
+	 * peekDrawPile method:
+	 *
+	 * @return the card that will be drawn next, or null if the draw pile is empty
+	 */
+	public Pair peekDrawPile()
+	{
+		int id = index.first(Location.DRAW_PILE);
+		if (id < 0)
+		{
+			return null;
+		}
+		return pairsById[id];
+	}
+
+	/**
+	 * getCardIdAt method:
+	 *
+	 * @param location any location
+	 * @param i        position of a card within that location, in the order getCardsAt() lists them
+	 * @return the id of that card
+	 */
+	int getCardIdAt(Location location, int i)
+	{
+		return index.get(location, i);
+	}
+
+	/**
+	 * clearForDecode method:
+	 * Used by PalaceStateCodec to decode into this state. Takes every card out of every location
+	 * and empties the discard pile and the selected cards, so the codec can place them again.
+	 */
+	void clearForDecode()
+	{
+		writeCards();
+		writeSelection();
+		board.clear();
+		index.clear();
+		clearDiscardPile();
+		clearSelected();
+	}//clearForDecode
+
+	/**
+	 * placeDecodedCard method:
+	 * Used by PalaceStateCodec. Puts a card at the end of a location; cards placed in the discard
+	 * pile are pushed onto it as well, so they have to be placed in the order they were played.
+	 *
+	 * @param cardId   id of the card (see DeckLayout.java)
+	 * @param location where the card goes
+	 */
+	void placeDecodedCard(int cardId, Location location)
+	{
+		Pair p = pairsById[cardId];
+		moveCard(p, location);
+		if (location == Location.DISCARD_PILE)
+		{
+			pushDiscardPile(p);
+		}
+	}//placeDecodedCard
+
+	/**
+	 * setDecodedDeckOrder method:
+	 * Used by PalaceStateCodec. Puts a card at the given position of the_deck.
+	 *
+	 * @param i      position in the_deck
+	 * @param cardId id of the card (see DeckLayout.java)
+	 */
+	void setDecodedDeckOrder(int i, int cardId)
+	{
+		the_deck.set(i, pairsById[cardId]);
+	}//setDecodedDeckOrder
+
+	/**
+	 * selectDecodedCard method:
+	 * Used by PalaceStateCodec. Adds a card to the selected cards without checking if it is legal.
+	 *
+	 * @param cardId id of the card (see DeckLayout.java)
+	 */
+	void selectDecodedCard(int cardId)
+	{
+		addSelected(pairsById[cardId]);
+	}//selectDecodedCard
+
+	/**
+	 * setDecodedFlags method:
+	 * Used by PalaceStateCodec. Sets the turn and every palace/bomb flag at once. As it is the last
+	 * step of decoding, it also recomputes the hash and the per-player counts of the decoded position.
+	 *
+	 * @param canChange mask with bit 'seat' set for every player who can still change their palace
+	 */
+	void setDecodedFlags(int newTurn, boolean changingPalace, int canChange, boolean wasBombed)
+	{
+		turn = newTurn;
+		isChangingPalace = changingPalace;
+		canChangePalace = canChange & ((1 << players) - 1);
+		discardPileWasBombed = wasBombed;
+		hash = computeHash();
+		emptySeats = 0;
+		for (int seat = 0; seat < players; seat++)
+		{
+			cardsLeft[seat] = index.size(Location.hand(seat)) + index.size(Location.upper_palace(seat))
+					+ index.size(Location.lower_palace(seat));
+			if (cardsLeft[seat] == 0)
+			{
+				emptySeats |= 1 << seat;
+			}
+		}
+		refreshPlayableZones();
+		version++;
+	}//setDecodedFlags
+
+	/**
+	 * getWasBombed method:
+	 *
+	 * @return truth value of instance variable: discardPileWasBombed
+	 */
+	public boolean getWasBombed()
+	{
+		return discardPileWasBombed;
+	}
+
+	/**
+	 * setWasBombed method:
+	 *
+	 * Sets the truth value of instance variable: discardPileWasBombed. Setting it to the value it
+	 * already has is not a change, so it leaves the version alone (see getVersion()).
+	 * @param b the new boolean value for discardPileWasBombed
+	 */
+	public void setWasBombed(boolean b) {
+		if (discardPileWasBombed != b)
+		{
+			discardPileWasBombed = b;
+			version++;
+		}
+	}
+
+
+
+}//class PalaceGameState
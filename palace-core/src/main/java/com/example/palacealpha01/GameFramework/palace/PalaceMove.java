@@ -0,0 +1,154 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.util.Arrays;
+
+/**
+ * This class encodes the moves a player can make on their turn as plain ints, so that searching
+ * through a game does not have to create any action objects. It only holds static functions; see
+ * PalaceGameState.apply() for what each move does.
+ * <p>
+ * The lowest 2 bits of a move are its type. A PLAY_CARDS move then holds the rank group of the cards
+ * (see DeckLayout.java) in the next 4 bits, and a mask of which cards of that rank it plays (bit 'i'
+ * for the card with id rank group * group size + i) in the 16 bits after that. With a single deck the
+ * group size is 4, so this is a mask of their suits. A PLAY_LOWER_PALACE_CARD move holds the card id
+ * in the 8 bits after its type. Every move fits in MOVE_BITS bits.
+ */
+public final class PalaceMove
+{
+	public static final int PLAY_CARDS = 0;
+	public static final int PLAY_LOWER_PALACE_CARD = 1;
+	public static final int TAKE_DISCARD_PILE = 2;
+
+	private static final int TYPE_BITS = 2;
+	private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+	private static final int RANK_GROUP_MASK = 0x0F;
+	private static final int SUIT_MASK_SHIFT = TYPE_BITS + 4;
+	private static final int SUIT_MASK_MASK = (1 << DeckLayout.MAX_GROUP_SIZE) - 1;
+	private static final int CARD_ID_MASK = 0xFF;
+
+	public static final int MOVE_BITS = SUIT_MASK_SHIFT + DeckLayout.MAX_GROUP_SIZE;
+
+	private PalaceMove() {}
+
+	/**
+	 * This function returns the move that plays every card of one rank group whose bit is set in
+	 * 'suit_mask', in order of increasing card id.
+	 * @param rank_group
+	 * @param suit_mask
+	 * @return
+	 */
+	public static int play_cards(int rank_group, int suit_mask)
+	{
+		return PLAY_CARDS | (rank_group << TYPE_BITS) | (suit_mask << SUIT_MASK_SHIFT);
+	}//END: play_cards() function
+
+	/**
+	 * This function returns the move that plays the single card with the given id, in a game with
+	 * 'group_size' cards of each rank (see DeckLayout.get_group_size()).
+	 * @param id
+	 * @param group_size
+	 * @return
+	 */
+	public static int play_card(int id, int group_size)
+	{
+		return play_cards(id / group_size, 1 << (id % group_size));
+	}//END: play_card() function
+
+	/**
+	 * This function returns 'move' with the card with the given id added to it. The card must be
+	 * of the same rank as the cards already in 'move'.
+	 * @param move
+	 * @param id
+	 * @param group_size
+	 * @return
+	 */
+	public static int with_card(int move, int id, int group_size)
+	{
+		return move | (1 << ((id % group_size) + SUIT_MASK_SHIFT));
+	}//END: with_card() function
+
+	/**
+	 * This function returns the move that plays the given card from the lower palace without looking
+	 * at it first.
+	 * @param id
+	 * @return
+	 */
+	public static int play_lower_palace_card(int id)
+	{
+		return PLAY_LOWER_PALACE_CARD | (id << TYPE_BITS);
+	}//END: play_lower_palace_card() function
+
+	/**
+	 * This function returns the move that takes the discard pile.
+	 * @return
+	 */
+	public static int take_discard_pile()
+	{
+		return TAKE_DISCARD_PILE;
+	}//END: take_discard_pile() function
+
+	/**
+	 * @param move
+	 * @return
+	 */
+	public static int get_type(int move)
+	{
+		return move & TYPE_MASK;
+	}//END: get_type() function
+
+	/**
+	 * @param move a PLAY_CARDS move
+	 * @return
+	 */
+	public static int get_rank_group(int move)
+	{
+		return (move >> TYPE_BITS) & RANK_GROUP_MASK;
+	}//END: get_rank_group() function
+
+	/**
+	 * @param move a PLAY_CARDS move
+	 * @return the mask of the cards it plays within their rank group; with one deck, of their suits
+	 */
+	public static int get_suit_mask(int move)
+	{
+		return (move >> SUIT_MASK_SHIFT) & SUIT_MASK_MASK;
+	}//END: get_suit_mask() function
+
+	/**
+	 * @param move a PLAY_CARDS move
+	 * @return
+	 */
+	public static int get_card_count(int move)
+	{
+		return Integer.bitCount(get_suit_mask(move));
+	}//END: get_card_count() function
+
+	/**
+	 * This function writes the mask of every card id a PLAY_CARDS move plays (see CardBitboard.java)
+	 * into 'mask', which is cleared first, and returns it.
+	 * @param move       a PLAY_CARDS move
+	 * @param group_size DeckLayout.get_group_size() of the game
+	 * @param mask
+	 * @return
+	 */
+	public static long[] get_card_mask(int move, int group_size, long[] mask)
+	{
+		Arrays.fill(mask, 0L);
+		int first = get_rank_group(move) * group_size;
+		for (int suits = get_suit_mask(move); suits != 0; suits &= suits - 1)
+			CardBitboard.add_card(mask, first + Integer.numberOfTrailingZeros(suits));
+		return mask;
+	}//END: get_card_mask() function
+
+	/**
+	 * @param move a PLAY_LOWER_PALACE_CARD move
+	 * @return
+	 */
+	public static int get_card_id(int move)
+	{
+		return (move >> TYPE_BITS) & CARD_ID_MASK;
+	}//END: get_card_id() function
+}//END: PalaceMove class
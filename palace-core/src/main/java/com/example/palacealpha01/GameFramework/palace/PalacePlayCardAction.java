@@ -1,7 +1,6 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalacePlayCardAction extends GameAction implements Serializable
+public class PalacePlayCardAction extends PalaceAction implements Serializable
 {
 	/**
 	 * constructor for GameAction
@@ -20,7 +19,7 @@ public class PalacePlayCardAction extends GameAction implements Serializable
 	 */
 	public PalacePlayCardAction(GamePlayer player)
 	{
-		super(player);
+		super(player, PLAY_CARDS);
 
 	}//PalacePlayCardAction
 
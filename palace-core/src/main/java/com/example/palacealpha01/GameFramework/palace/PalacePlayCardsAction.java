@@ -0,0 +1,39 @@
+package com.example.palacealpha01.GameFramework.palace;
+
+import com.example.palacealpha01.GameFramework.GamePlayer;
+
+import java.io.Serializable;
+
+/**
+ * An Action in which the player plays a set of cards of the same rank in one go, without
+ * selecting them one by one first
+ *
+ * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
+ * @version November 2019
+ */
+public class PalacePlayCardsAction extends PalaceAction implements Serializable
+{
+	private long[] cards;
+
+	/**
+	 * constructor for GameAction
+	 *
+	 * @param player the player who created the action
+	 * @param cards  a mask with bit 'id' set for the id of every card to play (see CardBitboard.java)
+	 */
+	public PalacePlayCardsAction(GamePlayer player, long[] cards)
+	{
+		super(player, PLAY_CARD_SET);
+		this.cards = cards;
+	}//PalacePlayCardsAction
+
+	/**
+	 * getCards method:
+	 *
+	 * @return a mask with bit 'id' set for the id of every card to play
+	 */
+	public long[] getCards()
+	{
+		return cards;
+	}//getCards
+}//class PalacePlayCardsAction
@@ -1,7 +1,6 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalacePlayLowerPalaceCardAction extends GameAction implements Serializable
+public class PalacePlayLowerPalaceCardAction extends PalaceAction implements Serializable
 {
 
     private Pair userSelectedCard;
@@ -22,11 +21,21 @@ public class PalacePlayLowerPalaceCardAction extends GameAction implements Seria
      */
     public PalacePlayLowerPalaceCardAction(GamePlayer player, Pair userSelectedCard)
     {
-        super(player);
+        super(player, PLAY_LOWER_PALACE_CARD);
         this.userSelectedCard = userSelectedCard;
     }//PalacePlayLowerPalaceCardAction
 
     public Pair getUserSelectedCard() {
         return userSelectedCard;
     }
+
+    /**
+     * getCardId method:
+     * gets the id of the card that the user selected (see DeckLayout.java)
+     * @return the card's id
+     */
+    public int getCardId()
+    {
+        return userSelectedCard.get_card_id();
+    }//getCardId
 }//class PalacePlayLowerPalaceCardAction
\ No newline at end of file
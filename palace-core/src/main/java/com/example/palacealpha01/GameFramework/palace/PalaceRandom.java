@@ -0,0 +1,178 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is the random number generator of the game: the shuffle in PalaceGameState.java and
+ * the choices the computer players make all draw from one. It is the xoshiro256** generator,
+ * seeded through SplitMix64, so that:
+ * <pre>
+ *     - a game, or a benchmark, seeded with the same number plays out exactly the same way again
+ *     - every player and every search thread can own a generator of its own (see split()),
+ *       instead of all of them contending on the one behind Math.random()
+ * </pre>
+ * A generator is not thread safe; give each thread its own with split().
+ */
+public final class PalaceRandom implements Serializable
+{
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	// seeds the generators made without one, so that no two of them start out alike
+	private static final AtomicLong SEEDER = new AtomicLong(mix(System.nanoTime() ^ System.currentTimeMillis()));
+
+	private long s0;
+	private long s1;
+	private long s2;
+	private long s3;
+
+	/**
+	 * Default constructor for PalaceRandom.java
+	 * Seeds the generator differently every time, for games that need not be reproduced.
+	 */
+	public PalaceRandom()
+	{
+		this(SEEDER.getAndAdd(GOLDEN_GAMMA) ^ System.nanoTime());
+	}//END: PalaceRandom() constructor
+
+	/**
+	 * Constructor for PalaceRandom.java
+	 * Two generators with the same seed produce the same numbers.
+	 * @param seed
+	 */
+	public PalaceRandom(long seed)
+	{
+		// xoshiro's state must not be all zeros, which SplitMix64 never outputs four times in a row
+		this.s0 = mix(seed += GOLDEN_GAMMA);
+		this.s1 = mix(seed += GOLDEN_GAMMA);
+		this.s2 = mix(seed += GOLDEN_GAMMA);
+		this.s3 = mix(seed + GOLDEN_GAMMA);
+	}//END: PalaceRandom() constructor
+
+	/**
+	 * Copy constructor for PalaceRandom.java
+	 * The copy produces the same numbers as the original from now on.
+	 * @param that
+	 */
+	public PalaceRandom(PalaceRandom that)
+	{
+		this.s0 = that.s0;
+		this.s1 = that.s1;
+		this.s2 = that.s2;
+		this.s3 = that.s3;
+	}//END: PalaceRandom() copy constructor
+
+	/**
+	 * Returns a new generator, seeded from this one, whose numbers are independent of this one's. A
+	 * generator split off from a seeded one is just as reproducible.
+	 * @return
+	 */
+	public PalaceRandom split()
+	{
+		return new PalaceRandom(next_long());
+	}//END: split() method
+
+	/**
+	 * Returns the next 64 random bits
+	 * @return
+	 */
+	public long next_long()
+	{
+		long result = Long.rotateLeft(this.s1 * 5, 7) * 9;
+		long t = this.s1 << 17;
+		this.s2 ^= this.s0;
+		this.s3 ^= this.s1;
+		this.s1 ^= this.s2;
+		this.s0 ^= this.s3;
+		this.s2 ^= t;
+		this.s3 = Long.rotateLeft(this.s3, 45);
+		return result;
+	}//END: next_long() method
+
+	/**
+	 * Returns a random int from 0 to bound - 1, every one of them equally likely
+	 * @param bound
+	 * @return
+	 */
+	public int next_int(int bound)
+	{
+		if (bound <= 0)
+			throw new IllegalArgumentException("bound must be positive, not " + bound);
+
+		// Lemire's multiply-and-reject: the high half of a 32 x 32 bit product is the result, and the
+		// few low halves that would make some results likelier than others are drawn again
+		long product = (next_long() >>> 32) * bound;
+		if ((product & 0xFFFFFFFFL) < bound)
+		{
+			long threshold = (0x100000000L - bound) % bound;
+			while ((product & 0xFFFFFFFFL) < threshold)
+				product = (next_long() >>> 32) * bound;
+		}
+		return (int) (product >>> 32);
+	}//END: next_int() method
+
+	/**
+	 * Returns a random double from 0 (inclusive) to 1 (exclusive), like Math.random()
+	 * @return
+	 */
+	public double next_double()
+	{
+		return (next_long() >>> 11) * DOUBLE_UNIT;
+	}//END: next_double() method
+
+	/**
+	 * Returns true with probability 1/2
+	 * @return
+	 */
+	public boolean next_boolean()
+	{
+		return next_long() < 0;
+	}//END: next_boolean() method
+
+	/**
+	 * Shuffles 'list' in place, every order equally likely (Fisher-Yates), like Collections.shuffle()
+	 * @param list
+	 */
+	public <T> void shuffle(List<T> list)
+	{
+		for (int i = list.size() - 1; i > 0; i--)
+		{
+			int j = next_int(i + 1);
+			list.set(j, list.set(i, list.get(j)));
+		}
+	}//END: shuffle() method
+
+	/**
+	 * Shuffles the first 'length' elements of 'array' in place, every order equally likely
+	 * @param array
+	 * @param length
+	 */
+	public void shuffle(int[] array, int length)
+	{
+		for (int i = length - 1; i > 0; i--)
+		{
+			int j = next_int(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}//END: shuffle() method
+
+	/**
+	 * This function is the finalizer of the SplitMix64 generator; it turns consecutive seeds into
+	 * well-mixed 64-bit numbers.
+	 * @param z
+	 * @return
+	 */
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}//END: mix() function
+}//END: PalaceRandom class
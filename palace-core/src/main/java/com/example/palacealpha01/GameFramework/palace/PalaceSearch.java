@@ -0,0 +1,75 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This interface is what ParallelSearch.java needs of a search to run several copies of it at once,
+ * one per core, and merge what they found: a search from the position of the player whose turn it
+ * is, within a budget, that can then tell how often it tried each of that player's moves.
+ * InformationSetSearch.java is one.
+ * <p>
+ * A search object is only ever used by one thread at a time, and only reads the state it is given,
+ * so several of them can search the same state at once.
+ */
+public interface PalaceSearch
+{
+	/**
+	 * Makes the search objects of one kind, each drawing from its own generator.
+	 */
+	interface Factory
+	{
+		/**
+		 * Returns a new search object whose random choices come from 'random'
+		 * @param random
+		 * @return
+		 */
+		PalaceSearch create(PalaceRandom random);
+	}//END: Factory interface
+
+	/**
+	 * Searches from 'state', without changing it, until 'time_nanos' nanoseconds have passed or
+	 * 'max_iterations' iterations have been run, whichever comes first. A budget of 0 or less is no
+	 * limit, but not both of them can be.
+	 * @param state
+	 * @param time_nanos
+	 * @param max_iterations
+	 */
+	void run(PalaceGameState state, long time_nanos, int max_iterations);
+
+	/**
+	 * Writes every move of the player whose turn it is in 'state' that the last run() tried (see
+	 * PalaceMove.java) into 'moves', and how many times it tried it into 'visits', and returns how
+	 * many there are. 'state' must be the one run() searched. Both arrays need room for
+	 * MoveGenerator.MAX_MOVES.
+	 * @param state
+	 * @param moves
+	 * @param visits
+	 * @return
+	 */
+	int get_root_moves(PalaceGameState state, int[] moves, int[] visits);
+
+	/**
+	 * Makes the next runs guess the hidden cards with 'belief' (see BeliefState.determinize())
+	 * whenever it is the belief of the player searching, so that the cards that player knows stay
+	 * where they are, or with PalaceGameState.determinize() if it is null. The search only reads it.
+	 * @param belief
+	 */
+	void set_belief(BeliefState belief);
+
+	/**
+	 * Makes the next runs share what they find with every other search given the same 'table' (see
+	 * TranspositionTable.java), or keep it to themselves if it is null. Starting a new search of the
+	 * table, once per move, is up to whoever hands it out, as ParallelSearch.java does. Searches
+	 * that share a table on several threads no longer make the same choices again from the same
+	 * seed, as what they find depends on which of them gets there first.
+	 * @param table
+	 */
+	void set_table(TranspositionTable table);
+
+	/**
+	 * Returns how many iterations the last run() ran
+	 * @return
+	 */
+	int get_iterations();
+}//END: PalaceSearch interface
@@ -1,7 +1,6 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Andres Giesemann, Fredrik Olsson, Meredith Marcinko, Maximilian Puglielli
  * @version November 2019
  */
-public class PalaceSelectPalaceCardAction extends GameAction implements Serializable
+public class PalaceSelectPalaceCardAction extends PalaceAction implements Serializable
 {
 	private Pair userSelectedCard;
 
@@ -22,7 +21,7 @@ public class PalaceSelectPalaceCardAction extends GameAction implements Serializ
 	 */
 	public PalaceSelectPalaceCardAction(GamePlayer player, Pair userSelectedCard)
 	{
-		super(player);
+		super(player, SELECT_PALACE_CARD);
 		this.userSelectedCard = userSelectedCard;
 	}//PalaceSelectPalaceCardAction
 
@@ -35,4 +34,14 @@ public class PalaceSelectPalaceCardAction extends GameAction implements Serializ
 	{
 		return userSelectedCard;
 	}//getUserSelectedCard
+
+	/**
+	 * getCardId method:
+	 * gets the id of the card that the user selected (see DeckLayout.java)
+	 * @return the card's id
+	 */
+	public int getCardId()
+	{
+		return userSelectedCard.get_card_id();
+	}//getCardId
 }//class PalaceSelectPalaceCardAction
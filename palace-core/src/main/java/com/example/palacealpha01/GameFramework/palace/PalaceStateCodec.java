@@ -0,0 +1,199 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class packs a PalaceGameState.java object into a few hundred bytes, and unpacks it again,
+ * without allocating anything. It is meant for storing large numbers of positions (for analysis,
+ * or for the AIs to cache), where Java serialization of the_deck's Pair and Card objects would
+ * cost kilobytes per state.
+ * <p>
+ * An encoded state is laid out as follows, where card ids are the ones defined in DeckLayout.java and
+ * N is the number of cards in the game (52 per deck):
+ * <pre>
+ *     1 byte     FORMAT
+ *     1 byte     turn in the low 4 bits, the changing palace and bomb flags in the high 4 bits
+ *     1 byte     the number of decks in the low 4 bits, the number of players in the high 4 bits
+ *     1 byte     bit 'seat' set for every player who can still change their palace
+ *     N/2 bytes  the Location of every card, 4 bits per card id (even ids in the low half), for games
+ *                of up to four players; with more, their Locations don't fit 4 bits, so N bytes
+ *     N bytes    every card id, Location by Location, in the order each Location lists them
+ *                (so the draw pile is in drawing order, and the discard pile in playing order)
+ *     N bytes    every card id, in the order of the_deck
+ *     1 byte     the number of selected cards, followed by their ids
+ * </pre>
+ * A state can only be decoded into a state with the same number of decks and players (see
+ * DeckLayout.java).
+ */
+public final class PalaceStateCodec
+{
+	public static final byte FORMAT = 3;
+	public static final int MAX_ENCODED_SIZE = encoded_size(DeckLayout.MAX_CARDS, DeckLayout.MAX_PLAYERS);
+
+	private static final Location[] LOCATIONS = Location.values();
+
+	private static final int TURN_MASK               = 0x0F;
+	private static final int IS_CHANGING_PALACE      = 1 << 4;
+	private static final int DISCARD_PILE_WAS_BOMBED = 1 << 7;
+
+	private static final int TABLE_OFFSET       = 2;
+	private static final int CAN_CHANGE_OFFSET  = 3;
+	private static final int LOCATIONS_OFFSET   = 4;
+	private static final int MAX_NIBBLE_PLAYERS = 4; // 9 + 3 * 2 = 15 Locations still fit 4 bits
+
+	private PalaceStateCodec() {}
+
+	/**
+	 * This function returns the most bytes a state of a game with 'card_count' cards and up to four
+	 * players encodes to.
+	 * @param card_count
+	 * @return
+	 */
+	public static int encoded_size(int card_count)
+	{
+		return encoded_size(card_count, MAX_NIBBLE_PLAYERS);
+	}//END: encoded_size() function
+
+	/**
+	 * This function returns the most bytes a state of a game with 'card_count' cards and 'players'
+	 * players encodes to. At most one rank group, or one upper palace, can be selected at once.
+	 * @param card_count
+	 * @param players
+	 * @return
+	 */
+	public static int encoded_size(int card_count, int players)
+	{
+		return LOCATIONS_OFFSET + location_bytes(card_count, players) + card_count + card_count + 1
+			   + Math.max(DeckLayout.MAX_GROUP_SIZE, DeckLayout.MAX_ZONE_SIZE);
+	}//END: encoded_size() function
+
+	/**
+	 * This function writes 'state' to 'buffer', starting at its current position, and advances the
+	 * position past the encoded state. 'buffer' needs MAX_ENCODED_SIZE bytes remaining at most.
+	 * @param state
+	 * @param buffer
+	 */
+	public static void encode(PalaceGameState state, ByteBuffer buffer)
+	{
+		buffer.put(FORMAT);
+
+		DeckLayout layout = state.getLayout();
+		int flags = state.getTurn() & TURN_MASK;
+		if (state.getIsChangingPalace())
+			flags |= IS_CHANGING_PALACE;
+		if (state.getWasBombed())
+			flags |= DISCARD_PILE_WAS_BOMBED;
+		buffer.put((byte) flags);
+		buffer.put((byte) (layout.get_decks() | (layout.get_players() << 4)));
+
+		int can_change = 0;
+		for (int seat = 0; seat < layout.get_players(); seat++)
+			if (state.getCanChangePalace(seat))
+				can_change |= 1 << seat;
+		buffer.put((byte) can_change);
+
+		int card_count = layout.get_card_count();
+		if (layout.get_players() <= MAX_NIBBLE_PLAYERS)
+			for (int id = 0; id < card_count; id += 2)
+				buffer.put((byte) (location_code(state, id) | (location_code(state, id + 1) << 4)));
+		else
+			for (int id = 0; id < card_count; id++)
+				buffer.put((byte) location_code(state, id));
+
+		for (int l = 0; l < layout.get_location_count(); l++)
+			for (int i = 0; i < state.getLocationSize(LOCATIONS[l]); i++)
+				buffer.put((byte) state.getCardIdAt(LOCATIONS[l], i));
+
+		for (int i = 0; i < card_count; i++)
+			buffer.put((byte) state.the_deck.get(i).get_card_id());
+
+		buffer.put((byte) state.getSelectedCards().size());
+		for (int i = 0; i < state.getSelectedCards().size(); i++)
+			buffer.put((byte) state.getSelectedCards().get(i).get_card_id());
+	}//END: encode() function
+
+	/**
+	 * This function reads a state written by encode() from 'buffer', starting at its current
+	 * position, into 'state', and advances the position past it. Every card, flag and selected card
+	 * of 'state' is replaced, so it ends up equal to a deep copy of the state that was encoded.
+	 * Nothing is allocated, unless 'state' still shares its cards with a snapshot.
+	 * @param buffer
+	 * @param state
+	 */
+	public static void decode(ByteBuffer buffer, PalaceGameState state)
+	{
+		int start = buffer.position();
+		if (buffer.get(start) != FORMAT)
+			throw new IllegalArgumentException("Unknown PalaceStateCodec format: " + buffer.get(start));
+
+		DeckLayout layout = state.getLayout();
+		int flags = buffer.get(start + 1) & 0xFF;
+		int decks = buffer.get(start + TABLE_OFFSET) & 0x0F;
+		int players = (buffer.get(start + TABLE_OFFSET) >> 4) & 0x0F;
+		if (decks != layout.get_decks())
+			throw new IllegalArgumentException("Cannot decode a " + decks + " deck state into a " + layout.get_decks() + " deck state");
+		if (players != layout.get_players())
+			throw new IllegalArgumentException("Cannot decode a " + players + " player state into a " + layout.get_players() + " player state");
+
+		int card_count = layout.get_card_count();
+		boolean nibbles = players <= MAX_NIBBLE_PLAYERS;
+		int order_offset = start + LOCATIONS_OFFSET + location_bytes(card_count, players);
+		int deck_offset = order_offset + card_count;
+		int selected_offset = deck_offset + card_count;
+
+		state.clearForDecode();
+		for (int i = 0; i < card_count; i++)
+		{
+			int id = buffer.get(order_offset + i) & 0xFF;
+			int code;
+			if (nibbles)
+			{
+				int packed = buffer.get(start + LOCATIONS_OFFSET + (id >> 1));
+				code = ((id & 1) == 0) ? (packed & 0x0F) : ((packed >> 4) & 0x0F);
+			}
+			else
+				code = buffer.get(start + LOCATIONS_OFFSET + id);
+			state.placeDecodedCard(id, LOCATIONS[code]);
+		}
+
+		for (int i = 0; i < card_count; i++)
+			state.setDecodedDeckOrder(i, buffer.get(deck_offset + i) & 0xFF);
+
+		int selected = buffer.get(selected_offset);
+		for (int i = 0; i < selected; i++)
+			state.selectDecodedCard(buffer.get(selected_offset + 1 + i) & 0xFF);
+
+		state.setDecodedFlags(flags & TURN_MASK,
+							  (flags & IS_CHANGING_PALACE) != 0,
+							  buffer.get(start + CAN_CHANGE_OFFSET) & 0xFF,
+							  (flags & DISCARD_PILE_WAS_BOMBED) != 0);
+
+		buffer.position(selected_offset + 1 + selected);
+	}//END: decode() function
+
+	/**
+	 * This function returns the number of bytes the Locations of 'card_count' cards take in a game
+	 * of 'players' players.
+	 * @param card_count
+	 * @param players
+	 * @return
+	 */
+	private static int location_bytes(int card_count, int players)
+	{
+		return (players <= MAX_NIBBLE_PLAYERS) ? (card_count / 2) : card_count;
+	}//END: location_bytes() function
+
+	/**
+	 * This function returns the code of a card's Location in 'state': its ordinal.
+	 * @param state
+	 * @param id
+	 * @return
+	 */
+	private static int location_code(PalaceGameState state, int id)
+	{
+		return state.getPair(id).get_location().ordinal();
+	}//END: location_code() function
+}//END: PalaceStateCodec class
@@ -1,11 +1,10 @@
 package com.example.palacealpha01.GameFramework.palace;
 
 import com.example.palacealpha01.GameFramework.GamePlayer;
-import com.example.palacealpha01.GameFramework.actionMessage.GameAction;
 
 import java.io.Serializable;
 
-public class PalaceTakeDiscardPileAction extends GameAction implements Serializable
+public class PalaceTakeDiscardPileAction extends PalaceAction implements Serializable
 {
 	/**
 	 * constructor for GameAction
@@ -14,7 +13,7 @@ public class PalaceTakeDiscardPileAction extends GameAction implements Serializa
 	 */
 	public PalaceTakeDiscardPileAction(GamePlayer player)
 	{
-		super(player);
+		super(player, TAKE_DISCARD_PILE);
 	}//PalaceTakeDiscardPileAction
 }//class PalaceTakeDiscardPileAction
 
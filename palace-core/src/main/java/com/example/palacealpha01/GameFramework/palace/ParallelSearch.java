@@ -0,0 +1,237 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This class runs a search (see PalaceSearch.java) on several cores at once, by root
+ * parallelization: every worker searches the same position with a tree of its own and a generator
+ * of its own (split off the one given), so they never wait on each other, and once they are all out
+ * of time their trees are merged at the root, by adding up how often each of them tried each move.
+ * The move tried most often over all of them is the one to make. With ISMCTS (see
+ * InformationSetSearch.java) that is also a wider sample of guesses at the hidden cards than one
+ * tree would get.
+ * <p>
+ * Every ParallelSearch runs on the same pool of threads, one per core, so computer players do not
+ * start threads of their own, and while nobody searches, the pool has nothing to do. A time budget
+ * is given to every worker in full; an iteration budget is shared out between them.
+ * <p>
+ * The workers can also share one TranspositionTable.java (see set_table()), so that what one of
+ * them finds about a position steers the others while they search, rather than only once they
+ * are done.
+ * <p>
+ * A ParallelSearch is itself a PalaceSearch, but it is not thread safe: only one search at a time.
+ */
+public final class ParallelSearch implements PalaceSearch
+{
+	private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	private final PalaceSearch[] workers;
+	private final ForkJoinTask<?>[] tasks;
+	private TranspositionTable table; // the table every worker shares, or null
+
+	private int[] worker_moves;   // the root moves of one worker
+	private int[] worker_visits;  // and how often it tried each
+	private int[] moves;          // the root moves of every worker together
+	private int[] visits;         // and how often they tried each, all added up
+	private int move_count;
+
+	private int iterations;
+	private long elapsed_nanos;
+
+	/**
+	 * Default constructor for ParallelSearch.java
+	 * Makes 'worker_count' workers with 'factory', each with a generator split off 'random'.
+	 * @param factory
+	 * @param worker_count
+	 * @param random
+	 */
+	public ParallelSearch(PalaceSearch.Factory factory, int worker_count, PalaceRandom random)
+	{
+		if (worker_count <= 0)
+			throw new IllegalArgumentException("a search needs at least one worker, not " + worker_count);
+
+		this.workers = new PalaceSearch[worker_count];
+		for (int w = 0; w < worker_count; w++)
+			this.workers[w] = factory.create(random.split());
+		this.tasks = new ForkJoinTask<?>[worker_count];
+		this.worker_moves = new int[MoveGenerator.MAX_MOVES];
+		this.worker_visits = new int[MoveGenerator.MAX_MOVES];
+		this.moves = new int[MoveGenerator.MAX_MOVES];
+		this.visits = new int[MoveGenerator.MAX_MOVES];
+	}//END: ParallelSearch() constructor
+
+	/**
+	 * This function returns how many threads the shared pool runs searches on: one per core.
+	 * @return
+	 */
+	public static int get_core_count()
+	{
+		return POOL.getParallelism();
+	}//END: get_core_count() function
+
+	/**
+	 * Returns how many workers this search has
+	 * @return
+	 */
+	public int get_worker_count()
+	{
+		return this.workers.length;
+	}//END: get_worker_count() method
+
+	/**
+	 * Searches for the best move of the player whose turn it is in 'state', which is not changed
+	 * (see run()), and returns the one the workers tried most often altogether.
+	 * @param state
+	 * @param time_nanos
+	 * @param max_iterations
+	 * @return the move, as in PalaceMove.java
+	 */
+	public int search(PalaceGameState state, long time_nanos, int max_iterations)
+	{
+		run(state, time_nanos, max_iterations);
+		int best = 0;
+		for (int i = 1; i < this.move_count; i++)
+			if (this.visits[i] > this.visits[best])
+				best = i;
+		return this.moves[best];
+	}//END: search() method
+
+	/**
+	 * Runs every worker on 'state' at once, each until 'time_nanos' nanoseconds have passed, or
+	 * until they have run 'max_iterations' iterations between them, and waits for all of them to
+	 * finish before merging their trees. With an iteration budget smaller than the number of
+	 * workers, only that many of them search.
+	 * @param state
+	 * @param time_nanos
+	 * @param max_iterations
+	 */
+	@Override
+	public void run(final PalaceGameState state, final long time_nanos, int max_iterations)
+	{
+		if (time_nanos <= 0 && max_iterations <= 0)
+			throw new IllegalArgumentException("the search needs a time or an iteration budget");
+
+		long start = System.nanoTime();
+		if (this.table != null)
+			this.table.new_search();
+		int active = (max_iterations > 0) ? Math.min(this.workers.length, max_iterations) : this.workers.length;
+		for (int w = 0; w < active; w++)
+		{
+			final PalaceSearch worker = this.workers[w];
+			final int budget = (max_iterations <= 0) ? 0
+							   : (max_iterations / active) + ((w < max_iterations % active) ? 1 : 0);
+			this.tasks[w] = POOL.submit(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					worker.run(state, time_nanos, budget);
+				}
+			});
+		}
+
+		this.iterations = 0;
+		this.move_count = 0;
+		for (int w = 0; w < active; w++)
+		{
+			this.tasks[w].join();
+			this.tasks[w] = null;
+			this.iterations += this.workers[w].get_iterations();
+			merge(this.workers[w].get_root_moves(state, this.worker_moves, this.worker_visits));
+		}
+		this.elapsed_nanos = System.nanoTime() - start;
+	}//END: run() method
+
+	/**
+	 * Writes the root moves of every worker's tree, and how often the workers tried each of them
+	 * altogether (see PalaceSearch.get_root_moves())
+	 * @param state
+	 * @param moves
+	 * @param visits
+	 * @return
+	 */
+	@Override
+	public int get_root_moves(PalaceGameState state, int[] moves, int[] visits)
+	{
+		System.arraycopy(this.moves, 0, moves, 0, this.move_count);
+		System.arraycopy(this.visits, 0, visits, 0, this.move_count);
+		return this.move_count;
+	}//END: get_root_moves() method
+
+	/**
+	 * Hands 'belief' to every worker (see PalaceSearch.set_belief()); they all read it at once
+	 * @param belief
+	 */
+	@Override
+	public void set_belief(BeliefState belief)
+	{
+		for (PalaceSearch worker : this.workers)
+			worker.set_belief(belief);
+	}//END: set_belief() method
+
+	/**
+	 * Hands 'table' to every worker (see PalaceSearch.set_table()), and starts a new search of it
+	 * at every run()
+	 * @param table
+	 */
+	@Override
+	public void set_table(TranspositionTable table)
+	{
+		this.table = table;
+		for (PalaceSearch worker : this.workers)
+			worker.set_table(table);
+	}//END: set_table() method
+
+	/**
+	 * Returns how many iterations the workers ran altogether in the last run()
+	 * @return
+	 */
+	@Override
+	public int get_iterations()
+	{
+		return this.iterations;
+	}//END: get_iterations() method
+
+	/**
+	 * Returns how long the last run() took, in nanoseconds
+	 * @return
+	 */
+	public long get_elapsed_nanos()
+	{
+		return this.elapsed_nanos;
+	}//END: get_elapsed_nanos() method
+
+	/**
+	 * Returns how many iterations per second the workers ran altogether in the last run()
+	 * @return
+	 */
+	public double get_iterations_per_second()
+	{
+		return (this.elapsed_nanos == 0) ? 0.0 : (this.iterations * 1e9) / this.elapsed_nanos;
+	}//END: get_iterations_per_second() method
+
+	/**
+	 * Adds the first 'count' moves in worker_moves, and how often one worker tried them, to the
+	 * merged root
+	 * @param count
+	 */
+	private void merge(int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			int m = 0;
+			while (m < this.move_count && this.moves[m] != this.worker_moves[i])
+				m++;
+			if (m == this.move_count)
+			{
+				this.moves[this.move_count] = this.worker_moves[i];
+				this.visits[this.move_count++] = 0;
+			}
+			this.visits[m] += this.worker_visits[i];
+		}
+	}//END: merge() method
+}//END: ParallelSearch class
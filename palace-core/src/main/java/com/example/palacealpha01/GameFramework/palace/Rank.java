@@ -3,8 +3,6 @@
  */
 package com.example.palacealpha01.GameFramework.palace;
 
-import android.util.Log;
-
 import java.io.Serializable;
 
 /**
@@ -92,7 +90,6 @@ public enum Rank implements Serializable
 			case TEN_INT:   return TEN;
 
 			default:
-				Log.d("Rank.java", "int_to_rank()");
 				return null;
 		}
 	}//END: int_to_rank() function
@@ -0,0 +1,240 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * @author Maximilian
+ * <p>
+ * This class is a Stack data structure, with some extra methods specifically designed for our needs.
+ * We plan to use this for the discard pile, because the discard pile is most easily represented as
+ * as stack.
+ * <p>
+ * The Stack is backed by a growable array, with the bottom of the stack at index 0. Alongside each
+ * Pair object, it stores the length of the run of same-Rank cards ending at that Pair, so that
+ * are_next_four_equal() and size() never have to walk the stack, and nothing in this class is
+ * recursive, however long the discard pile gets.
+ */
+public class Stack implements Serializable
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Pair[] data;      // data[0] is the bottom of the Stack, data[size - 1] is the top
+	private int[] run_length; // run_length[i] is the number of same-Rank Pairs ending at data[i]
+	private int size;
+
+	/**
+	 * Default constructor for the Stack.java class
+	 */
+	public Stack()
+	{
+		this.data = new Pair[INITIAL_CAPACITY];
+		this.run_length = new int[INITIAL_CAPACITY];
+		this.size = 0;
+	}//END: Stack() default constructor
+
+	/**
+	 * This is an alternative constructor for Stack.java, which allows initial nodes from an array of
+	 * Pair objects, to be pushed to the new stack immediately on construction.
+	 * @param initial_nodes
+	 * @param in_order
+	 */
+	public Stack(Pair[] initial_nodes, boolean in_order)
+	{
+		this();
+		if (in_order)
+			for (Pair p : initial_nodes)
+				this.push(p);
+		else
+			for (int i = initial_nodes.length - 1; i >= 0; i--)
+				this.push(initial_nodes[i]);
+	}//END: Stack() constructor
+
+	/**
+	 * This is an alternative constructor for Stack.java, which allows initial nodes from an ArrayList
+	 * of Pair objects, to be pushed to the new stack immediately on construction.
+	 * @param initial_nodes
+	 * @param in_order
+	 */
+	public Stack(ArrayList<Pair> initial_nodes, boolean in_order)
+	{
+		this();
+		if (in_order)
+			for (Pair p : initial_nodes)
+				this.push(p);
+		else
+			for (int i = initial_nodes.size() - 1; i >= 0; i--)
+				this.push(initial_nodes.get(i));
+	}//END: Stack() constructor
+
+	/**
+	 * Copy constructor for the Stack.java class
+	 * The Pair objects themselves are shared with 'that', just like before.
+	 * @param that
+	 */
+	public Stack(Stack that)
+	{
+		int capacity = Math.max(INITIAL_CAPACITY, that.size);
+		this.data = new Pair[capacity];
+		this.run_length = new int[capacity];
+		System.arraycopy(that.data, 0, this.data, 0, that.size);
+		System.arraycopy(that.run_length, 0, this.run_length, 0, that.size);
+		this.size = that.size;
+	}//END: Stack() copy constructor
+
+	/**
+	 * Pushes a Pair object to the stack
+	 * @param data
+	 */
+	public void push(Pair data)
+	{
+		if (this.size == this.data.length)
+		{
+			this.data = Arrays.copyOf(this.data, this.size * 2);
+			this.run_length = Arrays.copyOf(this.run_length, this.size * 2);
+		}
+
+		if (this.size > 0 &&
+			this.data[this.size - 1].get_card().get_rank() == data.get_card().get_rank())
+			this.run_length[this.size] = this.run_length[this.size - 1] + 1;
+		else
+			this.run_length[this.size] = 1;
+
+		this.data[this.size++] = data;
+	}//END: push() method
+
+	/**
+	 * Pops a Pair object from the stack
+	 * @return
+	 */
+	public Pair pop()
+	{
+		if (this.size == 0)
+			return null;
+		Pair rtn = this.data[--this.size];
+		this.data[this.size] = null;
+		return rtn;
+	}//END: pop() method
+
+	/**
+	 * Peeks a Pair object from the stack
+	 * @return
+	 */
+	public Pair peek()
+	{
+		if (this.size == 0)
+			return null;
+		return this.data[this.size - 1];
+	}//END: peek() method
+
+	/**
+	 * Returns the i'th Pair object from the bottom of the stack (0 is the bottom)
+	 * @param i
+	 * @return
+	 */
+	public Pair get(int i)
+	{
+		return this.data[i];
+	}//END: get() method
+
+	/**
+	 * Returns the number of Pairs at the top of the Stack that share the top Pair's Rank enum
+	 * @return
+	 */
+	public int top_run_length()
+	{
+		if (this.size == 0)
+			return 0;
+		return this.run_length[this.size - 1];
+	}//END: top_run_length() method
+
+	/**
+	 * Returns true iff the top four Pairs on the Stack have the same Rank enums
+	 * @return
+	 */
+	public boolean are_next_four_equal()
+	{
+		final int FOUR = 4;
+		return this.top_run_length() >= FOUR;
+	}//END: are_next_four_equal() method
+
+	/**
+	 * Returns true iff the Stack is empty
+	 * @return
+	 */
+	public boolean is_empty()
+	{
+		return (this.size == 0);
+	}//END: is_empty() method
+
+	/**
+	 * Empties the Stack
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.data, 0, this.size, null);
+		this.size = 0;
+	}//END: clear() method
+
+	/**
+	 * Lists every Pair object in the Stack, from top to bottom, one per line.
+	 * @return
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder();
+		for (int i = this.size - 1; i >= 0; i--)
+			s.append(this.data[i].toString()).append("\n");
+		return s.toString();
+	}
+
+	/**
+	 * Two Stacks are equal iff they have the same number of Pairs, and each Pair is equal to the
+	 * Pair at the same height in the other Stack.
+	 * @param obj
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (! (obj instanceof Stack))
+			return false;
+
+		Stack that = (Stack) obj;
+		if (this.size != that.size)
+			return false;
+
+		for (int i = 0; i < this.size; i++)
+			if (! this.data[i].equals(that.data[i]))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	@Override
+	public int hashCode()
+	{
+		int hash = 1;
+		for (int i = 0; i < this.size; i++)
+			hash = 31 * hash + this.data[i].hashCode();
+		return hash;
+	}
+
+	/**
+	 * Returns the number of nodes in the Stack
+	 * @return
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+}//END: Stack class
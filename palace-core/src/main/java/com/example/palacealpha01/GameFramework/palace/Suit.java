@@ -3,8 +3,6 @@
  */
 package com.example.palacealpha01.GameFramework.palace;
 
-import android.util.Log;
-
 import java.io.Serializable;
 
 /**
@@ -65,7 +63,6 @@ public enum Suit implements Serializable
 			case HEARTS_INT:    return HEARTS;
 
 			default:
-				Log.d("Suit.java", "int_to_suit()");
 				return null;
 		}
 	}//END: int_to_suit() function
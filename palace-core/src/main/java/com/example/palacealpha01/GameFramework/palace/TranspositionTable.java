@@ -0,0 +1,148 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+import java.util.Arrays;
+
+/**
+ * This class is a fixed-size transposition table keyed by a 64 bit position hash, such as
+ * PalaceGameState.getHash(), which any number of searches can share, across moves and across threads,
+ * without locks. Whatever a search wants to keep about a position (a value and a bound, visits and
+ * wins, a best move, ...) it packs into DATA_BITS bits of data itself; the table only adds how deep
+ * the search below the position was, and which search() call it came from.
+ * <p>
+ * Entries are two longs in one long[], in buckets of BUCKET_SIZE: the hash XOR the entry's word, and
+ * the word (depth in bits 0-7, age in bits 8-15, data above). A reader only takes an entry if the
+ * two still match its hash, so an entry that another thread was halfway through writing, or whose
+ * longs were torn on a 32 bit JVM, reads as a miss rather than as another position's data. Storing a
+ * position overwrites its entry, else takes a free slot, else replaces the entry of the bucket left by
+ * the oldest search, the shallowest first.
+ * <p>
+ * EndgameSolver.java keeps its solved positions in one (its own, unless it is handed one), and
+ * InformationSetSearch.java the visits and wins of its nodes (see PalaceSearch.set_table()), which
+ * is how the workers of a ParallelSearch.java share what they find while they search. Their keys
+ * are made differently, so one table can serve both.
+ */
+public final class TranspositionTable
+{
+	public static final int BUCKET_SIZE = 4;
+	public static final int DATA_BITS = 48;
+	public static final long DATA_MASK = (1L << DATA_BITS) - 1;
+	public static final int MAX_DEPTH = 0xFF;
+
+	private static final int DEPTH_MASK = 0xFF;
+	private static final int AGE_SHIFT = 8;
+	private static final int AGE_MASK = 0xFF;
+	private static final int DATA_SHIFT = 16;
+
+	private final long[] slots;       // per entry: the hash XOR the word, then the word; a word of 0 is a free slot
+	private final int bucket_mask;
+	private volatile int age;         // 1 to AGE_MASK, so that no stored word is 0
+
+	/**
+	 * Default constructor for TranspositionTable.java
+	 * @param bits the table holds 2^bits entries, at 16 bytes each
+	 */
+	public TranspositionTable(int bits)
+	{
+		if (bits < 2 || bits > 28)
+			throw new IllegalArgumentException("bits must be between 2 and 28");
+		this.slots = new long[2 << bits];
+		this.bucket_mask = (1 << bits) / BUCKET_SIZE - 1;
+		this.age = 1;
+	}//END: TranspositionTable() constructor
+
+	/**
+	 * Starts a new search, such as the one for the next move: the entries stored until now are the
+	 * first to be replaced from then on, but can still be found
+	 */
+	public void new_search()
+	{
+		this.age = (this.age % AGE_MASK) + 1;
+	}//END: new_search() method
+
+	/**
+	 * Returns the data stored for 'hash', or -1 if there is none
+	 * @param hash
+	 * @return
+	 */
+	public long probe(long hash)
+	{
+		int first = bucket(hash);
+		for (int i = first; i < first + 2 * BUCKET_SIZE; i += 2)
+		{
+			long word = this.slots[i + 1];
+			if (word != 0L && (this.slots[i] ^ word) == hash)
+				return word >>> DATA_SHIFT;
+		}
+		return -1L;
+	}//END: probe() method
+
+	/**
+	 * Stores 'data' (of at most DATA_BITS bits) for 'hash', found by a search 'depth' moves deep
+	 * (capped at MAX_DEPTH); deeper entries are kept over shallower ones when the bucket is full.
+	 * @param hash
+	 * @param depth
+	 * @param data
+	 */
+	public void store(long hash, int depth, long data)
+	{
+		int current = this.age;
+		int first = bucket(hash);
+		int target = first;
+		int target_score = Integer.MAX_VALUE;
+		for (int i = first; i < first + 2 * BUCKET_SIZE; i += 2)
+		{
+			long word = this.slots[i + 1];
+			if (word == 0L || (this.slots[i] ^ word) == hash)
+			{
+				target = i;
+				break;
+			}
+			// entries of older searches go first, then the shallowest
+			int score = (int) (word & DEPTH_MASK);
+			if (((word >>> AGE_SHIFT) & AGE_MASK) != current)
+				score -= MAX_DEPTH + 1;
+			if (score < target_score)
+			{
+				target = i;
+				target_score = score;
+			}
+		}
+
+		long word = Math.min(Math.max(depth, 0), MAX_DEPTH) | ((long) current << AGE_SHIFT)
+					| ((data & DATA_MASK) << DATA_SHIFT);
+		this.slots[target + 1] = word;
+		this.slots[target] = hash ^ word;
+	}//END: store() method
+
+	/**
+	 * Empties the table. Not to be called while another thread is using it.
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.slots, 0L);
+		this.age = 1;
+	}//END: clear() method
+
+	/**
+	 * Returns how many entries the table holds
+	 * @return
+	 */
+	public int get_capacity()
+	{
+		return this.slots.length / 2;
+	}//END: get_capacity() method
+
+	/**
+	 * Returns the index in slots of the first entry of the bucket 'hash' goes in
+	 * @param hash
+	 * @return
+	 */
+	private int bucket(long hash)
+	{
+		// the low bits pick the bucket, and the hash is checked in full on top of them
+		return ((int) hash & this.bucket_mask) * 2 * BUCKET_SIZE;
+	}//END: bucket() method
+}//END: TranspositionTable class
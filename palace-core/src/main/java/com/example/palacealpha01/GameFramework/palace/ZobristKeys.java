@@ -0,0 +1,107 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.GameFramework.palace;
+
+/**
+ * This class holds the random 64-bit keys PalaceGameState.java combines into its Zobrist hash. A
+ * position's hash is the XOR of the key of every (card id, Location) pair, the key of every
+ * (height, card id) pair in the discard pile, the key of the turn, and the key of every palace flag
+ * that is set: whether a palace is being changed, and which seats can still change theirs. Because XOR is its own inverse, moving a card only costs two XORs.
+ * <p>
+ * The keys come from a fixed seed, so the same position always has the same hash, even across runs.
+ * There are keys for up to DeckLayout.MAX_CARDS card ids (see DeckLayout.java). The discard pile
+ * keys, one for every (height, card id) pair, are not stored but computed when needed, as a table of
+ * them would take a third of a megabyte for the largest games.
+ */
+public final class ZobristKeys
+{
+	private static final int MAX_CARDS = DeckLayout.MAX_CARDS;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final int LOCATION_COUNT = Location.values().length;
+	private static final int TURN_COUNT = 16;
+	private static final long SEED = 0x50414C414345L; // "PALACE"
+
+	private static final long[] LOCATION = new long[MAX_CARDS * LOCATION_COUNT];
+	private static final long DISCARD_SEED = SEED + (LOCATION.length * GOLDEN_GAMMA);
+	private static final long[] TURN = new long[TURN_COUNT];
+	private static final long[] CAN_CHANGE_PALACE = new long[Location.MAX_SEATS];
+
+	public static final long IS_CHANGING_PALACE;
+	public static final long P1_CAN_CHANGE_PALACE;
+	public static final long P2_CAN_CHANGE_PALACE;
+
+	static
+	{
+		long state = SEED;
+		for (int i = 0; i < LOCATION.length; i++)
+			LOCATION[i] = split_mix(state += GOLDEN_GAMMA);
+		state += (long) MAX_CARDS * MAX_CARDS * GOLDEN_GAMMA; // the seeds discard() uses
+		for (int i = 0; i < TURN.length; i++)
+			TURN[i] = split_mix(state += GOLDEN_GAMMA);
+		IS_CHANGING_PALACE = split_mix(state += GOLDEN_GAMMA);
+		for (int i = 0; i < CAN_CHANGE_PALACE.length; i++)
+			CAN_CHANGE_PALACE[i] = split_mix(state += GOLDEN_GAMMA);
+		P1_CAN_CHANGE_PALACE = CAN_CHANGE_PALACE[0];
+		P2_CAN_CHANGE_PALACE = CAN_CHANGE_PALACE[1];
+	}
+
+	private ZobristKeys() {}
+
+	/**
+	 * This function returns the key for the card with the given id being in the given Location.
+	 * @param id
+	 * @param location
+	 * @return
+	 */
+	public static long location(int id, Location location)
+	{
+		return LOCATION[id * LOCATION_COUNT + location.ordinal()];
+	}//END: location() function
+
+	/**
+	 * This function returns the key for the card with the given id being at the given height in the
+	 * discard pile (0 is the bottom).
+	 * @param height
+	 * @param id
+	 * @return
+	 */
+	public static long discard(int height, int id)
+	{
+		return split_mix(DISCARD_SEED + (((height * MAX_CARDS) + id + 1) * GOLDEN_GAMMA));
+	}//END: discard() function
+
+	/**
+	 * This function returns the key for it being the given player's turn.
+	 * @param turn
+	 * @return
+	 */
+	public static long turn(int turn)
+	{
+		return TURN[turn & (TURN_COUNT - 1)];
+	}//END: turn() function
+
+	/**
+	 * This function returns the key for the given seat still being allowed to change its palace.
+	 * P1_CAN_CHANGE_PALACE and P2_CAN_CHANGE_PALACE are the keys of seats 0 and 1.
+	 * @param seat
+	 * @return
+	 */
+	public static long can_change_palace(int seat)
+	{
+		return CAN_CHANGE_PALACE[seat];
+	}//END: can_change_palace() function
+
+	/**
+	 * This function is the finalizer of the SplitMix64 generator; it turns consecutive seeds into
+	 * well-mixed 64-bit keys.
+	 * @param z
+	 * @return
+	 */
+	private static long split_mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}//END: split_mix() function
+}//END: ZobristKeys class
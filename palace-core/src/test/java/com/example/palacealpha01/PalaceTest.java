@@ -214,6 +214,50 @@ public class PalaceTest
         assertEquals(temp.get_location(), Location.PLAYER_TWO_HAND);
     }//takeDiscardPileTest
 
+    /**
+     * Checks that taking the discard pile with cards still selected deselects them, so the next
+     * player doesn't start their turn with someone else's selection
+     */
+    @Test
+    public void takeDiscardPileClearsSelectionTest()
+    {
+        //deal until the first card played stays on the pile and another card can be selected on it
+        PalaceGameState pgs = null;
+        Pair selected = null;
+        for (int game = 0; game < 100 && selected == null; game++)
+        {
+            pgs = new PalaceGameState();
+            for (Pair p : pgs.the_deck)
+            {
+                if (p.get_location() == Location.PLAYER_ONE_HAND)
+                {
+                    pgs.selectCards(0, p);
+                    break;
+                }
+            }
+            pgs.playCards(0);
+            if (pgs.discardPile.size() == 0)
+            {
+                continue;
+            }
+
+            for (Pair p : pgs.the_deck)
+            {
+                if (p.get_location() == Location.PLAYER_ONE_HAND && pgs.selectCards(0, p))
+                {
+                    selected = p;
+                    break;
+                }
+            }
+        }
+        assertTrue(selected != null);
+        assertEquals(1, pgs.getSelectedCards().size());
+
+        assertTrue(pgs.takeDiscardPile(0));
+        assertEquals(0, pgs.getSelectedCards().size());
+        assertEquals(false, pgs.isSelected(selected));
+    }//takeDiscardPileClearsSelectionTest
+
     /**
      * Tests to see if the deck dealt the right amount of cards
      * to each location, including players' hands and the players' upper palace
@@ -277,4 +321,61 @@ public class PalaceTest
             }
         }
     }//playLowerPalaceCardTest
+    /**
+     * Checks that a snapshot is not affected by later moves on the original state, and that
+     * the original is not affected by changes made to the snapshot.
+     */
+    @Test
+    public void snapshotTest()
+    {
+        PalaceGameState pgs = new PalaceGameState();
+        PalaceGameState snapshot = pgs.snapshot();
+        String before = snapshot.toString();
+        assertEquals(pgs.toString(), before);
+
+        for (Pair p : pgs.the_deck)
+        {
+            if (p.get_location() == Location.PLAYER_ONE_HAND)
+            {
+                pgs.selectCards(0, p);
+                break;
+            }
+        }
+        assertEquals(before, snapshot.toString());
+        assertEquals(0, snapshot.getSelectedCards().size());
+
+        pgs.playCards(0);
+        pgs.setTurn(1);
+        assertEquals(before, snapshot.toString());
+        assertEquals(0, snapshot.discardPile.size());
+        assertEquals(5, snapshot.getPlayerOneHandSize());
+        assertNotEquals(pgs.toString(), snapshot.toString());
+
+        String after = pgs.toString();
+        snapshot.changePalace(1);
+        assertEquals(after, pgs.toString());
+        assertEquals(3, pgs.getPlayerTwoUpperPalaceSize());
+    }//snapshotTest
+
+    /**
+     * Checks that clearing the bombed flag before every action only counts as a change when the
+     * flag was set, so the state isn't snapshotted again for nothing.
+     */
+    @Test
+    public void setWasBombedTest()
+    {
+        PalaceGameState pgs = new PalaceGameState();
+        int version = pgs.getVersion();
+        pgs.setWasBombed(false);
+        assertEquals(version, pgs.getVersion());
+
+        pgs.setWasBombed(true);
+        assertNotEquals(version, pgs.getVersion());
+        version = pgs.getVersion();
+        pgs.setWasBombed(true);
+        assertEquals(version, pgs.getVersion());
+        pgs.setWasBombed(false);
+        assertNotEquals(version, pgs.getVersion());
+        assertEquals(false, pgs.getWasBombed());
+    }//setWasBombedTest
 }//PalaceTest
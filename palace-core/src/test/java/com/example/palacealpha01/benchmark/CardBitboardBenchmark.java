@@ -0,0 +1,83 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+
+/**
+ * Compares the rule queries PalaceGameState answers from its CardBitboard against the linear walks
+ * of the_deck they replaced. Run main() from the IDE; it is not a unit test.
+ */
+public class CardBitboardBenchmark
+{
+	private static final int WARMUP_ROUNDS = 200_000;
+	private static final int ROUNDS = 2_000_000;
+
+	public static void main(String[] args)
+	{
+		PalaceGameState pgs = new PalaceGameState();
+
+		// warm both paths up so the JIT has compiled them before we time anything
+		long sink = scanQueries(pgs, WARMUP_ROUNDS) + boardQueries(pgs, WARMUP_ROUNDS);
+
+		long start = System.nanoTime();
+		sink += scanQueries(pgs, ROUNDS);
+		long scanNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		sink += boardQueries(pgs, ROUNDS);
+		long boardNanos = System.nanoTime() - start;
+
+		System.out.println("the_deck scans: " + (scanNanos / ROUNDS) + " ns per round");
+		System.out.println("CardBitboard:   " + (boardNanos / ROUNDS) + " ns per round");
+		System.out.println("speed-up:       " + ((double) scanNanos / boardNanos) + "x");
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	/**
+	 * One round is the five size queries isLegal and takeFromDrawPile rely on, done the old way.
+	 */
+	private static long scanQueries(PalaceGameState pgs, int rounds)
+	{
+		long sink = 0;
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += scan(pgs, Location.PLAYER_ONE_HAND);
+			sink += scan(pgs, Location.PLAYER_TWO_HAND);
+			sink += scan(pgs, Location.PLAYER_ONE_UPPER_PALACE);
+			sink += scan(pgs, Location.PLAYER_TWO_UPPER_PALACE);
+			sink += scan(pgs, Location.DRAW_PILE) == 0 ? 1 : 0;
+		}
+		return sink;
+	}
+
+	/**
+	 * The same round, answered by PalaceGameState's board.
+	 */
+	private static long boardQueries(PalaceGameState pgs, int rounds)
+	{
+		long sink = 0;
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += pgs.getPlayerOneHandSize();
+			sink += pgs.getPlayerTwoHandSize();
+			sink += pgs.getPlayerOneUpperPalaceSize();
+			sink += pgs.getPlayerTwoUpperPalaceSize();
+			sink += pgs.isDrawPileEmpty() ? 1 : 0;
+		}
+		return sink;
+	}
+
+	private static int scan(PalaceGameState pgs, Location location)
+	{
+		int counter = 0;
+		for (Pair p : pgs.the_deck)
+		{
+			if (p.get_location() == location)
+			{
+				counter++;
+			}
+		}
+		return counter;
+	}
+}//class CardBitboardBenchmark
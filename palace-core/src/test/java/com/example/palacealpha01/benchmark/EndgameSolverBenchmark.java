@@ -0,0 +1,114 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.EndgameSolver;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+
+/**
+ * Measures EndgameSolver.java within the SmartAI's 50 ms per move: how often it solves a move, how
+ * often it solves every guess to the end (from the first move of an endgame, or at all), how long
+ * that takes, and how many more endgames a greedy player (one that plays its lowest cards, like
+ * the SmartAI) wins when it asks the solver first. Every seeded endgame is played twice from the
+ * same position, with and without the solver. Run main() from the IDE; it is not a unit test.
+ */
+public class EndgameSolverBenchmark
+{
+	private static final long BUDGET_NANOS = 50_000_000L;
+	private static final int GAMES = 100;
+	private static final int MAX_TURNS = 1_000;
+
+	public static void main(String[] args)
+	{
+		PalaceRandom rand = new PalaceRandom(23);
+		EndgameSolver solver = new EndgameSolver(rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		long[] stats = new long[6];
+		int solver_wins = 0;
+		int greedy_wins = 0;
+
+		for (int game = 0; game < GAMES; game++)
+		{
+			PalaceGameState pgs = endgame(rand, moves);
+			int seat = game % 2;
+			long seed = rand.next_long();
+			if (play(new PalaceGameState(pgs), solver, seat, new PalaceRandom(seed), moves, stats) == seat)
+				solver_wins++;
+			if (play(new PalaceGameState(pgs), null, seat, new PalaceRandom(seed), moves, stats) == seat)
+				greedy_wins++;
+		}
+
+		System.out.println("with the solver: " + solver_wins + " of " + GAMES + " endgames won, greedy alone: "
+				+ greedy_wins);
+		System.out.println("moves solved: " + stats[1] + " of " + stats[0] + ", "
+				+ (stats[2] / Math.max(stats[0], 1) / 1_000) + " us on average, "
+				+ (stats[3] / 1_000) + " us at most");
+		System.out.println("moves solved to the end: " + stats[4] + " of " + stats[0] + ", endgames solved to the end from "
+				+ "their first move: " + stats[5] + " of " + GAMES);
+	}
+
+	/**
+	 * Plays 'pgs' to the end, and returns the winner. The player in 'seat' asks 'solver' (unless it
+	 * is null) for every move first; every other move is greedy. stats[] gets the number of solves,
+	 * of moves solved, the total and the longest time taken, the number of solves that were complete
+	 * (see EndgameSolver.is_complete()), and whether the first one was.
+	 */
+	private static int play(PalaceGameState pgs, EndgameSolver solver, int seat, PalaceRandom rand,
+							int[] moves, long[] stats)
+	{
+		boolean first = true;
+		for (int turn = 0; turn < MAX_TURNS && pgs.getWinner() < 0; turn++)
+		{
+			int move = -1;
+			if (solver != null && pgs.getTurn() == seat)
+			{
+				long start = System.nanoTime();
+				move = solver.solve(pgs, BUDGET_NANOS);
+				long nanos = System.nanoTime() - start;
+				stats[0]++;
+				stats[1] += (move >= 0) ? 1 : 0;
+				stats[2] += nanos;
+				stats[3] = Math.max(stats[3], nanos);
+				stats[4] += solver.is_complete() ? 1 : 0;
+				stats[5] += (first && solver.is_complete()) ? 1 : 0;
+				first = false;
+			}
+			if (move < 0)
+				move = greedy(pgs, moves, rand);
+			pgs.apply(move);
+		}
+		return pgs.getWinner();
+	}
+
+	/**
+	 * Returns a seeded two player game, played greedily until the draw pile has run out.
+	 */
+	private static PalaceGameState endgame(PalaceRandom rand, int[] moves)
+	{
+		while (true)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+			for (int turn = 0; turn < MAX_TURNS && pgs.getWinner() < 0 && ! pgs.isDrawPileEmpty(); turn++)
+				pgs.apply(greedy(pgs, moves, rand));
+			if (pgs.getWinner() < 0 && pgs.isDrawPileEmpty())
+				return pgs;
+		}
+	}
+
+	/**
+	 * Returns the SmartAI's kind of move: the most cards of the lowest legal rank, any lower palace
+	 * card, or taking the discard pile if nothing else is legal.
+	 */
+	private static int greedy(PalaceGameState pgs, int[] moves, PalaceRandom rand)
+	{
+		int count = MoveGenerator.generate(pgs, moves);
+		int plays = count;
+		if (PalaceMove.get_type(moves[count - 1]) == PalaceMove.TAKE_DISCARD_PILE)
+			plays--;
+		if (plays == 0 || PalaceMove.get_type(moves[0]) == PalaceMove.PLAY_CARDS)
+			return moves[0];
+		return moves[rand.next_int(plays)];
+	}
+}//class EndgameSolverBenchmark
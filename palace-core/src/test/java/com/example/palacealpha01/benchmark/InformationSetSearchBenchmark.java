@@ -0,0 +1,59 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.InformationSetSearch;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+
+/**
+ * Measures how many iterations per second InformationSetSearch.java runs, from positions early and
+ * late in seeded random games at tables of two to DeckLayout.MAX_PLAYERS players, to tell how long
+ * the ISMCTS player needs to think on a given machine. Run main() from the IDE; it is not a unit
+ * test.
+ */
+public class InformationSetSearchBenchmark
+{
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+	private static final long NANOS_PER_SEARCH = 1_000_000_000L;
+	private static final int[] MOVES_BEFORE = {0, 40, 80};
+
+	public static void main(String[] args)
+	{
+		long sink = 0;
+		// warm up first, so the JIT has seen the search before we time anything
+		sink += search(DeckLayout.with_players(2), 40, WARMUP_NANOS, null);
+
+		for (int players = 2; players <= DeckLayout.MAX_PLAYERS; players += 2)
+		{
+			DeckLayout layout = DeckLayout.with_players(players);
+			for (int moves : MOVES_BEFORE)
+			{
+				InformationSetSearch[] searched = new InformationSetSearch[1];
+				sink += search(layout, moves, NANOS_PER_SEARCH, searched);
+				System.out.println(players + " players, " + moves + " moves in: "
+						+ Math.round(searched[0].get_iterations_per_second()) + " iterations/second");
+			}
+		}
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	/**
+	 * Plays 'moves' seeded random moves from a seeded deal, then searches the position for
+	 * 'nanos' nanoseconds, and puts the search into searched[0] (unless it is null).
+	 */
+	private static long search(DeckLayout layout, int moves, long nanos, InformationSetSearch[] searched)
+	{
+		PalaceRandom rand = new PalaceRandom(21);
+		PalaceGameState pgs = new PalaceGameState(layout, rand.split());
+		int[] list = new int[MoveGenerator.MAX_MOVES];
+		for (int i = 0; i < moves && pgs.getWinner() < 0; i++)
+			pgs.apply(list[rand.next_int(MoveGenerator.generate(pgs, list))]);
+
+		InformationSetSearch search = new InformationSetSearch(rand.split());
+		int move = search.search(pgs, nanos, 0);
+		if (searched != null)
+			searched[0] = search;
+		return move + search.get_iterations();
+	}
+}//class InformationSetSearchBenchmark
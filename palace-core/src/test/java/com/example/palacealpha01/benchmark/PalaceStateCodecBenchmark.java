@@ -0,0 +1,80 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Compares the size and cost of storing a PalaceGameState with PalaceStateCodec against Java
+ * serialization. Run main() from the IDE; it is not a unit test.
+ */
+public class PalaceStateCodecBenchmark
+{
+	private static final int WARMUP_ROUNDS = 20_000;
+	private static final int ROUNDS = 200_000;
+
+	public static void main(String[] args) throws IOException
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		PalaceGameState target = new PalaceGameState();
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+
+		// warm both paths up so the JIT has compiled them before we time anything
+		long sink = serialize(pgs, WARMUP_ROUNDS) + codec(pgs, target, buffer, WARMUP_ROUNDS);
+
+		long start = System.nanoTime();
+		sink += serialize(pgs, ROUNDS);
+		long serializeNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		sink += codec(pgs, target, buffer, ROUNDS);
+		long codecNanos = System.nanoTime() - start;
+
+		buffer.clear();
+		PalaceStateCodec.encode(pgs, buffer);
+
+		System.out.println("serialization:    " + serializedSize(pgs) + " bytes, "
+				+ (serializeNanos / ROUNDS) + " ns per write");
+		System.out.println("PalaceStateCodec: " + buffer.position() + " bytes, "
+				+ (codecNanos / ROUNDS) + " ns per encode + decode");
+		System.out.println("speed-up:         " + ((double) serializeNanos / codecNanos) + "x");
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	private static long serialize(PalaceGameState pgs, int rounds) throws IOException
+	{
+		long sink = 0;
+		for (int i = 0; i < rounds; i++)
+		{
+			sink += serializedSize(pgs);
+		}
+		return sink;
+	}
+
+	private static long codec(PalaceGameState pgs, PalaceGameState target, ByteBuffer buffer, int rounds)
+	{
+		long sink = 0;
+		for (int i = 0; i < rounds; i++)
+		{
+			buffer.clear();
+			PalaceStateCodec.encode(pgs, buffer);
+			buffer.flip();
+			PalaceStateCodec.decode(buffer, target);
+			sink += target.getTurn() + buffer.position();
+		}
+		return sink;
+	}
+
+	private static int serializedSize(PalaceGameState pgs) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(pgs);
+		out.close();
+		return bytes.size();
+	}
+}//class PalaceStateCodecBenchmark
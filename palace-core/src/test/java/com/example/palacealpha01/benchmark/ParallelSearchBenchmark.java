@@ -0,0 +1,53 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.InformationSetSearch;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.ParallelSearch;
+
+/**
+ * Measures how the iterations per second of ParallelSearch.java, running InformationSetSearch.java
+ * workers, scale with the number of workers, from one up to twice the number of cores, on the same
+ * seeded position. Run main() from the IDE; it is not a unit test.
+ */
+public class ParallelSearchBenchmark
+{
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+	private static final long NANOS_PER_SEARCH = 1_000_000_000L;
+	private static final int SEARCHES = 3;
+
+	public static void main(String[] args)
+	{
+		PalaceRandom rand = new PalaceRandom(22);
+		PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+		int[] list = new int[MoveGenerator.MAX_MOVES];
+		for (int i = 0; i < 40; i++)
+			pgs.apply(list[rand.next_int(MoveGenerator.generate(pgs, list))]);
+
+		int cores = ParallelSearch.get_core_count();
+		long sink = new ParallelSearch(InformationSetSearch.FACTORY, cores, rand.split()).search(pgs, WARMUP_NANOS, 0);
+
+		double single = 0.0;
+		for (int workers = 1; workers <= 2 * cores; workers *= 2)
+		{
+			ParallelSearch search = new ParallelSearch(InformationSetSearch.FACTORY, workers, rand.split());
+			long iterations = 0;
+			long nanos = 0;
+			for (int i = 0; i < SEARCHES; i++)
+			{
+				sink += search.search(pgs, NANOS_PER_SEARCH, 0);
+				iterations += search.get_iterations();
+				nanos += search.get_elapsed_nanos();
+			}
+			double per_second = (iterations * 1e9) / nanos;
+			if (workers == 1)
+				single = per_second;
+
+			System.out.println(workers + " worker(s) on " + cores + " core(s): " + Math.round(per_second)
+					+ " iterations/second, " + (Math.round(100 * per_second / single) / 100.0) + "x one worker");
+		}
+		System.out.println("(checksum " + sink + ")");
+	}
+}//class ParallelSearchBenchmark
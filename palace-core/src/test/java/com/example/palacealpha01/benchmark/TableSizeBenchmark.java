@@ -0,0 +1,77 @@
+package com.example.palacealpha01.benchmark;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+
+/**
+ * Measures what a move costs a search (listing the moves, applying one, and undoing it again) at
+ * tables of two to DeckLayout.MAX_PLAYERS players, to check that nothing done per move scans every
+ * seat, and that two player games cost what they did before there were more seats. Run main() from
+ * the IDE; it is not a unit test.
+ */
+public class TableSizeBenchmark
+{
+	private static final int WARMUP_MOVES = 200_000;
+	private static final int MOVES = 2_000_000;
+	private static final int MAX_GAME_LENGTH = 2_000;
+
+	public static void main(String[] args)
+	{
+		long sink = 0;
+		for (int players = 2; players <= DeckLayout.MAX_PLAYERS; players += 2)
+		{
+			// warm up on every table first, so the JIT has seen all of them before we time anything
+			sink += playouts(DeckLayout.with_players(players), WARMUP_MOVES, new long[2]);
+		}
+
+		for (int players = 2; players <= DeckLayout.MAX_PLAYERS; players += 2)
+		{
+			DeckLayout layout = DeckLayout.with_players(players);
+			long[] nanos = new long[2];
+			sink += playouts(layout, MOVES, nanos);
+
+			System.out.println(players + " players, " + layout.get_decks() + " deck(s): "
+					+ (nanos[0] / MOVES) + " ns per generate + apply, "
+					+ (nanos[1] / MOVES) + " ns per undo");
+		}
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	/**
+	 * Plays random games from one deal, undoing every game back to the deal once it is over, until
+	 * 'moves' moves have been made. The deal and the moves are seeded, so every run times the same
+	 * games. nanos[0] gets the time spent generating and applying moves, nanos[1] the time spent
+	 * undoing them.
+	 */
+	private static long playouts(DeckLayout layout, int moves, long[] nanos)
+	{
+		PalaceRandom rand = new PalaceRandom(19);
+		PalaceGameState pgs = new PalaceGameState(layout, rand.split());
+		int[] list = new int[MoveGenerator.MAX_MOVES];
+		long[] records = new long[MAX_GAME_LENGTH];
+		long sink = 0;
+
+		int made = 0;
+		while (made < moves)
+		{
+			int depth = 0;
+			long start = System.nanoTime();
+			while (depth < MAX_GAME_LENGTH && made < moves && pgs.getWinner() < 0)
+			{
+				int count = MoveGenerator.generate(pgs, list);
+				records[depth++] = pgs.apply(list[rand.next_int(count)]);
+				made++;
+			}
+			nanos[0] += System.nanoTime() - start;
+			sink += pgs.getHash();
+
+			start = System.nanoTime();
+			while (depth > 0)
+				pgs.undo(records[--depth]);
+			nanos[1] += System.nanoTime() - start;
+		}
+		return sink + pgs.getHash();
+	}
+}//class TableSizeBenchmark
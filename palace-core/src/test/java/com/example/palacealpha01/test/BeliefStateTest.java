@@ -0,0 +1,218 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.BeliefState;
+import com.example.palacealpha01.GameFramework.palace.CardBitboard;
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.GameEventBus;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests BeliefState.java over seeded games: that the cards the other player picks up become known
+ * until they play them, from the states alone, that its guesses leave the known and visible cards where they are, and that
+ * its odds for the unknown cards are the ones its guesses come up with.
+ */
+public class BeliefStateTest
+{
+	@Test
+	public void known_cards_test()
+	{
+		PalaceRandom rand = new PalaceRandom(25);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		long[] pile = new long[DeckLayout.MAX_MASK_WORDS];
+		int pickups = 0;
+
+		for (int game = 0; game < 10; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+			BeliefState belief = new BeliefState(0);
+			belief.update(pgs);
+
+			for (int turn = 0; turn < 300 && pgs.getWinner() < 0; turn++)
+			{
+				int move = moves[rand.next_int(MoveGenerator.generate(pgs, moves))];
+				int mover = pgs.getTurn();
+				pgs.getLocationMask(Location.DISCARD_PILE, pile);
+				pgs.apply(move);
+				belief.update(pgs);
+
+				// the pile the other player picked up is known to be in their hand
+				if (mover == 1 && PalaceMove.get_type(move) == PalaceMove.TAKE_DISCARD_PILE)
+				{
+					pickups++;
+					for (int id = CardBitboard.next_card(pile, 0); id >= 0; id = CardBitboard.next_card(pile, id + 1))
+						assertEquals(true, CardBitboard.has_card(belief.get_known_cards(1), id));
+				}
+
+				// and every known card is really there; the viewer knows none of their own
+				long[] known = belief.get_known_cards(1);
+				for (int id = CardBitboard.next_card(known, 0); id >= 0; id = CardBitboard.next_card(known, id + 1))
+					assertEquals(Location.PLAYER_TWO_HAND, pgs.getPair(id).get_location());
+				assertEquals(0, CardBitboard.count_cards(belief.get_known_cards(0)));
+			}
+		}
+		assertEquals(true, pickups > 0);
+	}
+
+	@Test
+	public void determinize_test()
+	{
+		PalaceRandom rand = new PalaceRandom(25);
+		PalaceGameState[] game = new PalaceGameState[1];
+		BeliefState belief = with_known_cards(rand, game);
+		PalaceGameState pgs = game[0];
+		assertEquals(true, CardBitboard.count_cards(belief.get_known_cards()) > 0);
+
+		int cards = pgs.getLayout().get_card_count();
+		boolean moved = false;
+		PalaceGameState guess = new PalaceGameState(pgs);
+		for (int i = 0; i < 50; i++)
+		{
+			belief.determinize(guess, rand);
+			for (Location location : Location.values())
+				if (location.get_seat() < 2)
+					assertEquals(pgs.getLocationSize(location), guess.getLocationSize(location));
+			for (int id = 0; id < cards; id++)
+			{
+				Location before = pgs.getPair(id).get_location();
+				Location after = guess.getPair(id).get_location();
+				boolean hidden = before == Location.PLAYER_TWO_HAND || before == Location.DRAW_PILE
+								 || before.get_kind() == Location.LOWER_PALACE;
+				if (! hidden || CardBitboard.has_card(belief.get_known_cards(), id))
+					assertEquals(before, after);
+				else
+					moved |= before != after;
+			}
+		}
+		assertEquals(true, moved);
+	}
+
+	@Test
+	public void probability_test()
+	{
+		PalaceRandom rand = new PalaceRandom(25);
+		PalaceGameState[] game = new PalaceGameState[1];
+		BeliefState belief = with_known_cards(rand, game);
+		PalaceGameState pgs = game[0];
+
+		Location[] hidden = {Location.PLAYER_TWO_HAND, Location.PLAYER_ONE_LOWER_PALACE,
+							 Location.PLAYER_TWO_LOWER_PALACE, Location.DRAW_PILE};
+		int unknown = 0;
+		for (Location location : hidden)
+			unknown += belief.get_unknown_count(pgs, location);
+		assertEquals(unknown, belief.get_unknown_count(pgs));
+
+		// every card is somewhere, for sure
+		int cards = pgs.getLayout().get_card_count();
+		for (int id = 0; id < cards; id++)
+		{
+			double total = 0.0;
+			for (Location location : Location.values())
+				if (location.get_seat() < 2)
+					total += belief.get_probability(pgs, id, location);
+			assertEquals(1.0, total, 1e-9);
+		}
+
+		// and the guesses put an unknown card in the other player's hand as often as the odds say
+		int id = -1;
+		for (int i = 0; i < cards && id < 0; i++)
+			if (pgs.getPair(i).get_location() == Location.DRAW_PILE)
+				id = i;
+		int guesses = 20_000;
+		int in_hand = 0;
+		PalaceGameState guess = new PalaceGameState(pgs);
+		for (int i = 0; i < guesses; i++)
+		{
+			belief.determinize(guess, rand);
+			if (guess.getPair(id).get_location() == Location.PLAYER_TWO_HAND)
+				in_hand++;
+		}
+		double expected = belief.get_probability(pgs, id, Location.PLAYER_TWO_HAND);
+		assertEquals(true, expected > 0.0);
+		assertEquals(expected, (double) in_hand / guesses, 0.02);
+	}
+
+	@Test
+	public void no_history_test()
+	{
+		// a belief that starts in the middle of a game has seen no pickups, so knows nothing beyond
+		// what is in sight
+		PalaceRandom rand = new PalaceRandom(25);
+		PalaceGameState[] game = new PalaceGameState[1];
+		with_known_cards(rand, game);
+		PalaceGameState pgs = new PalaceGameState(game[0]);
+		BeliefState belief = new BeliefState(0);
+		belief.update(pgs);
+		assertEquals(0, CardBitboard.count_cards(belief.get_known_cards()));
+		assertEquals(pgs.getLocationSize(Location.PLAYER_TWO_HAND), belief.get_unknown_count(pgs, Location.PLAYER_TWO_HAND));
+		assertEquals(0, belief.get_unknown_count(pgs, Location.PLAYER_ONE_HAND));
+	}
+
+	@Test
+	public void game_ahead_test()
+	{
+		// the game publishes events and moves on while the belief is still looking at an older state;
+		// it must keep what it knows about that state, and then catch up with the latest one
+		PalaceRandom rand = new PalaceRandom(25);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		for (int game = 0; game < 10; game++)
+		{
+			PalaceGameState[] games = new PalaceGameState[1];
+			BeliefState belief = with_known_cards(rand, games);
+			PalaceGameState pgs = games[0];
+			pgs.setEventBus(new GameEventBus());
+			PalaceGameState seen = pgs.snapshot();
+			long[] known = belief.get_known_cards(1).clone();
+
+			for (int turn = 0; turn < 6 && pgs.getWinner() < 0; turn++)
+				pgs.apply(moves[rand.next_int(MoveGenerator.generate(pgs, moves))]);
+			assertEquals(true, pgs.getEventBus().get_published() > 0);
+			belief.update(seen);
+			assertArrayEquals(known, belief.get_known_cards(1));
+
+			belief.update(pgs.snapshot());
+			long[] now = belief.get_known_cards(1);
+			for (int id = CardBitboard.next_card(now, 0); id >= 0; id = CardBitboard.next_card(now, id + 1))
+				assertEquals(Location.PLAYER_TWO_HAND, pgs.getPair(id).get_location());
+			for (int id = CardBitboard.next_card(known, 0); id >= 0; id = CardBitboard.next_card(known, id + 1))
+				if (pgs.getPair(id).get_location() == Location.PLAYER_TWO_HAND)
+					assertEquals(true, CardBitboard.has_card(now, id));
+		}
+	}
+
+	/**
+	 * Plays a seeded game at random into game[0], until player 1 is holding cards they picked up with
+	 * the discard pile and the draw pile is not empty yet, and returns the belief of player 0 that
+	 * followed it.
+	 */
+	private static BeliefState with_known_cards(PalaceRandom rand, PalaceGameState[] game)
+	{
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		while (true)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+			BeliefState belief = new BeliefState(0);
+			belief.update(pgs);
+			for (int turn = 0; turn < 100 && pgs.getWinner() < 0 && ! pgs.isDrawPileEmpty(); turn++)
+			{
+				pgs.apply(moves[rand.next_int(MoveGenerator.generate(pgs, moves))]);
+				belief.update(pgs);
+				if (CardBitboard.count_cards(belief.get_known_cards(1)) > 0 && pgs.getWinner() < 0 && ! pgs.isDrawPileEmpty())
+				{
+					game[0] = pgs;
+					return belief;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Card;
+import com.example.palacealpha01.GameFramework.palace.CardBitboard;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+
+import org.junit.Test;
+
+import static com.example.palacealpha01.GameFramework.palace.Location.DISCARD_PILE;
+import static com.example.palacealpha01.GameFramework.palace.Location.DRAW_PILE;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_HAND;
+import static com.example.palacealpha01.GameFramework.palace.Rank.ACE;
+import static com.example.palacealpha01.GameFramework.palace.Suit.SPADES;
+import static org.junit.Assert.*;
+
+/**
+ * Tests CardBitboard.java on its own, and checks that the sizes PalaceGameState.java now reads off
+ * its board always agree with a plain walk of the_deck.
+ */
+public class CardBitboardTest
+{
+	@Test
+	public void move_test()
+	{
+		CardBitboard board = new CardBitboard();
+		int ace_spades = Card.get_card(ACE, SPADES).get_id();
+
+		assertEquals(null, board.get_location(ace_spades));
+
+		board.move(ace_spades, DRAW_PILE);
+		assertEquals(DRAW_PILE, board.get_location(ace_spades));
+		assertEquals(1, board.count(DRAW_PILE));
+
+		board.move(ace_spades, PLAYER_ONE_HAND);
+		assertEquals(PLAYER_ONE_HAND, board.get_location(ace_spades));
+		assertEquals(0, board.count(DRAW_PILE));
+		assertEquals(true, board.is_empty(DRAW_PILE));
+		assertEquals(1L << ace_spades, board.get_word(PLAYER_ONE_HAND, 0));
+	}
+
+	@Test
+	public void move_all_test()
+	{
+		CardBitboard board = new CardBitboard();
+		for (int id = 0; id < 10; id++)
+			board.move(id, DISCARD_PILE);
+		board.move(10, PLAYER_TWO_HAND);
+
+		board.move_all(DISCARD_PILE, PLAYER_TWO_HAND);
+
+		assertEquals(true, board.is_empty(DISCARD_PILE));
+		assertEquals(11, board.count(PLAYER_TWO_HAND));
+		for (int id = 0; id <= 10; id++)
+			assertEquals(PLAYER_TWO_HAND, board.get_location(id));
+	}
+
+	@Test
+	public void copy_constructor_test()
+	{
+		CardBitboard board = new CardBitboard();
+		board.move(5, PLAYER_ONE_HAND);
+		CardBitboard copy = new CardBitboard(board);
+
+		assertEquals(true, board.equals(copy));
+
+		copy.move(5, DISCARD_PILE);
+		assertEquals(false, board.equals(copy));
+		assertEquals(PLAYER_ONE_HAND, board.get_location(5));
+	}
+
+	@Test
+	public void game_state_sizes_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		for (int turn = 0; turn < 200; turn++)
+		{
+			int player = turn % 2;
+			Location hand = (player == 0) ? PLAYER_ONE_HAND : PLAYER_TWO_HAND;
+			Pair legal = null;
+			for (Pair p : pgs.the_deck)
+				if (p.get_location() == hand && pgs.isLegal(p))
+				{
+					legal = p;
+					break;
+				}
+			if (legal != null && pgs.selectCards(player, legal))
+				pgs.playCards(player);
+			else
+				pgs.takeDiscardPile(player);
+
+			PalaceGameState copy = new PalaceGameState(pgs);
+			assertEquals(scan(pgs, PLAYER_ONE_HAND),                  pgs.getPlayerOneHandSize());
+			assertEquals(scan(pgs, PLAYER_TWO_HAND),                  pgs.getPlayerTwoHandSize());
+			assertEquals(scan(pgs, Location.PLAYER_ONE_UPPER_PALACE), copy.getPlayerOneUpperPalaceSize());
+			assertEquals(scan(pgs, Location.PLAYER_TWO_UPPER_PALACE), copy.getPlayerTwoUpperPalaceSize());
+			assertEquals(scan(pgs, DRAW_PILE) == 0,                   pgs.isDrawPileEmpty());
+		}
+	}
+
+	/**
+	 * Counts the cards in a Location the way PalaceGameState.java used to.
+	 */
+	private static int scan(PalaceGameState pgs, Location location)
+	{
+		int counter = 0;
+		for (Pair p : pgs.the_deck)
+			if (p.get_location() == location)
+				counter++;
+		return counter;
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.CardLocationIndex;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static com.example.palacealpha01.GameFramework.palace.Location.DISCARD_PILE;
+import static com.example.palacealpha01.GameFramework.palace.Location.DRAW_PILE;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_HAND;
+import static org.junit.Assert.*;
+
+/**
+ * Tests CardLocationIndex.java, and checks that PalaceGameState.java's getCardsAt() agrees with a
+ * walk of the_deck.
+ */
+public class CardLocationIndexTest
+{
+	@Test
+	public void move_test()
+	{
+		CardLocationIndex index = new CardLocationIndex();
+		for (int id = 0; id < 5; id++)
+			index.move(id, DRAW_PILE);
+		assertEquals(5, index.size(DRAW_PILE));
+		assertEquals(0, index.first(DRAW_PILE));
+
+		// removing from the middle keeps the order of the remaining cards
+		index.move(2, PLAYER_ONE_HAND);
+		assertEquals(4, index.size(DRAW_PILE));
+		assertEquals(0, index.get(DRAW_PILE, 0));
+		assertEquals(1, index.get(DRAW_PILE, 1));
+		assertEquals(3, index.get(DRAW_PILE, 2));
+		assertEquals(4, index.get(DRAW_PILE, 3));
+		assertEquals(PLAYER_ONE_HAND, index.get_location(2));
+
+		// moving a card to where it already is does nothing
+		index.move(0, DRAW_PILE);
+		assertEquals(0, index.first(DRAW_PILE));
+
+		index.move(0, PLAYER_ONE_HAND);
+		assertEquals(2, index.get(PLAYER_ONE_HAND, 0));
+		assertEquals(0, index.get(PLAYER_ONE_HAND, 1));
+	}
+
+	@Test
+	public void move_all_test()
+	{
+		CardLocationIndex index = new CardLocationIndex();
+		index.move(7, PLAYER_TWO_HAND);
+		index.move(3, DISCARD_PILE);
+		index.move(9, DISCARD_PILE);
+
+		index.move_all(DISCARD_PILE, PLAYER_TWO_HAND);
+
+		assertEquals(0, index.size(DISCARD_PILE));
+		assertEquals(-1, index.first(DISCARD_PILE));
+		assertEquals(3, index.size(PLAYER_TWO_HAND));
+		assertEquals(7, index.get(PLAYER_TWO_HAND, 0));
+		assertEquals(3, index.get(PLAYER_TWO_HAND, 1));
+		assertEquals(9, index.get(PLAYER_TWO_HAND, 2));
+
+		index.move(3, DISCARD_PILE);
+		assertEquals(9, index.get(PLAYER_TWO_HAND, 1));
+	}
+
+	@Test
+	public void sort_by_test()
+	{
+		CardLocationIndex index = new CardLocationIndex();
+		for (int id = 0; id < 4; id++)
+			index.move(id, DRAW_PILE);
+
+		index.sort_by(new int[] {3, 1, 0, 2});
+
+		assertEquals(3, index.get(DRAW_PILE, 0));
+		assertEquals(1, index.get(DRAW_PILE, 1));
+		assertEquals(0, index.get(DRAW_PILE, 2));
+		assertEquals(2, index.get(DRAW_PILE, 3));
+
+		index.move(1, PLAYER_ONE_HAND);
+		assertEquals(0, index.get(DRAW_PILE, 1));
+	}
+
+	@Test
+	public void deque_test()
+	{
+		// drawing from the front and putting cards back many times wraps the ring buffers around
+		CardLocationIndex index = new CardLocationIndex();
+		ArrayList<Integer> draw_pile = new ArrayList<>();
+		ArrayList<Integer> hand = new ArrayList<>();
+		for (int id = 0; id < 52; id++)
+		{
+			index.move(id, DRAW_PILE);
+			draw_pile.add(id);
+		}
+
+		Random rand = new Random(12);
+		for (int step = 0; step < 5000; step++)
+		{
+			switch (rand.nextInt(4))
+			{
+				case 0: // draw the top card
+					if (draw_pile.isEmpty())
+						break;
+					index.move(draw_pile.get(0), PLAYER_ONE_HAND);
+					hand.add(draw_pile.remove(0));
+					break;
+				case 1: // put a card back on top, as undo does
+					if (hand.isEmpty())
+						break;
+					int id = hand.remove(hand.size() - 1);
+					index.insert(id, DRAW_PILE, 0);
+					draw_pile.add(0, id);
+					break;
+				case 2: // take any card out of the draw pile
+					if (draw_pile.isEmpty())
+						break;
+					int taken = draw_pile.remove(rand.nextInt(draw_pile.size()));
+					index.move(taken, PLAYER_ONE_HAND);
+					hand.add(taken);
+					break;
+				default: // put a card back anywhere
+					if (hand.isEmpty())
+						break;
+					int position = rand.nextInt(draw_pile.size() + 1);
+					int back = hand.remove(rand.nextInt(hand.size()));
+					index.insert(back, DRAW_PILE, position);
+					draw_pile.add(position, back);
+			}
+			assert_same_list(draw_pile, index, DRAW_PILE);
+			assert_same_list(hand, index, PLAYER_ONE_HAND);
+		}
+
+		// copies and move_all keep the order
+		CardLocationIndex copy = new CardLocationIndex(index);
+		copy.move_all(DRAW_PILE, PLAYER_ONE_HAND);
+		hand.addAll(draw_pile);
+		assert_same_list(hand, copy, PLAYER_ONE_HAND);
+		assert_same_list(draw_pile, index, DRAW_PILE);
+	}
+
+	private static void assert_same_list(ArrayList<Integer> expected, CardLocationIndex index, Location location)
+	{
+		assertEquals(expected.size(), index.size(location));
+		assertEquals(expected.isEmpty() ? -1 : (int) expected.get(0), index.first(location));
+		for (int i = 0; i < expected.size(); i++)
+		{
+			assertEquals((int) expected.get(i), index.get(location, i));
+			assertEquals(i, index.get_position(expected.get(i)));
+			assertEquals(location, index.get_location(expected.get(i)));
+		}
+	}
+
+	@Test
+	public void game_state_cards_at_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+
+		// the draw pile keeps the order of the shuffled deck
+		Pair first_in_deck = null;
+		for (Pair p : pgs.the_deck)
+			if (p.get_location() == DRAW_PILE)
+			{
+				first_in_deck = p;
+				break;
+			}
+		assertSame(first_in_deck, pgs.peekDrawPile());
+
+		ArrayList<Pair> cards = new ArrayList<>();
+		for (int turn = 0; turn < 200; turn++)
+		{
+			int player = turn % 2;
+			Location hand = (player == 0) ? PLAYER_ONE_HAND : PLAYER_TWO_HAND;
+			Pair legal = null;
+			for (Pair p : pgs.getCardsAt(hand, cards))
+				if (pgs.isLegal(p))
+				{
+					legal = p;
+					break;
+				}
+			if (legal != null && pgs.selectCards(player, legal))
+				pgs.playCards(player);
+			else
+				pgs.takeDiscardPile(player);
+
+			PalaceGameState copy = new PalaceGameState(pgs);
+			for (Location location : Location.values())
+			{
+				int counter = 0;
+				for (Pair p : pgs.the_deck)
+					if (p.get_location() == location)
+						counter++;
+				assertEquals(counter, pgs.getLocationSize(location));
+				assertEquals(counter, copy.getLocationSize(location));
+				for (Pair p : copy.getCardsAt(location, cards))
+					assertEquals(location, p.get_location());
+			}
+		}
+	}
+}
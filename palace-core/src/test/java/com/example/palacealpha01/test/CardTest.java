@@ -4,9 +4,16 @@
 package com.example.palacealpha01.test;
 
 import com.example.palacealpha01.GameFramework.palace.Card;
+import com.example.palacealpha01.GameFramework.palace.Rank;
+import com.example.palacealpha01.GameFramework.palace.Suit;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static com.example.palacealpha01.GameFramework.palace.Rank.ACE;
 import static com.example.palacealpha01.GameFramework.palace.Rank.EIGHT;
 import static com.example.palacealpha01.GameFramework.palace.Rank.JACK;
@@ -184,4 +191,51 @@ public class CardTest
 		assertEquals(true, two_hearts    .equals(two_hearts_copy));
 		assertEquals(true, ten_diamonds  .equals(ten_diamonds_copy));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void get_id_test()
+	{
+		assertEquals(0,  new Card(THREE, SPADES).get_id());
+		assertEquals(51, new Card(TEN,   HEARTS).get_id());
+
+		boolean[] seen = new boolean[Card.DECK_SIZE];
+		for (int i = Rank.THREE_INT; i <= Rank.TEN_INT; i++)
+			for (int j = Suit.SPADES_INT; j <= Suit.HEARTS_INT; j++)
+			{
+				int id = new Card(Rank.int_to_rank(i), Suit.int_to_suit(j)).get_id();
+				assertEquals(false, seen[id]);
+				seen[id] = true;
+			}
+	}
+
+	@Test
+	public void get_card_test()
+	{
+		for (int id = 0; id < Card.DECK_SIZE; id++)
+		{
+			Card card = Card.get_card(id);
+			assertEquals(id, card.get_id());
+			assertEquals(id, card.hashCode());
+			assertSame(card, Card.get_card(card.get_rank(), card.get_suit()));
+		}
+
+		Card queen_hearts = new Card(QUEEN, HEARTS);
+		assertEquals(true, queen_hearts.equals(Card.get_card(QUEEN, HEARTS)));
+		assertEquals(queen_hearts.hashCode(), Card.get_card(QUEEN, HEARTS).hashCode());
+	}
+
+	/**
+	 * Deserializing a Card object must give back the canonical one.
+	 */
+	@Test
+	public void read_resolve_test() throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(new Card(JACK, SPADES));
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertSame(Card.get_card(JACK, SPADES), in.readObject());
+	}
+}
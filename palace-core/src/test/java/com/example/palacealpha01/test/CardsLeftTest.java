@@ -0,0 +1,83 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the number of cards each player has left, which PalaceGameState.java keeps count of
+ * as cards move, always matches the cards actually in their hand and palace.
+ */
+public class CardsLeftTest
+{
+	@Test
+	public void random_games_test()
+	{
+		Random rand = new Random(14);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		int games_won = 0;
+
+		for (int game = 0; game < 20; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			assertEquals(11, pgs.getCardsLeft(0)); // 3 lower palace, 3 upper palace and 5 hand cards
+			assertEquals(11, pgs.getCardsLeft(1));
+
+			for (int turn = 0; turn < 2000; turn++)
+			{
+				check_cards_left(pgs);
+				check_cards_left(new PalaceGameState(pgs));
+				check_cards_left(pgs.snapshot());
+
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0)
+				{
+					// the player to move has won
+					assertEquals(0, pgs.getCardsLeft(pgs.getTurn()));
+					games_won++;
+					break;
+				}
+				long record = pgs.apply(moves[rand.nextInt(count)]);
+				if (rand.nextInt(4) == 0)
+				{
+					pgs.undo(record);
+					check_cards_left(pgs);
+					pgs.apply(moves[rand.nextInt(count)]);
+				}
+
+				if (turn % 50 == 0)
+				{
+					buffer.clear();
+					PalaceStateCodec.encode(pgs, buffer);
+					buffer.flip();
+					PalaceGameState decoded = new PalaceGameState();
+					PalaceStateCodec.decode(buffer, decoded);
+					check_cards_left(decoded);
+				}
+			}
+		}
+		assertEquals(true, games_won > 0);
+	}
+
+	private static void check_cards_left(PalaceGameState pgs)
+	{
+		assertEquals(pgs.getLocationSize(Location.PLAYER_ONE_HAND)
+					 + pgs.getLocationSize(Location.PLAYER_ONE_UPPER_PALACE)
+					 + pgs.getLocationSize(Location.PLAYER_ONE_LOWER_PALACE), pgs.getCardsLeft(0));
+		assertEquals(pgs.getLocationSize(Location.PLAYER_TWO_HAND)
+					 + pgs.getLocationSize(Location.PLAYER_TWO_UPPER_PALACE)
+					 + pgs.getLocationSize(Location.PLAYER_TWO_LOWER_PALACE), pgs.getCardsLeft(1));
+	}
+}
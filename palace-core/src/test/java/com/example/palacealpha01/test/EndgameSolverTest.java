@@ -0,0 +1,186 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.EndgameSolver;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests EndgameSolver.java on the endgames of seeded games: that it leaves the state alone, solves
+ * most of their moves within the SmartAI's 50 ms, and never misses a win on the spot. How much it wins by is
+ * measured by EndgameSolverBenchmark.java instead, as that depends on how fast the machine is.
+ */
+public class EndgameSolverTest
+{
+	private static final long BUDGET_NANOS = 50_000_000L;
+	// enough to solve the first FIRST_DEPTH moves of every guess, even before the JIT has warmed up
+	private static final long WIN_IN_ONE_NANOS = 1_000_000_000L;
+
+	@Test
+	public void can_solve_test()
+	{
+		PalaceRandom rand = new PalaceRandom(23);
+		PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+		assertEquals(false, EndgameSolver.can_solve(pgs));
+		assertEquals(true, EndgameSolver.can_solve(endgame(rand)));
+		assertEquals(false, EndgameSolver.can_solve(new PalaceGameState(DeckLayout.with_players(3), rand.split())));
+	}
+
+	@Test
+	public void solve_test()
+	{
+		// the start of an endgame is usually too long to solve, but the solver should get through most
+		// of what is left of it
+		PalaceRandom rand = new PalaceRandom(23);
+		EndgameSolver solver = new EndgameSolver(rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int solved = 0;
+		int positions = 0;
+
+		for (int game = 0; game < 3; game++)
+		{
+			PalaceGameState pgs = endgame(rand);
+			for (int turn = 0; turn < 1_000 && pgs.getWinner() < 0; turn++)
+			{
+				byte[] before = encode(pgs);
+				int move = solver.solve(pgs, BUDGET_NANOS);
+				assertArrayEquals(before, encode(pgs));
+				positions++;
+
+				int count = MoveGenerator.generate(pgs, moves);
+				if (move >= 0)
+				{
+					solved++;
+					boolean legal = false;
+					for (int m = 0; m < count; m++)
+						legal |= moves[m] == move;
+					assertEquals(true, legal);
+				}
+				pgs.apply((move >= 0) ? move : moves[0]);
+			}
+		}
+		assertEquals(true, solved >= positions / 4);
+	}
+
+	@Test
+	public void win_in_one_test()
+	{
+		// whenever the cards in a player's hand can end the game at once, the solver finds a move that
+		// wins in every guess; a lower palace card that would end it is hidden, so it may not win in
+		// all of them
+		PalaceRandom rand = new PalaceRandom(23);
+		EndgameSolver solver = new EndgameSolver(rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int found = 0;
+
+		for (int game = 0; game < 40 && found < 5; game++)
+		{
+			PalaceGameState pgs = endgame(rand);
+			for (int turn = 0; turn < 1_000 && pgs.getWinner() < 0; turn++)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				int mover = pgs.getTurn();
+				boolean wins_at_once = false;
+				for (int i = 0; i < count && ! wins_at_once; i++)
+				{
+					long record = pgs.apply(moves[i]);
+					wins_at_once = pgs.getWinner() == mover && PalaceMove.get_type(moves[i]) == PalaceMove.PLAY_CARDS;
+					pgs.undo(record);
+				}
+				if (wins_at_once && count > 1)
+				{
+					assertEquals(true, solver.solve(pgs, WIN_IN_ONE_NANOS) >= 0);
+					assertEquals(1.0, solver.get_win_rate(), 1e-9);
+					found++;
+					break;
+				}
+				pgs.apply(greedy_move(pgs, moves));
+			}
+		}
+		assertEquals(true, found > 0);
+	}
+
+	@Test
+	public void no_move_test()
+	{
+		// a player without a move has no cards left, so has won, and can_solve() turns the position
+		// down; solve() still answers -1 at once rather than failing if it is asked anyway
+		PalaceRandom rand = new PalaceRandom(23);
+		EndgameSolver solver = new EndgameSolver(rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int found = 0;
+
+		for (int game = 0; game < 40 && found == 0; game++)
+		{
+			PalaceGameState pgs = endgame(rand);
+			for (int turn = 0; turn < 1_000; turn++)
+			{
+				if (MoveGenerator.generate(pgs, moves) == 0)
+				{
+					assertEquals(false, EndgameSolver.can_solve(pgs));
+					byte[] before = encode(pgs);
+					assertEquals(-1, solver.solve(pgs, BUDGET_NANOS));
+					assertEquals(0.0, solver.get_win_rate(), 1e-9);
+					assertEquals(0, solver.get_samples());
+					assertEquals(false, solver.is_complete());
+					assertArrayEquals(before, encode(pgs));
+					found++;
+					break;
+				}
+				if (pgs.getWinner() >= 0)
+					break;
+				pgs.apply(greedy_move(pgs, moves));
+			}
+		}
+		assertEquals(true, found > 0);
+	}
+
+	/**
+	 * Returns a seeded two player game played until the draw pile has run out, by players that
+	 * always play their lowest cards (see greedy_move()), the way the SmartAI does.
+	 */
+	private static PalaceGameState endgame(PalaceRandom rand)
+	{
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		while (true)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+			for (int turn = 0; turn < 1_000 && pgs.getWinner() < 0 && ! pgs.isDrawPileEmpty(); turn++)
+				pgs.apply(greedy_move(pgs, moves));
+			if (pgs.getWinner() < 0 && pgs.isDrawPileEmpty())
+				return pgs;
+		}
+	}
+
+	/**
+	 * Returns the first move MoveGenerator.java lists: the most cards of the lowest legal rank, the
+	 * first lower palace card, or taking the discard pile if nothing else is legal.
+	 */
+	private static int greedy_move(PalaceGameState pgs, int[] moves)
+	{
+		MoveGenerator.generate(pgs, moves);
+		return moves[0];
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Card;
+import com.example.palacealpha01.GameFramework.palace.GameEvent;
+import com.example.palacealpha01.GameFramework.palace.GameEventBus;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests GameEventBus.java, and checks that the events PalaceGameState.java publishes account for
+ * every card that moves during a game.
+ */
+public class GameEventBusTest
+{
+	@Test
+	public void publish_poll_test()
+	{
+		GameEventBus bus = new GameEventBus();
+		bus.publish(GameEvent.CARDS_PLAYED, 0, new long[] {1L});
+		final ArrayList<String> received = new ArrayList<>();
+		GameEventBus.Subscription subscription = bus.subscribe(new GameEventBus.Listener()
+		{
+			@Override
+			public void on_game_event(GameEvent event)
+			{
+				received.add(event.get_type() + " " + event.get_player() + " " + event.get_cards()[0]);
+			}
+		});
+
+		// only events published after subscribing are handed over, in order, once
+		bus.publish(GameEvent.PILE_BOMBED, 1, new long[] {0xF0L});
+		bus.publish(GameEvent.PILE_TAKEN, 0, new long[] {-1L});
+		assertEquals(2, subscription.poll());
+		assertEquals(0, subscription.poll());
+		assertEquals("1 1 240", received.get(0));
+		assertEquals("2 0 -1", received.get(1));
+
+		// a listener that falls behind only gets the last CAPACITY events
+		received.clear();
+		for (int i = 0; i < GameEventBus.CAPACITY + 10; i++)
+			bus.publish(GameEvent.HAND_REFILLED, 0, new long[] {i});
+		assertEquals(GameEventBus.CAPACITY, subscription.poll());
+		assertEquals("3 0 10", received.get(0));
+		assertEquals("3 0 " + (GameEventBus.CAPACITY + 9), received.get(GameEventBus.CAPACITY - 1));
+	}
+
+	@Test
+	public void game_events_test()
+	{
+		Random rand = new Random(13);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		final long[] moved = new long[1];
+		final int[] bombs = new int[1];
+
+		for (int game = 0; game < 10; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			pgs.setEventBus(new GameEventBus());
+			GameEventBus.Subscription subscription = pgs.getEventBus().subscribe(new GameEventBus.Listener()
+			{
+				@Override
+				public void on_game_event(GameEvent event)
+				{
+					moved[0] |= event.get_cards()[0];
+					if (event.get_type() == GameEvent.PILE_BOMBED)
+						bombs[0]++;
+				}
+			});
+
+			// neither a deep copy nor a snapshot publishes, or hands out the bus
+			PalaceGameState copy = new PalaceGameState(pgs);
+			assertNull(copy.getEventBus());
+			assertNull(pgs.snapshot().getEventBus());
+
+			for (int turn = 0; turn < 500; turn++)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0)
+					break;
+				PalaceGameState before = new PalaceGameState(pgs);
+				moved[0] = 0L;
+				bombs[0] = 0;
+				pgs.apply(moves[rand.nextInt(count)]);
+				subscription.poll();
+
+				// exactly the cards that changed location were in an event
+				long changed = 0L;
+				for (int id = 0; id < Card.DECK_SIZE; id++)
+					if (before.getPair(id).get_location() != pgs.getPair(id).get_location())
+						changed |= 1L << id;
+				long bombed = pgs.getLocationWord(Location.DEAD_PILE, 0) & ~before.getLocationWord(Location.DEAD_PILE, 0);
+				assertEquals(changed, moved[0]);
+				assertEquals(bombed != 0L, bombs[0] == 1);
+			}
+		}
+	}
+
+	@Test
+	public void palace_confirmed_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		pgs.setEventBus(new GameEventBus());
+		final long[] cards = new long[1];
+		GameEventBus.Subscription subscription = pgs.getEventBus().subscribe(new GameEventBus.Listener()
+		{
+			@Override
+			public void on_game_event(GameEvent event)
+			{
+				assertEquals(GameEvent.PALACE_CONFIRMED, event.get_type());
+				assertEquals(0, event.get_player());
+				assertEquals(3, event.get_card_count());
+				cards[0] = event.get_cards()[0];
+			}
+		});
+
+		pgs.changePalace(0);
+		ArrayList<Pair> hand = pgs.getCardsAt(Location.PLAYER_ONE_HAND, new ArrayList<Pair>());
+		for (int i = 0; i < 3; i++)
+			pgs.selectPalaceCards(0, hand.get(i));
+		assertEquals(true, pgs.confirmPalace(0));
+		assertEquals(1, subscription.poll());
+		assertEquals(pgs.getLocationWord(Location.PLAYER_ONE_UPPER_PALACE, 0), cards[0]);
+	}
+
+	@Test
+	public void viewer_test()
+	{
+		// a player's feed tells them that the other player drew, but not what
+		GameEventBus bus = new GameEventBus();
+		final long[] cards = new long[2];
+		GameEventBus.Subscription subscription = bus.subscribe(new GameEventBus.Listener()
+		{
+			@Override
+			public void on_game_event(GameEvent event)
+			{
+				cards[event.get_player()] |= event.get_cards()[0];
+			}
+		}, 0);
+
+		bus.publish(GameEvent.HAND_REFILLED, 0, new long[] {0x3L});
+		bus.publish(GameEvent.HAND_REFILLED, 1, new long[] {0xCL});
+		assertEquals(2, subscription.poll());
+		assertEquals(0x3L, cards[0]);
+		assertEquals(0L, cards[1]);
+
+		// while the cards they can see come through as they are
+		bus.publish(GameEvent.CARDS_PLAYED, 1, new long[] {0x30L});
+		bus.publish(GameEvent.PILE_TAKEN, 1, new long[] {0xC0L});
+		assertEquals(2, subscription.poll());
+		assertEquals(0xF0L, cards[1]);
+	}
+}
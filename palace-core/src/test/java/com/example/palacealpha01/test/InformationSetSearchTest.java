@@ -0,0 +1,151 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.InformationSetSearch;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests PalaceGameState.determinize() and InformationSetSearch.java.
+ */
+public class InformationSetSearchTest
+{
+	@Test
+	public void determinize_test()
+	{
+		PalaceRandom rand = new PalaceRandom(21);
+		for (int players = 2; players <= DeckLayout.MAX_PLAYERS; players += 3)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_players(players), rand.split());
+			play_randomly(pgs, 40, rand);
+			int observer = pgs.getTurn();
+			PalaceGameState before = new PalaceGameState(pgs);
+
+			pgs.determinize(observer, rand);
+			assertEquals(pgs.computeHash(), pgs.getHash());
+
+			long[] hidden_before = new long[pgs.getLayout().get_mask_words()];
+			long[] hidden_after = new long[hidden_before.length];
+			boolean changed = false;
+			for (int l = 0; l < pgs.getLayout().get_location_count(); l++)
+			{
+				Location location = Location.values()[l];
+				long[] mask_before = before.getLocationMask(location, new long[hidden_before.length]);
+				long[] mask_after = pgs.getLocationMask(location, new long[hidden_before.length]);
+				assertEquals(before.getLocationSize(location), pgs.getLocationSize(location));
+
+				boolean hidden = location == Location.DRAW_PILE || location.get_kind() == Location.LOWER_PALACE
+								 || (location.get_kind() == Location.HAND && location.get_seat() != observer);
+				if (! hidden)
+				{
+					assertArrayEquals(mask_before, mask_after);
+					continue;
+				}
+				for (int w = 0; w < hidden_before.length; w++)
+				{
+					hidden_before[w] |= mask_before[w];
+					hidden_after[w] |= mask_after[w];
+					changed |= mask_before[w] != mask_after[w];
+				}
+			}
+			// the hidden cards only swapped places among themselves
+			assertArrayEquals(hidden_before, hidden_after);
+			assertEquals(true, changed);
+
+			for (int seat = 0; seat < players; seat++)
+			{
+				assertEquals(before.getCardsLeft(seat), pgs.getCardsLeft(seat));
+				assertEquals(before.getPlayableZone(seat), pgs.getPlayableZone(seat));
+			}
+		}
+	}
+
+	@Test
+	public void search_test()
+	{
+		PalaceRandom rand = new PalaceRandom(21);
+		PalaceGameState pgs = new PalaceGameState(DeckLayout.with_players(3), rand.split());
+		play_randomly(pgs, 10, rand);
+		byte[] before = encode(pgs);
+
+		InformationSetSearch search = new InformationSetSearch(new PalaceRandom(1));
+		int move = search.search(pgs, 0, 500);
+		assertArrayEquals(before, encode(pgs));
+		assertEquals(500, search.get_iterations());
+		assertEquals(true, search.get_iterations_per_second() > 0);
+
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(pgs, moves);
+		boolean legal = false;
+		for (int i = 0; i < count; i++)
+			legal |= moves[i] == move;
+		assertEquals(true, legal);
+
+		// the same seed and iteration budget search the same way
+		assertEquals(move, new InformationSetSearch(new PalaceRandom(1)).search(pgs, 0, 500));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void no_budget_test()
+	{
+		new InformationSetSearch(new PalaceRandom(21)).search(new PalaceGameState(), 0, 0);
+	}
+
+	@Test
+	public void beats_random_test()
+	{
+		PalaceRandom rand = new PalaceRandom(21);
+		InformationSetSearch search = new InformationSetSearch(rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int games = 6;
+		int wins = 0;
+
+		for (int game = 0; game < games; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+			int searcher = game % 2;
+			for (int turn = 0; turn < 2_000 && pgs.getWinner() < 0; turn++)
+			{
+				if (pgs.getTurn() == searcher)
+					pgs.apply(search.search(pgs, 0, 200));
+				else
+					pgs.apply(moves[rand.next_int(MoveGenerator.generate(pgs, moves))]);
+			}
+			if (pgs.getWinner() == searcher)
+				wins++;
+		}
+		assertEquals(true, wins > games / 2);
+	}
+
+	/**
+	 * Makes up to 'count' random moves in 'pgs', stopping early if the game ends.
+	 */
+	private static void play_randomly(PalaceGameState pgs, int count, PalaceRandom rand)
+	{
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		for (int i = 0; i < count && pgs.getWinner() < 0; i++)
+			pgs.apply(moves[rand.next_int(MoveGenerator.generate(pgs, moves))]);
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
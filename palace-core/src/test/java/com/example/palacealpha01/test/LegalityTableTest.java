@@ -0,0 +1,93 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.LegalityTable;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.Rank;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests LegalityTable.java against the rules PalaceGameState.isLegal() used to spell out, and checks
+ * that the playable zone PalaceGameState.java keeps for each player is always up to date.
+ */
+public class LegalityTableTest
+{
+	@Test
+	public void is_legal_test()
+	{
+		for (Rank rank : Rank.values())
+		{
+			assertEquals(true, LegalityTable.is_legal(LegalityTable.EMPTY_PILE, rank.get_int_value()));
+			for (Rank top : Rank.values())
+				assertEquals(top + " " + rank, old_rules(top, rank),
+							 LegalityTable.is_legal(top.get_int_value(), rank.get_int_value()));
+		}
+	}
+
+	@Test
+	public void playable_zone_test()
+	{
+		Random rand = new Random(11);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		for (int game = 0; game < 10; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			for (int turn = 0; turn < 1000; turn++)
+			{
+				check_zones(pgs);
+				check_zones(new PalaceGameState(pgs));
+
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0)
+					break;
+				long record = pgs.apply(moves[rand.nextInt(count)]);
+				if (rand.nextInt(5) == 0)
+				{
+					pgs.undo(record);
+					check_zones(pgs);
+					pgs.apply(moves[rand.nextInt(count)]);
+				}
+			}
+		}
+	}
+
+	private static void check_zones(PalaceGameState pgs)
+	{
+		assertEquals(zone(pgs, Location.PLAYER_ONE_HAND, Location.PLAYER_ONE_UPPER_PALACE, Location.PLAYER_ONE_LOWER_PALACE),
+					 pgs.getPlayableZone(0));
+		assertEquals(zone(pgs, Location.PLAYER_TWO_HAND, Location.PLAYER_TWO_UPPER_PALACE, Location.PLAYER_TWO_LOWER_PALACE),
+					 pgs.getPlayableZone(1));
+	}
+
+	private static Location zone(PalaceGameState pgs, Location hand, Location upper, Location lower)
+	{
+		if (pgs.getLocationSize(hand) > 0)
+			return hand;
+		if (pgs.getLocationSize(upper) > 0)
+			return upper;
+		return lower;
+	}
+
+	/**
+	 * The rank checks of isLegal() as they were written before the table.
+	 */
+	private static boolean old_rules(Rank top, Rank selected)
+	{
+		if (top == Rank.TWO || selected == Rank.TWO || selected == Rank.TEN)
+			return true;
+		else if (top == Rank.SEVEN && selected.get_int_value() <= Rank.SEVEN_INT)
+			return true;
+		else if (top != Rank.SEVEN && top.get_int_value() <= selected.get_int_value())
+			return true;
+		return false;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests MoveGenerator.java against a brute force listing of the moves built out of isLegal() calls,
+ * over a number of random games.
+ */
+public class MoveGeneratorTest
+{
+	@Test
+	public void new_game_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generate(pgs, moves);
+
+		// every card in the hand is legal on an empty discard pile, and it can't be taken
+		assertEquals(true, count >= 5);
+		for (int i = 0; i < count; i++)
+			assertEquals(PalaceMove.PLAY_CARDS, PalaceMove.get_type(moves[i]));
+		assert_same_moves(brute_force(pgs), moves, count);
+	}
+
+	@Test
+	public void random_games_test()
+	{
+		Random rand = new Random(2019);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+		for (int game = 0; game < 20; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			for (int turn = 0; turn < 1000; turn++)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0)
+					break; // the player to move has no cards left
+
+				assert_same_moves(brute_force(pgs), moves, count);
+				if (count > 1)
+					assertNotEquals(PalaceMove.TAKE_DISCARD_PILE, PalaceMove.get_type(moves[0]));
+				pgs.apply(moves[rand.nextInt(count)]);
+			}
+		}
+	}
+
+	/**
+	 * Lists the moves of the player whose turn it is by calling isLegal() on every card.
+	 */
+	private static int[] brute_force(PalaceGameState pgs)
+	{
+		int player = pgs.getTurn();
+		Location hand  = (player == 0) ? Location.PLAYER_ONE_HAND         : Location.PLAYER_TWO_HAND;
+		Location upper = (player == 0) ? Location.PLAYER_ONE_UPPER_PALACE : Location.PLAYER_TWO_UPPER_PALACE;
+		Location lower = (player == 0) ? Location.PLAYER_ONE_LOWER_PALACE : Location.PLAYER_TWO_LOWER_PALACE;
+		ArrayList<Integer> moves = new ArrayList<>();
+
+		int[] legal_suits = new int[13];
+		for (Pair p : pgs.the_deck)
+		{
+			if ((p.get_location() == hand || p.get_location() == upper) && pgs.isLegal(p))
+				legal_suits[p.get_card_id() / 4] |= 1 << (p.get_card_id() % 4);
+			if (p.get_location() == lower && pgs.getLocationSize(hand) == 0 && pgs.getLocationSize(upper) == 0)
+				moves.add(PalaceMove.play_lower_palace_card(p.get_card_id()));
+		}
+		for (int group = 0; group < 13; group++)
+			for (int subset = 1; subset < 16; subset++)
+				if ((subset & legal_suits[group]) == subset)
+					moves.add(PalaceMove.play_cards(group, subset));
+		if (! pgs.discardPile.is_empty())
+			moves.add(PalaceMove.take_discard_pile());
+
+		int[] rtn = new int[moves.size()];
+		for (int i = 0; i < rtn.length; i++)
+			rtn[i] = moves.get(i);
+		return rtn;
+	}
+
+	private static void assert_same_moves(int[] expected, int[] moves, int count)
+	{
+		int[] actual = Arrays.copyOf(moves, count);
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+	}
+}
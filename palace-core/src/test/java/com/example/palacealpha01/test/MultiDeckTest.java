@@ -0,0 +1,178 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.CardBitboard;
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests games played with several decks (see DeckLayout.java): the deal, masks that span several
+ * longs, and apply(), undo() and PalaceStateCodec.java on 104 and 156 card games.
+ */
+public class MultiDeckTest
+{
+	@Test
+	public void deal_test()
+	{
+		for (int decks = 1; decks <= DeckLayout.MAX_DECKS; decks++)
+		{
+			DeckLayout layout = DeckLayout.with_decks(decks);
+			PalaceGameState pgs = new PalaceGameState(layout);
+			assertEquals(52 * decks, pgs.the_deck.size());
+			assertEquals(5, pgs.getPlayerOneHandSize());
+			assertEquals(5, pgs.getPlayerTwoHandSize());
+			assertEquals(3, pgs.getLocationSize(Location.PLAYER_ONE_LOWER_PALACE));
+			assertEquals(3, pgs.getPlayerTwoUpperPalaceSize());
+			assertEquals(52 * decks - 22, pgs.getLocationSize(Location.DRAW_PILE));
+
+			// every card id is in the game once, as a copy of the card its id says
+			for (int id = 0; id < layout.get_card_count(); id++)
+			{
+				assertEquals(id, pgs.getPair(id).get_card_id());
+				assertEquals(layout.get_card(id), pgs.getPair(id).get_card());
+				assertEquals(layout.get_rank_group(id), pgs.getPair(id).get_card().get_id() / 4);
+			}
+		}
+
+		PalaceGameState big = new PalaceGameState(new DeckLayout(2, 4, 4, 8));
+		assertEquals(8, big.getPlayerOneHandSize());
+		assertEquals(4, big.getPlayerTwoUpperPalaceSize());
+		assertEquals(16, big.getCardsLeft(0));
+	}
+
+	@Test
+	public void mask_test()
+	{
+		// with three decks, the twelve THREEs, FOURs, ... do not line up with the 64-bit words
+		CardBitboard board = new CardBitboard(DeckLayout.with_decks(3).get_card_count());
+		for (int id = 60; id < 72; id++)
+			board.move(id, Location.PLAYER_ONE_HAND);
+		board.move(130, Location.PLAYER_ONE_HAND);
+
+		assertEquals(0x0FFFL, board.get_bits(Location.PLAYER_ONE_HAND, 60, 12));
+		assertEquals(13, board.count(Location.PLAYER_ONE_HAND));
+		long[] mask = board.get_mask(Location.PLAYER_ONE_HAND, new long[board.get_words()]);
+		assertEquals(13, CardBitboard.count_cards(mask));
+		assertEquals(60, CardBitboard.next_card(mask, 0));
+		assertEquals(64, CardBitboard.next_card(mask, 64));
+		assertEquals(130, CardBitboard.next_card(mask, 72));
+		assertEquals(-1, CardBitboard.next_card(mask, 131));
+		assertEquals(true, board.contains_all(Location.PLAYER_ONE_HAND, mask));
+
+		board.move_all(Location.PLAYER_ONE_HAND, Location.DEAD_PILE);
+		assertEquals(true, board.is_empty(Location.PLAYER_ONE_HAND));
+		assertEquals(Location.DEAD_PILE, board.get_location(130));
+	}
+
+	@Test
+	public void apply_undo_test()
+	{
+		Random rand = new Random(18);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+		for (int decks = 2; decks <= 3; decks++)
+		{
+			DeckLayout layout = DeckLayout.with_decks(decks);
+			PalaceGameState pgs = new PalaceGameState(layout);
+			PalaceGameState decoded = new PalaceGameState(layout);
+			long[] records = new long[2000];
+			byte[][] before = new byte[records.length][];
+			int applied = 0;
+
+			while (applied < records.length)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0 || pgs.getCardsLeft(0) == 0 || pgs.getCardsLeft(1) == 0)
+					break;
+				before[applied] = encode(pgs);
+				records[applied++] = pgs.apply(moves[rand.nextInt(count)]);
+
+				assertEquals(pgs.computeHash(), pgs.getHash());
+				int placed = 0;
+				for (Location location : Location.values())
+					placed += pgs.getLocationSize(location);
+				assertEquals(layout.get_card_count(), placed);
+
+				PalaceStateCodec.decode(ByteBuffer.wrap(encode(pgs)), decoded);
+				assertEquals(pgs.getHash(), decoded.getHash());
+			}
+			assertEquals(true, applied > 100);
+
+			while (applied > 0)
+			{
+				pgs.undo(records[--applied]);
+				assertArrayEquals(before[applied], encode(pgs));
+			}
+		}
+	}
+
+	@Test
+	public void play_card_set_test()
+	{
+		Random rand = new Random(19);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		DeckLayout layout = DeckLayout.with_decks(3);
+		PalaceGameState pgs = new PalaceGameState(layout);
+
+		for (int turn = 0; turn < 300; turn++)
+		{
+			int count = MoveGenerator.generate(pgs, moves);
+			if (count == 0 || pgs.getCardsLeft(0) == 0 || pgs.getCardsLeft(1) == 0)
+				break;
+			int move = moves[rand.nextInt(count)];
+			if (PalaceMove.get_type(move) != PalaceMove.PLAY_CARDS)
+			{
+				pgs.apply(move);
+				continue;
+			}
+
+			long[] cards = PalaceMove.get_card_mask(move, layout.get_group_size(), new long[layout.get_mask_words()]);
+			assertEquals(PalaceMove.get_card_count(move), CardBitboard.count_cards(cards));
+			PalaceGameState expected = new PalaceGameState(pgs);
+			expected.apply(move);
+			assertEquals(true, pgs.playCardSet(pgs.getTurn(), cards));
+			assertEquals(expected.getHash(), pgs.getHash());
+		}
+	}
+
+	@Test
+	public void codec_layout_test()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(new PalaceGameState(DeckLayout.with_decks(2)), buffer);
+		assertEquals(true, buffer.position() <= PalaceStateCodec.encoded_size(104));
+		buffer.flip();
+		try
+		{
+			PalaceStateCodec.decode(buffer, new PalaceGameState());
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			// a two deck state does not fit a one deck state
+		}
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -109,30 +109,6 @@ public class PairTest
 		assertEquals(PLAYER_TWO_UPPER_PALACE, test_pair_five .get_location());
 	}
 
-	@Test
-	public void getX_test()
-	{
-		// TODO: write a test here
-	}
-
-	@Test
-	public void getY_test()
-	{
-		// TODO: write a test here
-	}
-
-	@Test
-	public void setX_test()
-	{
-		// TODO: write a test here
-	}
-
-	@Test
-	public void setY_test()
-	{
-		// TODO: write a test here
-	}
-
 	@Test
 	public void toString_test()
 	{
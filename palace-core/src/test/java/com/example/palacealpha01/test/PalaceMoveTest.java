@@ -0,0 +1,167 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests PalaceMove.java's encoding, and checks that PalaceGameState.java's apply() gives exactly the
+ * same results as the mutators PalaceLocalGame.java calls, and that undo() takes every move back.
+ */
+public class PalaceMoveTest
+{
+	@Test
+	public void encoding_test()
+	{
+		int move = PalaceMove.play_card(13, 4);
+		assertEquals(PalaceMove.PLAY_CARDS, PalaceMove.get_type(move));
+		assertEquals(3, PalaceMove.get_rank_group(move));
+		assertEquals(1 << 1, PalaceMove.get_suit_mask(move));
+
+		move = PalaceMove.with_card(move, 15, 4);
+		assertEquals(2, PalaceMove.get_card_count(move));
+		assertEquals((1 << 1) | (1 << 3), PalaceMove.get_suit_mask(move));
+		assertEquals(PalaceMove.play_cards(3, 0x0A), move);
+
+		move = PalaceMove.play_lower_palace_card(51);
+		assertEquals(PalaceMove.PLAY_LOWER_PALACE_CARD, PalaceMove.get_type(move));
+		assertEquals(51, PalaceMove.get_card_id(move));
+
+		assertEquals(PalaceMove.TAKE_DISCARD_PILE, PalaceMove.get_type(PalaceMove.take_discard_pile()));
+	}
+
+	@Test
+	public void apply_and_undo_test()
+	{
+		Random rand = new Random(301);
+		for (int game = 0; game < 20; game++)
+			play_game(rand);
+	}
+
+	/**
+	 * Plays one game with random moves, applying every move both with apply() and with the old
+	 * mutators, then undoes the whole game move by move.
+	 */
+	private static void play_game(Random rand)
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		PalaceGameState reference = new PalaceGameState(pgs);
+		long[] records = new long[1000];
+		byte[][] before = new byte[1000][];
+		int moves = 0;
+
+		while (moves < records.length && !is_over(pgs))
+		{
+			int move = random_move(pgs, rand);
+			before[moves] = encode(pgs);
+			records[moves++] = pgs.apply(move);
+			apply_the_old_way(reference, move);
+
+			assertArrayEquals(encode(reference), encode(pgs));
+			assertEquals(reference.getHash(), pgs.getHash());
+			assertEquals(pgs.computeHash(), pgs.getHash());
+		}
+
+		while (moves > 0)
+		{
+			pgs.undo(records[--moves]);
+			assertArrayEquals(before[moves], encode(pgs));
+			assertEquals(pgs.computeHash(), pgs.getHash());
+		}
+	}
+
+	/**
+	 * Makes a move the way PalaceLocalGame.makeMove() does, through the selected cards.
+	 */
+	private static void apply_the_old_way(PalaceGameState pgs, int move)
+	{
+		int player = pgs.getTurn();
+		int other = (player == 0) ? 1 : 0;
+		switch (PalaceMove.get_type(move))
+		{
+			case PalaceMove.PLAY_CARDS:
+				for (int i = 0; i < 4; i++)
+					if ((PalaceMove.get_suit_mask(move) & (1 << i)) != 0)
+						pgs.selectCards(player, pgs.getPair(PalaceMove.get_rank_group(move) * 4 + i));
+				pgs.playCards(player);
+				if (!pgs.discardPile.is_empty())
+					pgs.setTurn(other);
+				break;
+			case PalaceMove.PLAY_LOWER_PALACE_CARD:
+				pgs.playLowerPalaceCard(player, pgs.getPair(PalaceMove.get_card_id(move)));
+				int hand_size = (player == 0) ? pgs.getPlayerOneHandSize() : pgs.getPlayerTwoHandSize();
+				if (! (pgs.discardPile.is_empty() && hand_size == 0))
+					pgs.setTurn(other);
+				break;
+			case PalaceMove.TAKE_DISCARD_PILE:
+				pgs.takeDiscardPile(player);
+				pgs.setTurn(other);
+				break;
+		}
+	}
+
+	/**
+	 * Picks a random legal move for the player whose turn it is. Sometimes several cards of the same
+	 * rank are played at once, and sometimes the discard pile is taken even though a card could be
+	 * played.
+	 */
+	private static int random_move(PalaceGameState pgs, Random rand)
+	{
+		int player = pgs.getTurn();
+		Location hand  = (player == 0) ? Location.PLAYER_ONE_HAND         : Location.PLAYER_TWO_HAND;
+		Location upper = (player == 0) ? Location.PLAYER_ONE_UPPER_PALACE : Location.PLAYER_TWO_UPPER_PALACE;
+		Location lower = (player == 0) ? Location.PLAYER_ONE_LOWER_PALACE : Location.PLAYER_TWO_LOWER_PALACE;
+
+		Location zone = (pgs.getLocationSize(hand) > 0) ? hand : upper;
+		if (pgs.getLocationSize(zone) == 0)
+		{
+			ArrayList<Pair> cards = pgs.getCardsAt(lower, new ArrayList<Pair>());
+			return PalaceMove.play_lower_palace_card(cards.get(rand.nextInt(cards.size())).get_card_id());
+		}
+
+		ArrayList<Pair> legal = new ArrayList<>();
+		for (Pair p : pgs.getCardsAt(zone, new ArrayList<Pair>()))
+			if (pgs.isLegal(p))
+				legal.add(p);
+		if (legal.isEmpty() || (!pgs.discardPile.is_empty() && rand.nextInt(10) == 0))
+			return PalaceMove.take_discard_pile();
+
+		Pair first = legal.get(rand.nextInt(legal.size()));
+		int move = PalaceMove.play_card(first.get_card_id(), 4);
+		for (Pair p : legal)
+			if (p.get_card().get_rank() == first.get_card().get_rank() && rand.nextBoolean())
+				move = PalaceMove.with_card(move, p.get_card_id(), 4);
+		return move;
+	}
+
+	private static boolean is_over(PalaceGameState pgs)
+	{
+		return pgs.getLocationSize(Location.PLAYER_ONE_HAND) + pgs.getLocationSize(Location.PLAYER_ONE_UPPER_PALACE)
+			   + pgs.getLocationSize(Location.PLAYER_ONE_LOWER_PALACE) == 0
+			|| pgs.getLocationSize(Location.PLAYER_TWO_HAND) + pgs.getLocationSize(Location.PLAYER_TWO_UPPER_PALACE)
+			   + pgs.getLocationSize(Location.PLAYER_TWO_LOWER_PALACE) == 0;
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests PalaceRandom.java, and checks that a game shuffled with a seeded generator is dealt the
+ * same cards every time.
+ */
+public class PalaceRandomTest
+{
+	@Test
+	public void same_seed_test()
+	{
+		PalaceRandom a = new PalaceRandom(20);
+		PalaceRandom b = new PalaceRandom(20);
+		for (int i = 0; i < 1000; i++)
+			assertEquals(a.next_long(), b.next_long());
+
+		PalaceRandom copy = new PalaceRandom(a);
+		for (int i = 0; i < 1000; i++)
+			assertEquals(a.next_int(52), copy.next_int(52));
+
+		assertNotEquals(new PalaceRandom(20).next_long(), new PalaceRandom(21).next_long());
+		assertNotEquals(new PalaceRandom().next_long(), new PalaceRandom().next_long());
+	}
+
+	@Test
+	public void split_test()
+	{
+		PalaceRandom parent = new PalaceRandom(20);
+		PalaceRandom child = parent.split();
+		PalaceRandom again = new PalaceRandom(20).split();
+
+		// a child is as reproducible as its parent, but does not repeat its parent's numbers
+		long[] parent_numbers = new long[100];
+		for (int i = 0; i < 100; i++)
+		{
+			long n = child.next_long();
+			assertEquals(n, again.next_long());
+			parent_numbers[i] = parent.next_long();
+		}
+		Arrays.sort(parent_numbers);
+		PalaceRandom child_again = new PalaceRandom(20).split();
+		for (int i = 0; i < 100; i++)
+			assertEquals(true, Arrays.binarySearch(parent_numbers, child_again.next_long()) < 0);
+	}
+
+	@Test
+	public void next_int_test()
+	{
+		PalaceRandom random = new PalaceRandom(20);
+		int[] counts = new int[7];
+		for (int i = 0; i < 70000; i++)
+			counts[random.next_int(7)]++;
+		for (int count : counts)
+			assertEquals(true, count > 9000 && count < 11000);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			double d = random.next_double();
+			assertEquals(true, d >= 0.0 && d < 1.0);
+		}
+		assertEquals(0, random.next_int(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bad_bound_test()
+	{
+		new PalaceRandom(20).next_int(0);
+	}
+
+	@Test
+	public void shuffle_test()
+	{
+		ArrayList<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 52; i++)
+			list.add(i);
+		new PalaceRandom(20).shuffle(list);
+
+		ArrayList<Integer> sorted = new ArrayList<>(list);
+		Collections.sort(sorted);
+		for (int i = 0; i < 52; i++)
+			assertEquals(i, (int) sorted.get(i));
+		assertNotEquals(sorted, list);
+	}
+
+	@Test
+	public void seeded_deal_test()
+	{
+		for (int decks = 1; decks <= 2; decks++)
+		{
+			DeckLayout layout = DeckLayout.with_decks(decks);
+			byte[] first = encode(new PalaceGameState(layout, new PalaceRandom(20)));
+			assertArrayEquals(first, encode(new PalaceGameState(layout, new PalaceRandom(20))));
+			assertEquals(false, Arrays.equals(first, encode(new PalaceGameState(layout, new PalaceRandom(21)))));
+		}
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Card;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_HAND;
+import static org.junit.Assert.*;
+
+/**
+ * Tests PalaceStateCodec.java by checking that encoding a state and decoding it again gives the
+ * same state as PalaceGameState.java's deep copy constructor does.
+ */
+public class PalaceStateCodecTest
+{
+	@Test
+	public void new_game_round_trip_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+
+		PalaceStateCodec.encode(pgs, buffer);
+		buffer.flip();
+		PalaceGameState decoded = new PalaceGameState();
+		PalaceStateCodec.decode(buffer, decoded);
+
+		assertEquals(false, buffer.hasRemaining());
+		assert_same_state(new PalaceGameState(pgs), decoded);
+	}
+
+	@Test
+	public void change_palace_round_trip_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		pgs.changePalace(1);
+		pgs.setTurn(1);
+		ArrayList<Pair> hand = pgs.getCardsAt(PLAYER_TWO_HAND, new ArrayList<Pair>());
+		pgs.selectPalaceCards(1, hand.get(0));
+		pgs.selectPalaceCards(1, hand.get(3));
+
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		buffer.flip();
+		PalaceGameState decoded = new PalaceGameState();
+		PalaceStateCodec.decode(buffer, decoded);
+		assert_same_state(new PalaceGameState(pgs), decoded);
+
+		// both states carry on in the same way
+		pgs.selectPalaceCards(1, hand.get(4));
+		decoded.selectPalaceCards(1, decoded.getPair(hand.get(4).get_card_id()));
+		assertEquals(true, pgs.confirmPalace(1));
+		assertEquals(true, decoded.confirmPalace(1));
+		assert_same_state(pgs, decoded);
+	}
+
+	@Test
+	public void whole_game_round_trip_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		PalaceGameState decoded = new PalaceGameState();
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE * 2);
+		ArrayList<Pair> cards = new ArrayList<>();
+
+		for (int turn = 0; turn < 200; turn++)
+		{
+			int player = turn % 2;
+			Location hand = (player == 0) ? PLAYER_ONE_HAND : PLAYER_TWO_HAND;
+			Pair legal = null;
+			for (Pair p : pgs.getCardsAt(hand, cards))
+				if (pgs.isLegal(p))
+				{
+					legal = p;
+					break;
+				}
+			if (legal != null && pgs.selectCards(player, legal))
+				pgs.playCards(player);
+			else
+				pgs.takeDiscardPile(player);
+			pgs.setTurn(1 - player);
+
+			// encode behind another state, to make sure positions are handled properly
+			buffer.clear();
+			PalaceStateCodec.encode(new PalaceGameState(), buffer);
+			int start = buffer.position();
+			PalaceStateCodec.encode(pgs, buffer);
+			int end = buffer.position();
+			assertEquals(true, end - start <= PalaceStateCodec.MAX_ENCODED_SIZE);
+
+			buffer.position(start);
+			PalaceStateCodec.decode(buffer, decoded);
+			assertEquals(end, buffer.position());
+			assert_same_state(new PalaceGameState(pgs), decoded);
+		}
+	}
+
+	@Test
+	public void decode_into_snapshot_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		PalaceGameState other = new PalaceGameState();
+		PalaceGameState snapshot = other.snapshot();
+		PalaceGameState other_copy = new PalaceGameState(other);
+
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		buffer.flip();
+		PalaceStateCodec.decode(buffer, other);
+
+		assert_same_state(pgs, other);
+		assert_same_state(other_copy, snapshot);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknown_format_test()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(new PalaceGameState(), buffer);
+		buffer.put(0, (byte) (PalaceStateCodec.FORMAT + 1));
+		buffer.flip();
+		PalaceStateCodec.decode(buffer, new PalaceGameState());
+	}
+
+	/**
+	 * Checks everything a deep copy of a state preserves.
+	 */
+	private static void assert_same_state(PalaceGameState expected, PalaceGameState actual)
+	{
+		assertEquals(expected.getTurn(),               actual.getTurn());
+		assertEquals(expected.getIsChangingPalace(),   actual.getIsChangingPalace());
+		assertEquals(expected.getP1CanChangePalace(),  actual.getP1CanChangePalace());
+		assertEquals(expected.getP2CanChangePalace(),  actual.getP2CanChangePalace());
+		assertEquals(expected.getWasBombed(),          actual.getWasBombed());
+
+		assertEquals(expected.the_deck, actual.the_deck);
+		assertEquals(expected.discardPile, actual.discardPile);
+		assertEquals(expected.discardPile.top_run_length(), actual.discardPile.top_run_length());
+		assertEquals(expected.getSelectedCards(), actual.getSelectedCards());
+
+		ArrayList<Pair> expected_cards = new ArrayList<>();
+		ArrayList<Pair> actual_cards = new ArrayList<>();
+		for (Location location : Location.values())
+			assertEquals(expected.getCardsAt(location, expected_cards), actual.getCardsAt(location, actual_cards));
+		for (int id = 0; id < Card.DECK_SIZE; id++)
+			assertEquals(expected.getPair(id), actual.getPair(id));
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.InformationSetSearch;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.ParallelSearch;
+import com.example.palacealpha01.GameFramework.palace.TranspositionTable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests ParallelSearch.java: that the workers share out an iteration budget, that merging their trees
+ * adds up their visits, also when they share a table, and that a seeded search picks the same move
+ * every time.
+ */
+public class ParallelSearchTest
+{
+	@Test
+	public void merge_test()
+	{
+		PalaceGameState pgs = dealt(22);
+		ParallelSearch search = new ParallelSearch(InformationSetSearch.FACTORY, 4, new PalaceRandom(22));
+		search.run(pgs, 0, 1001);
+		assertEquals(1001, search.get_iterations());
+
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int[] visits = new int[MoveGenerator.MAX_MOVES];
+		int count = search.get_root_moves(pgs, moves, visits);
+
+		int[] legal = new int[MoveGenerator.MAX_MOVES];
+		int legal_count = MoveGenerator.generate(pgs, legal);
+		int total = 0;
+		for (int i = 0; i < count; i++)
+		{
+			total += visits[i];
+			boolean found = false;
+			for (int j = 0; j < legal_count; j++)
+				found |= legal[j] == moves[i];
+			assertEquals(true, found);
+			for (int j = 0; j < i; j++)
+				assertNotEquals(moves[j], moves[i]);
+		}
+		// every iteration visits exactly one of the root's children
+		assertEquals(1001, total);
+	}
+
+	@Test
+	public void shared_table_test()
+	{
+		// what the workers take from the table only steers them: the merged root still counts each
+		// iteration once, however much an earlier search left in the table
+		PalaceGameState pgs = dealt(22);
+		TranspositionTable table = new TranspositionTable(12);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int[] visits = new int[MoveGenerator.MAX_MOVES];
+		int[] legal = new int[MoveGenerator.MAX_MOVES];
+		int legal_count = MoveGenerator.generate(pgs, legal);
+
+		for (int run = 0; run < 3; run++)
+		{
+			ParallelSearch search = new ParallelSearch(InformationSetSearch.FACTORY, 4, new PalaceRandom(22 + run));
+			search.set_table(table);
+			int best = search.search(pgs, 0, 1001);
+			assertEquals(1001, search.get_iterations());
+
+			int count = search.get_root_moves(pgs, moves, visits);
+			int total = 0;
+			for (int i = 0; i < count; i++)
+				total += visits[i];
+			assertEquals(1001, total);
+
+			boolean found = false;
+			for (int j = 0; j < legal_count; j++)
+				found |= legal[j] == best;
+			assertEquals(true, found);
+		}
+	}
+
+	@Test
+	public void seeded_test()
+	{
+		PalaceGameState pgs = dealt(22);
+		int first = new ParallelSearch(InformationSetSearch.FACTORY, 3, new PalaceRandom(7)).search(pgs, 0, 600);
+		for (int i = 0; i < 3; i++)
+			assertEquals(first, new ParallelSearch(InformationSetSearch.FACTORY, 3, new PalaceRandom(7)).search(pgs, 0, 600));
+	}
+
+	@Test
+	public void small_budget_test()
+	{
+		// fewer iterations than workers: only as many workers as iterations search
+		ParallelSearch search = new ParallelSearch(InformationSetSearch.FACTORY, 4, new PalaceRandom(22));
+		search.run(dealt(22), 0, 2);
+		assertEquals(2, search.get_iterations());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void no_workers_test()
+	{
+		new ParallelSearch(InformationSetSearch.FACTORY, 0, new PalaceRandom(22));
+	}
+
+	/**
+	 * Returns a seeded deal, a few random moves in.
+	 */
+	private static PalaceGameState dealt(long seed)
+	{
+		PalaceRandom rand = new PalaceRandom(seed);
+		PalaceGameState pgs = new PalaceGameState(DeckLayout.with_decks(1), rand.split());
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		for (int i = 0; i < 6; i++)
+			pgs.apply(moves[rand.next_int(MoveGenerator.generate(pgs, moves))]);
+		return pgs;
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceMove;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests PalaceGameState.playCardSet(): every set of cards MoveGenerator.java lists as a legal play
+ * is played exactly as apply() plays it, and every other set is turned down without changing the
+ * state.
+ */
+public class PlayCardSetTest
+{
+	@Test
+	public void random_games_test()
+	{
+		Random rand = new Random(16);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+		for (int game = 0; game < 20; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			for (int turn = 0; turn < 1000; turn++)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				if (count == 0)
+					break;
+				int player = pgs.getTurn();
+
+				// random sets of cards are only played if they are one of the legal plays
+				for (int i = 0; i < 5; i++)
+				{
+					long cards = (rand.nextInt(3) == 0) ? rand.nextLong() : (long) (rand.nextInt(15) + 1) << (rand.nextInt(13) * 4);
+					if (is_listed(cards, moves, count))
+						continue;
+					long hash = pgs.getHash();
+					assertEquals(false, pgs.playCardSet(player, new long[] {cards}));
+					assertEquals(hash, pgs.getHash());
+				}
+
+				int move = moves[rand.nextInt(count)];
+				if (PalaceMove.get_type(move) == PalaceMove.PLAY_CARDS)
+				{
+					assertEquals(false, pgs.playCardSet(1 - player, card_mask(move)));
+
+					PalaceGameState expected = new PalaceGameState(pgs);
+					expected.apply(move);
+					assertEquals(true, pgs.playCardSet(player, card_mask(move)));
+					assertEquals(expected.getHash(), pgs.getHash());
+					assertEquals(expected.getTurn(), pgs.getTurn());
+					for (Location location : Location.values())
+						assertArrayEquals(expected.getLocationMask(location, new long[1]), pgs.getLocationMask(location, new long[1]));
+				}
+				else
+				{
+					pgs.apply(move);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void no_undo_stack_test()
+	{
+		// the state a game is played on is never undone, so playing on it keeps nothing for undo()
+		Random rand = new Random(16);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+		for (int game = 0; game < 20; game++)
+		{
+			PalaceGameState pgs = new PalaceGameState();
+			for (int turn = 0; turn < 1000 && pgs.getWinner() < 0; turn++)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				int player = pgs.getTurn();
+				int move = moves[rand.nextInt(count)];
+				if (PalaceMove.get_type(move) == PalaceMove.PLAY_CARDS)
+					assertEquals(true, pgs.playCardSet(player, card_mask(move)));
+				else if (pgs.takeDiscardPile(player))
+					pgs.setTurn(pgs.getNextPlayer(player));
+				else
+					break;
+				assertEquals(0, pgs.getUndoDepth());
+			}
+		}
+	}
+
+	private static boolean is_listed(long cards, int[] moves, int count)
+	{
+		for (int i = 0; i < count; i++)
+			if (PalaceMove.get_type(moves[i]) == PalaceMove.PLAY_CARDS && card_mask(moves[i])[0] == cards)
+				return true;
+		return false;
+	}
+
+	private static long[] card_mask(int move)
+	{
+		return PalaceMove.get_card_mask(move, 4, new long[1]);
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.DeckLayout;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.MoveGenerator;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests games of more than two players: the seats' Locations (see Location.java), the deal, the
+ * turn order, the per-player counts, and apply(), undo() and PalaceStateCodec.java at tables of up
+ * to eight.
+ */
+public class SeatTest
+{
+	@Test
+	public void location_test()
+	{
+		assertEquals(Location.PLAYER_ONE_HAND, Location.hand(0));
+		assertEquals(Location.PLAYER_TWO_UPPER_PALACE, Location.upper_palace(1));
+		assertEquals(Location.PLAYER_EIGHT_LOWER_PALACE, Location.lower_palace(7));
+		assertEquals(-1, Location.DISCARD_PILE.get_seat());
+
+		for (int seat = 0; seat < Location.MAX_SEATS; seat++)
+			for (int kind = 0; kind < Location.KINDS; kind++)
+			{
+				Location location = Location.of_seat(seat, kind);
+				assertEquals(seat, location.get_seat());
+				assertEquals(kind, location.get_kind());
+				assertEquals(true, location.ordinal() < Location.location_count(seat + 1));
+			}
+
+		// a two player game only uses the Locations it always did
+		assertEquals(Location.DEAD_PILE.ordinal() + 1, Location.location_count(2));
+		assertEquals(Location.values().length, Location.location_count(Location.MAX_SEATS));
+	}
+
+	@Test
+	public void deal_test()
+	{
+		for (int players = 2; players <= DeckLayout.MAX_PLAYERS; players++)
+		{
+			DeckLayout layout = DeckLayout.with_players(players);
+			PalaceGameState pgs = new PalaceGameState(layout);
+			assertEquals(players, pgs.getPlayerCount());
+			assertEquals(layout.get_card_count() - (11 * players), pgs.getLocationSize(Location.DRAW_PILE));
+
+			for (int seat = 0; seat < players; seat++)
+			{
+				assertEquals(5, pgs.getLocationSize(Location.hand(seat)));
+				assertEquals(3, pgs.getLocationSize(Location.upper_palace(seat)));
+				assertEquals(3, pgs.getLocationSize(Location.lower_palace(seat)));
+				assertEquals(11, pgs.getCardsLeft(seat));
+				assertEquals(Location.hand(seat), pgs.getPlayableZone(seat));
+				assertEquals(true, pgs.getCanChangePalace(seat));
+				assertEquals((seat + 1) % players, pgs.getNextPlayer(seat));
+			}
+			for (int seat = players; seat < Location.MAX_SEATS; seat++)
+				assertEquals(0, pgs.getLocationSize(Location.hand(seat)));
+			assertEquals(-1, pgs.getWinner());
+		}
+		assertEquals(1, DeckLayout.with_players(4).get_decks());
+		assertEquals(2, DeckLayout.with_players(5).get_decks());
+
+		// a game set up for two and started with more players gets the decks it needs
+		assertEquals(1, DeckLayout.STANDARD.for_players(4).get_decks());
+		assertEquals(2, DeckLayout.STANDARD.for_players(8).get_decks());
+		assertEquals(3, DeckLayout.with_decks(3).for_players(8).get_decks());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void too_many_players_test()
+	{
+		new DeckLayout(1, 5, 3, 3, 5);
+	}
+
+	@Test
+	public void apply_undo_test()
+	{
+		Random rand = new Random(19);
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+		for (int players = 3; players <= DeckLayout.MAX_PLAYERS; players += 3)
+		{
+			DeckLayout layout = DeckLayout.with_players(players);
+			PalaceGameState pgs = new PalaceGameState(layout);
+			PalaceGameState decoded = new PalaceGameState(layout);
+			long[] records = new long[3000];
+			byte[][] before = new byte[records.length][];
+			int applied = 0;
+
+			while (applied < records.length && pgs.getWinner() < 0)
+			{
+				int count = MoveGenerator.generate(pgs, moves);
+				before[applied] = encode(pgs);
+				int turn = pgs.getTurn();
+				records[applied++] = pgs.apply(moves[rand.nextInt(count)]);
+
+				// the turn only ever passes to the next player
+				assertEquals(true, pgs.getTurn() == turn || pgs.getTurn() == pgs.getNextPlayer(turn));
+				assertEquals(pgs.computeHash(), pgs.getHash());
+				check_cards_left(pgs);
+
+				PalaceStateCodec.decode(ByteBuffer.wrap(encode(pgs)), decoded);
+				assertEquals(pgs.getHash(), decoded.getHash());
+				check_cards_left(decoded);
+			}
+			assertEquals(true, applied > 100);
+
+			while (applied > 0)
+			{
+				pgs.undo(records[--applied]);
+				assertArrayEquals(before[applied], encode(pgs));
+			}
+			check_cards_left(pgs);
+		}
+	}
+
+	@Test
+	public void change_palace_test()
+	{
+		PalaceGameState pgs = new PalaceGameState(DeckLayout.with_players(4));
+		long start = pgs.getHash();
+		assertEquals(true, pgs.changePalace(3));
+		assertEquals(8, pgs.getLocationSize(Location.PLAYER_FOUR_HAND));
+		assertEquals(0, pgs.getLocationSize(Location.PLAYER_FOUR_UPPER_PALACE));
+		assertEquals(11, pgs.getCardsLeft(3));
+		assertEquals(pgs.computeHash(), pgs.getHash());
+		assertNotEquals(start, pgs.getHash());
+		assertEquals(false, pgs.changePalace(4));
+	}
+
+	/**
+	 * Checks that the counts the state keeps match the cards actually in each seat's Locations.
+	 */
+	private static void check_cards_left(PalaceGameState pgs)
+	{
+		int winner = -1;
+		for (int seat = pgs.getPlayerCount() - 1; seat >= 0; seat--)
+		{
+			int cards = pgs.getLocationSize(Location.hand(seat)) + pgs.getLocationSize(Location.upper_palace(seat))
+						+ pgs.getLocationSize(Location.lower_palace(seat));
+			assertEquals(cards, pgs.getCardsLeft(seat));
+			if (cards == 0)
+				winner = seat;
+		}
+		assertEquals(winner, pgs.getWinner());
+	}
+
+	private static byte[] encode(PalaceGameState pgs)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		PalaceStateCodec.encode(pgs, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+		return bytes;
+	}
+}
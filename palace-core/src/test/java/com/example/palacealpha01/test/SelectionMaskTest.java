@@ -0,0 +1,82 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the selected card mask of PalaceGameState.java always agrees with its list of selected
+ * cards.
+ */
+public class SelectionMaskTest
+{
+	@Test
+	public void select_palace_cards_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		pgs.changePalace(0);
+		ArrayList<Pair> hand = pgs.getCardsAt(PLAYER_ONE_HAND, new ArrayList<Pair>());
+
+		assertEquals(true, pgs.selectPalaceCards(0, hand.get(0)));
+		assertEquals(true, pgs.selectPalaceCards(0, hand.get(2)));
+		assertEquals(true, pgs.selectPalaceCards(0, hand.get(4)));
+		assert_mask_agrees(pgs);
+		assertEquals(false, pgs.selectPalaceCards(0, hand.get(1))); // only three at once
+		assertEquals(false, pgs.isSelected(hand.get(1)));
+
+		// deselecting keeps the order of the others
+		assertEquals(true, pgs.selectPalaceCards(0, hand.get(2)));
+		assert_mask_agrees(pgs);
+		assertEquals(2, pgs.getSelectedCards().size());
+		assertEquals(hand.get(0).get_card_id(), pgs.getSelectedCards().get(0).get_card_id());
+		assertEquals(hand.get(4).get_card_id(), pgs.getSelectedCards().get(1).get_card_id());
+
+		assertEquals(true, pgs.selectPalaceCards(0, hand.get(3)));
+		assertEquals(true, pgs.confirmPalace(0));
+		assertEquals(0L, pgs.getSelectedMask(new long[1])[0]);
+		assert_mask_agrees(pgs);
+	}
+
+	@Test
+	public void select_cards_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		ArrayList<Pair> hand = pgs.getCardsAt(PLAYER_ONE_HAND, new ArrayList<Pair>());
+
+		assertEquals(true, pgs.selectCards(0, hand.get(0)));
+		for (int i = 1; i < hand.size(); i++)
+		{
+			boolean same_rank = hand.get(i).get_card().get_rank() == hand.get(0).get_card().get_rank();
+			assertEquals(same_rank, pgs.selectCards(0, hand.get(i)));
+			assert_mask_agrees(pgs);
+		}
+
+		// a snapshot keeps its own selection
+		PalaceGameState snapshot = pgs.snapshot();
+		assertEquals(true, pgs.selectCards(0, hand.get(0)));
+		assertEquals(false, pgs.isSelected(hand.get(0)));
+		assertEquals(true, snapshot.isSelected(hand.get(0)));
+		assert_mask_agrees(pgs);
+		assert_mask_agrees(snapshot);
+	}
+
+	private static void assert_mask_agrees(PalaceGameState pgs)
+	{
+		long mask = 0L;
+		for (Pair p : pgs.getSelectedCards())
+			mask |= 1L << p.get_card_id();
+		assertEquals(pgs.getSelectedCards().size(), Long.bitCount(mask));
+		assertEquals(mask, pgs.getSelectedMask(new long[1])[0]);
+		for (Pair p : pgs.the_deck)
+			assertEquals(pgs.getSelectedCards().contains(p), pgs.isSelected(p));
+	}
+}
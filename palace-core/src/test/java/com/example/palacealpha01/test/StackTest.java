@@ -431,4 +431,45 @@ public class StackTest
 		stack.push(test_pair_five);
 		assertEquals(5, stack.size());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Stack.java keeps the length of the top same-Rank run as Pairs are pushed, so popping a Pair has
+	 * to bring back the run that was underneath it. This test also pushes past the Stack's initial
+	 * capacity, and checks that a copy is unaffected by changes to the original.
+	 */
+	@Test
+	public void top_run_length_test()
+	{
+		Pair ace_clubs  = new Pair(new Card(ACE,  CLUBS), PLAYER_ONE_HAND);
+		Pair ace_spades = new Pair(new Card(ACE,  SPADES), PLAYER_ONE_HAND);
+		Pair four_clubs = new Pair(new Card(FOUR, CLUBS), PLAYER_ONE_HAND);
+
+		Stack stack = new Stack();
+		assertEquals(0, stack.top_run_length());
+
+		for (int i = 0; i < 40; i++)
+			stack.push(four_clubs);
+		assertEquals(40, stack.size());
+		assertEquals(40, stack.top_run_length());
+
+		stack.push(ace_clubs);
+		stack.push(ace_spades);
+		assertEquals(2, stack.top_run_length());
+		assertEquals(false, stack.are_next_four_equal());
+
+		Stack copy = new Stack(stack);
+		assertEquals(true, copy.equals(stack));
+
+		stack.pop();
+		stack.pop();
+		assertEquals(40, stack.top_run_length());
+		assertEquals(true, stack.are_next_four_equal());
+		assertEquals(2, copy.top_run_length());
+		assertEquals(42, copy.size());
+		assertEquals(ace_clubs, copy.get(40));
+
+		stack.clear();
+		assertEquals(0, stack.top_run_length());
+		assertEquals(null, stack.pop());
+	}
+}
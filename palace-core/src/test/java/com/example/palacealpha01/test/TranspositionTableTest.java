@@ -0,0 +1,131 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.PalaceRandom;
+import com.example.palacealpha01.GameFramework.palace.TranspositionTable;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests TranspositionTable.java: that it finds what was stored, which entries a full bucket gives up,
+ * and that threads writing to it all at once never read another position's data.
+ */
+public class TranspositionTableTest
+{
+	@Test
+	public void store_probe_test()
+	{
+		TranspositionTable table = new TranspositionTable(10);
+		assertEquals(1024, table.get_capacity());
+		assertEquals(-1L, table.probe(12345L));
+
+		table.store(12345L, 3, 42L);
+		assertEquals(42L, table.probe(12345L));
+		table.store(12345L, 1, 43L);
+		assertEquals(43L, table.probe(12345L));
+		table.store(12345L, 1, 0L);
+		assertEquals(0L, table.probe(12345L));
+
+		table.store(0L, 0, TranspositionTable.DATA_MASK);
+		assertEquals(TranspositionTable.DATA_MASK, table.probe(0L));
+		assertEquals(-1L, table.probe(12345L + (1L << 40)));
+
+		table.clear();
+		assertEquals(-1L, table.probe(12345L));
+		assertEquals(-1L, table.probe(0L));
+	}
+
+	@Test
+	public void replacement_test()
+	{
+		// with 4 entries, every hash goes in the same bucket
+		TranspositionTable table = new TranspositionTable(2);
+		for (int i = 1; i <= TranspositionTable.BUCKET_SIZE; i++)
+			table.store(i << 8, i, i);
+
+		// the shallowest entry makes room
+		table.store(5 << 8, 5, 5);
+		assertEquals(-1L, table.probe(1 << 8));
+		for (int i = 2; i <= 5; i++)
+			assertEquals(i, table.probe(i << 8));
+
+		// an older search's entries make room before shallower ones of this search
+		table.new_search();
+		table.store(6 << 8, 0, 6);
+		table.store(7 << 8, 0, 7);
+		assertEquals(6L, table.probe(6 << 8));
+		assertEquals(7L, table.probe(7 << 8));
+		assertEquals(-1L, table.probe(2 << 8));
+		assertEquals(-1L, table.probe(3 << 8));
+		assertEquals(4L, table.probe(4 << 8));
+		assertEquals(5L, table.probe(5 << 8));
+	}
+
+	@Test
+	public void age_wraps_test()
+	{
+		// many searches later, entries are still found, and still make room
+		TranspositionTable table = new TranspositionTable(2);
+		table.store(1L, 9, 1L);
+		for (int i = 0; i < 1000; i++)
+			table.new_search();
+		assertEquals(1L, table.probe(1L));
+		for (int i = 2; i <= 5; i++)
+			table.store(i, 0, i);
+		assertEquals(-1L, table.probe(1L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bad_size_test()
+	{
+		new TranspositionTable(1);
+	}
+
+	@Test
+	public void concurrent_test() throws InterruptedException
+	{
+		// every thread stores, for each hash, data that follows from the hash; a read that comes back
+		// with anything else would be a torn entry
+		final TranspositionTable table = new TranspositionTable(8);
+		final AtomicInteger bad_reads = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++)
+		{
+			final PalaceRandom rand = new PalaceRandom(24 + t);
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for (int i = 0; i < 200_000; i++)
+					{
+						long hash = rand.next_int(4096) * 0x9E3779B97F4A7C15L;
+						if ((i & 1) == 0)
+							table.store(hash, rand.next_int(20), expected(hash));
+						else
+						{
+							long data = table.probe(hash);
+							if (data != -1L && data != expected(hash))
+								bad_reads.incrementAndGet();
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(0, bad_reads.get());
+	}
+
+	private static long expected(long hash)
+	{
+		return (hash >>> 20) & TranspositionTable.DATA_MASK;
+	}
+}
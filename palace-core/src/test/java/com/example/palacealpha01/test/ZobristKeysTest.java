@@ -0,0 +1,106 @@
+/**
+ * @formatter:off
+ */
+package com.example.palacealpha01.test;
+
+import com.example.palacealpha01.GameFramework.palace.Card;
+import com.example.palacealpha01.GameFramework.palace.Location;
+import com.example.palacealpha01.GameFramework.palace.Pair;
+import com.example.palacealpha01.GameFramework.palace.PalaceGameState;
+import com.example.palacealpha01.GameFramework.palace.PalaceStateCodec;
+import com.example.palacealpha01.GameFramework.palace.ZobristKeys;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_ONE_HAND;
+import static com.example.palacealpha01.GameFramework.palace.Location.PLAYER_TWO_HAND;
+import static org.junit.Assert.*;
+
+/**
+ * Tests ZobristKeys.java, and checks that the hash PalaceGameState.java keeps up to date as it
+ * changes is always the same as one computed from scratch.
+ */
+public class ZobristKeysTest
+{
+	@Test
+	public void keys_are_distinct_test()
+	{
+		HashSet<Long> keys = new HashSet<>();
+		for (int id = 0; id < Card.DECK_SIZE; id++)
+			for (Location location : Location.values())
+				assertEquals(true, keys.add(ZobristKeys.location(id, location)));
+		for (int height = 0; height < Card.DECK_SIZE; height++)
+			for (int id = 0; id < Card.DECK_SIZE; id++)
+				assertEquals(true, keys.add(ZobristKeys.discard(height, id)));
+		for (int turn = 0; turn < 16; turn++)
+			assertEquals(true, keys.add(ZobristKeys.turn(turn)));
+		assertEquals(true, keys.add(ZobristKeys.IS_CHANGING_PALACE));
+		assertEquals(true, keys.add(ZobristKeys.P1_CAN_CHANGE_PALACE));
+		assertEquals(true, keys.add(ZobristKeys.P2_CAN_CHANGE_PALACE));
+	}
+
+	@Test
+	public void change_palace_hash_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		long start = pgs.getHash();
+		assertEquals(pgs.computeHash(), start);
+
+		pgs.setTurn(1);
+		assertEquals(pgs.computeHash(), pgs.getHash());
+		assertNotEquals(start, pgs.getHash());
+		pgs.setTurn(0);
+		assertEquals(start, pgs.getHash());
+
+		// putting the same three cards back into the palace gives back the same position
+		ArrayList<Pair> palace = pgs.getCardsAt(Location.PLAYER_ONE_UPPER_PALACE, new ArrayList<Pair>());
+		pgs.changePalace(0);
+		assertEquals(pgs.computeHash(), pgs.getHash());
+		assertNotEquals(start, pgs.getHash());
+		for (Pair p : palace)
+			pgs.selectPalaceCards(0, pgs.getPair(p.get_card_id()));
+		pgs.confirmPalace(0);
+		assertEquals(start, pgs.getHash());
+	}
+
+	@Test
+	public void game_state_hash_test()
+	{
+		PalaceGameState pgs = new PalaceGameState();
+		PalaceGameState decoded = new PalaceGameState();
+		ByteBuffer buffer = ByteBuffer.allocate(PalaceStateCodec.MAX_ENCODED_SIZE);
+		ArrayList<Pair> cards = new ArrayList<>();
+
+		for (int turn = 0; turn < 200; turn++)
+		{
+			int player = turn % 2;
+			Location hand = (player == 0) ? PLAYER_ONE_HAND : PLAYER_TWO_HAND;
+			Pair legal = null;
+			for (Pair p : pgs.getCardsAt(hand, cards))
+				if (pgs.isLegal(p))
+				{
+					legal = p;
+					break;
+				}
+			if (legal != null && pgs.selectCards(player, legal))
+				pgs.playCards(player);
+			else
+				pgs.takeDiscardPile(player);
+			pgs.setTurn(1 - player);
+
+			assertEquals(pgs.computeHash(), pgs.getHash());
+			assertEquals(pgs.getHash(), new PalaceGameState(pgs).getHash());
+			assertEquals(pgs.getHash(), pgs.snapshot().getHash());
+
+			buffer.clear();
+			PalaceStateCodec.encode(pgs, buffer);
+			buffer.flip();
+			PalaceStateCodec.decode(buffer, decoded);
+			assertEquals(pgs.getHash(), decoded.getHash());
+		}
+	}
+}